@@ -5,9 +5,11 @@
 
 package io.opentelemetry.api.baggage.propagation;
 
+import io.opentelemetry.api.baggage.Baggage;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +68,11 @@ public class W3CBaggagePropagatorBenchmark {
         }
       };
 
+  private static final Context LARGE_BAGGAGE_CONTEXT =
+      W3CBaggagePropagator.getInstance().extract(Context.root(), LARGE_BAGGAGE, getter);
+
+  private final Map<String, String> carrier = new HashMap<>();
+
   @Benchmark
   @BenchmarkMode({Mode.AverageTime})
   @Fork(3)
@@ -87,4 +94,28 @@ public class W3CBaggagePropagatorBenchmark {
     W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
     return propagator.extract(Context.root(), LARGE_BAGGAGE, getter);
   }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(3)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public int largeBaggageRead() {
+    W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
+    return Baggage.fromContext(propagator.extract(Context.root(), LARGE_BAGGAGE, getter)).size();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(3)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Map<String, String> largeBaggageInject() {
+    W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
+    carrier.clear();
+    propagator.inject(LARGE_BAGGAGE_CONTEXT, carrier, Map::put);
+    return carrier;
+  }
 }
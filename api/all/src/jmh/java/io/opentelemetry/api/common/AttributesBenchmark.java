@@ -26,11 +26,19 @@ public class AttributesBenchmark {
   private static final List<AttributeKey<String>> keys = new ArrayList<>(10);
   private static final List<String> values = new ArrayList<>(10);
 
+  // names equal to those of the keys, but different instances, as when creating keys ad hoc
+  private static final List<String> keyNames = new ArrayList<>(10);
+  private static final Attributes tenItems;
+
   static {
+    AttributesBuilder attributesBuilder = Attributes.builder();
     for (int i = 0; i < 10; i++) {
       keys.add(AttributeKey.stringKey("key" + i));
       values.add("value" + i);
+      keyNames.add("key" + i);
+      attributesBuilder.put(keys.get(i), values.get(i));
     }
+    tenItems = attributesBuilder.build();
   }
 
   @Benchmark
@@ -102,6 +110,26 @@ public class AttributesBenchmark {
         values.get(4));
   }
 
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Attributes ofFiveReversed() {
+    return Attributes.of(
+        keys.get(4),
+        values.get(4),
+        keys.get(3),
+        values.get(3),
+        keys.get(2),
+        values.get(2),
+        keys.get(1),
+        values.get(1),
+        keys.get(0),
+        values.get(0));
+  }
+
   @Benchmark
   @BenchmarkMode({Mode.AverageTime})
   @Fork(1)
@@ -115,4 +143,34 @@ public class AttributesBenchmark {
     }
     return attributesBuilder.build();
   }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Attributes builderTenItemsReversed() {
+    AttributesBuilder attributesBuilder = Attributes.builder();
+    for (int i = 9; i >= 0; i--) {
+      attributesBuilder.put(keys.get(i), values.get(i));
+    }
+    return attributesBuilder.build();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public int getTenItemsAdHocKeys() {
+    int found = 0;
+    for (int i = 0; i < 10; i++) {
+      if (tenItems.get(AttributeKey.stringKey(keyNames.get(i))) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
 }
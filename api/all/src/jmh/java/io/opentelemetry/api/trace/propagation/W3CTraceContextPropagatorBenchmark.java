@@ -60,6 +60,8 @@ public class W3CTraceContextPropagatorBenchmark {
 
   private static final List<Map<String, String>> carriers =
       getCarrierForHeader(traceparentsHeaders);
+  private final Context injectContext =
+      w3cTraceContextPropagator.extract(Context.root(), carriers.get(0), getter);
 
   /** Benchmark for measuring HttpTraceContext extract. */
   @Benchmark
@@ -91,6 +93,41 @@ public class W3CTraceContextPropagatorBenchmark {
     return result;
   }
 
+  /** Benchmark for measuring extract alone, which allocates only the ids and span context. */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(COUNT)
+  @Nullable
+  public Context measureExtract() {
+    Context result = null;
+    for (int i = 0; i < COUNT; i++) {
+      result = w3cTraceContextPropagator.extract(Context.root(), carriers.get(i), getter);
+    }
+    return result;
+  }
+
+  /**
+   * Benchmark for measuring inject of the same span context into several carriers, as for a span
+   * making several outgoing requests, which reuses the encoded header.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(COUNT)
+  public Map<String, String> measureInjectSameContext() {
+    for (int i = 0; i < COUNT; i++) {
+      w3cTraceContextPropagator.inject(injectContext, carrier, setter);
+    }
+    return carrier;
+  }
+
   private static List<Map<String, String>> getCarrierForHeader(List<String> headers) {
     List<Map<String, String>> carriers = new ArrayList<>();
     for (String header : headers) {
@@ -42,6 +42,28 @@ final class ImmutableBaggage extends ImmutableKeyValuePairs<String, BaggageEntry
     return new Builder(new ArrayList<>(data()));
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof Baggage && !(o instanceof ImmutableKeyValuePairs)) {
+      // Baggage which parses its entries lazily, e.g. when extracted by W3CBaggagePropagator,
+      // equals the same entries built eagerly.
+      return asMap().equals(((Baggage) o).asMap());
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    // The hash of asMap(), so that other Baggage with the same entries, which is equal as above,
+    // has the same hash.
+    List<Object> data = data();
+    int hashCode = 0;
+    for (int i = 0; i < data.size(); i += 2) {
+      hashCode += data.get(i).hashCode() ^ data.get(i + 1).hashCode();
+    }
+    return hashCode;
+  }
+
   private static Baggage sortAndFilterToBaggage(Object[] data) {
     return new ImmutableBaggage(data);
   }
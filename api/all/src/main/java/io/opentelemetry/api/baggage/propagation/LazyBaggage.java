@@ -0,0 +1,97 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.baggage.propagation;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.BaggageBuilder;
+import io.opentelemetry.api.baggage.BaggageEntry;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * {@link Baggage} extracted from a {@code baggage} header, which is only parsed the first time any
+ * entry is accessed, so that requests which never read their baggage don't pay for parsing it. If
+ * the header fails to parse, this is the baggage which was in the context it was extracted into, as
+ * if nothing had been extracted.
+ */
+@Immutable
+final class LazyBaggage implements Baggage {
+
+  private final String baggageHeader;
+  private final Baggage fallback;
+
+  // Racy single-check: parsing is idempotent and the result is immutable.
+  @Nullable private volatile Baggage delegate;
+
+  LazyBaggage(String baggageHeader, Baggage fallback) {
+    this.baggageHeader = baggageHeader;
+    this.fallback = fallback;
+  }
+
+  private Baggage delegate() {
+    Baggage delegate = this.delegate;
+    if (delegate == null) {
+      BaggageBuilder baggageBuilder = Baggage.builder();
+      try {
+        new Parser(baggageHeader).parseInto(baggageBuilder);
+        delegate = baggageBuilder.build();
+      } catch (RuntimeException e) {
+        delegate = fallback;
+      }
+      this.delegate = delegate;
+    }
+    return delegate;
+  }
+
+  @Override
+  public int size() {
+    return delegate().size();
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super BaggageEntry> consumer) {
+    delegate().forEach(consumer);
+  }
+
+  @Override
+  public Map<String, BaggageEntry> asMap() {
+    return delegate().asMap();
+  }
+
+  @Nullable
+  @Override
+  public String getEntryValue(String entryKey) {
+    return delegate().getEntryValue(entryKey);
+  }
+
+  @Override
+  public BaggageBuilder toBuilder() {
+    return delegate().toBuilder();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof LazyBaggage) {
+      return delegate().equals(((LazyBaggage) o).delegate());
+    }
+    return delegate().equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return delegate().toString();
+  }
+}
@@ -8,7 +8,6 @@ package io.opentelemetry.api.baggage.propagation;
 import static java.util.Collections.singletonList;
 
 import io.opentelemetry.api.baggage.Baggage;
-import io.opentelemetry.api.baggage.BaggageBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapPropagator;
@@ -26,6 +25,8 @@ public final class W3CBaggagePropagator implements TextMapPropagator {
   private static final List<String> FIELDS = singletonList(FIELD);
   private static final W3CBaggagePropagator INSTANCE = new W3CBaggagePropagator();
 
+  private static final ThreadLocal<BaggageHeaderCache> BAGGAGE_HEADER_CACHE = new ThreadLocal<>();
+
   /** Singleton instance of the W3C Baggage Propagator. */
   public static W3CBaggagePropagator getInstance() {
     return INSTANCE;
@@ -47,6 +48,20 @@ public final class W3CBaggagePropagator implements TextMapPropagator {
     if (baggage.isEmpty()) {
       return;
     }
+    setter.set(carrier, FIELD, baggageHeader(baggage));
+  }
+
+  // The same Baggage is usually injected into every outgoing request made while handling a
+  // request, so the header of the last Baggage injected on this thread is reused.
+  private static String baggageHeader(Baggage baggage) {
+    BaggageHeaderCache cache = BAGGAGE_HEADER_CACHE.get();
+    if (cache == null) {
+      cache = new BaggageHeaderCache();
+      BAGGAGE_HEADER_CACHE.set(cache);
+    } else if (cache.baggage == baggage) {
+      return cache.baggageHeader;
+    }
+
     StringBuilder headerContent = new StringBuilder();
     baggage.forEach(
         (key, baggageEntry) -> {
@@ -57,10 +72,12 @@ public final class W3CBaggagePropagator implements TextMapPropagator {
           }
           headerContent.append(",");
         });
-    if (headerContent.length() > 0) {
-      headerContent.setLength(headerContent.length() - 1);
-      setter.set(carrier, FIELD, headerContent.toString());
-    }
+    // Remove the trailing comma, baggage is not empty.
+    headerContent.setLength(headerContent.length() - 1);
+    String baggageHeader = headerContent.toString();
+    cache.baggage = baggage;
+    cache.baggageHeader = baggageHeader;
+    return baggageHeader;
   }
 
   @Override
@@ -80,16 +97,14 @@ public final class W3CBaggagePropagator implements TextMapPropagator {
       return context;
     }
 
-    BaggageBuilder baggageBuilder = Baggage.builder();
-    try {
-      extractEntries(baggageHeader, baggageBuilder);
-    } catch (RuntimeException e) {
-      return context;
-    }
-    return context.with(baggageBuilder.build());
+    // Parsed on first access, many requests never read their baggage. A header which fails to
+    // parse leaves the baggage of the context as it was.
+    return context.with(new LazyBaggage(baggageHeader, Baggage.fromContext(context)));
   }
 
-  private static void extractEntries(String baggageHeader, BaggageBuilder baggageBuilder) {
-    new Parser(baggageHeader).parseInto(baggageBuilder);
+  private static final class BaggageHeaderCache {
+    // Only non-empty baggage is injected, so the initial entry never matches.
+    private Baggage baggage = Baggage.empty();
+    private String baggageHeader = "";
   }
 }
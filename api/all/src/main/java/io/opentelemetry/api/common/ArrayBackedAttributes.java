@@ -16,9 +16,9 @@ final class ArrayBackedAttributes extends ImmutableKeyValuePairs<AttributeKey<?>
     implements Attributes {
 
   // We only compare the key name, not type, when constructing, to allow deduping keys with the
-  // same name but different type.
+  // same name but different type. Keys are usually interned, so check for the same key first.
   private static final Comparator<AttributeKey<?>> KEY_COMPARATOR_FOR_CONSTRUCTION =
-      Comparator.comparing(AttributeKey::getKey);
+      (key1, key2) -> key1 == key2 ? 0 : key1.getKey().compareTo(key2.getKey());
 
   static final Attributes EMPTY = Attributes.builder().build();
 
@@ -6,12 +6,29 @@
 package io.opentelemetry.api.common;
 
 import com.google.auto.value.AutoValue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
 
 @SuppressWarnings("rawtypes")
 @AutoValue
 abstract class AttributeKeyImpl<T> implements AttributeKey<T> {
 
+  // Keys are interned, so that the same key created in different places is usually the same
+  // instance, which Attributes compare by identity before falling back to equals. The number of
+  // interned keys is bounded in case key names are unbounded, e.g. contain ids.
+  private static final int MAX_INTERNED_KEYS_PER_TYPE = 1024;
+
+  @SuppressWarnings("unchecked")
+  private static final ConcurrentMap<String, AttributeKey<?>>[] INTERNED =
+      new ConcurrentMap[AttributeType.values().length];
+
+  static {
+    for (int i = 0; i < INTERNED.length; i++) {
+      INTERNED[i] = new ConcurrentHashMap<>();
+    }
+  }
+
   // Used by auto-instrumentation agent. Check with auto-instrumentation before making changes to
   // this method.
   //
@@ -25,7 +42,20 @@ abstract class AttributeKeyImpl<T> implements AttributeKey<T> {
   // Context, which would be the same class (interface) being instrumented at that time,
   // which would lead to the JVM throwing a LinkageError "attempted duplicate interface definition"
   static <T> AttributeKey<T> create(@Nullable String key, AttributeType type) {
-    return new AutoValue_AttributeKeyImpl<>(type, key != null ? key : "");
+    String keyName = key != null ? key : "";
+    ConcurrentMap<String, AttributeKey<?>> interned = INTERNED[type.ordinal()];
+    @SuppressWarnings("unchecked")
+    AttributeKey<T> attributeKey = (AttributeKey<T>) interned.get(keyName);
+    if (attributeKey != null) {
+      return attributeKey;
+    }
+    attributeKey = new AutoValue_AttributeKeyImpl<>(type, keyName);
+    if (interned.size() >= MAX_INTERNED_KEYS_PER_TYPE) {
+      return attributeKey;
+    }
+    @SuppressWarnings("unchecked")
+    AttributeKey<T> existing = (AttributeKey<T>) interned.putIfAbsent(keyName, attributeKey);
+    return existing != null ? existing : attributeKey;
   }
 
   @Override
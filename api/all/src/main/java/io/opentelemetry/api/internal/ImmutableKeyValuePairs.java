@@ -28,6 +28,10 @@ import javax.annotation.concurrent.Immutable;
  */
 @Immutable
 public abstract class ImmutableKeyValuePairs<K, V> {
+  // Up to this many key-value pairs, sorting by insertion is cheaper than merge sort, which
+  // allocates a copy of the data.
+  private static final int INSERTION_SORT_MAX_LENGTH = 8 * 2;
+
   private final Object[] data;
 
   /**
@@ -72,7 +76,9 @@ public abstract class ImmutableKeyValuePairs<K, V> {
       return null;
     }
     for (int i = 0; i < data.length; i += 2) {
-      if (key.equals(data[i])) {
+      Object currentKey = data[i];
+      // Keys such as AttributeKeys are usually interned, check for the same instance first.
+      if (key == currentKey || key.equals(currentKey)) {
         return (V) data[i + 1];
       }
     }
@@ -102,10 +108,54 @@ public abstract class ImmutableKeyValuePairs<K, V> {
       return data;
     }
 
-    mergeSort(data, keyComparator);
+    // Most callers, e.g. instrumentation passing constant keys, provide keys which are already
+    // sorted and unique, in which case neither sorting nor deduping changes anything.
+    if (isSortedAndUnique(data, keyComparator)) {
+      return data;
+    }
+
+    if (data.length <= INSERTION_SORT_MAX_LENGTH) {
+      insertionSort(data, keyComparator);
+    } else {
+      mergeSort(data, keyComparator);
+    }
     return dedupe(data, keyComparator);
   }
 
+  // Returns whether keys are in strictly increasing order and no keys or values are null.
+  @SuppressWarnings("unchecked")
+  private static <K> boolean isSortedAndUnique(Object[] data, Comparator<K> keyComparator) {
+    Object previousKey = null;
+    for (int i = 0; i < data.length; i += 2) {
+      Object key = data[i];
+      if (key == null || data[i + 1] == null) {
+        return false;
+      }
+      if (previousKey != null && keyComparator.compare((K) previousKey, (K) key) >= 0) {
+        return false;
+      }
+      previousKey = key;
+    }
+    return true;
+  }
+
+  // Sorts in place, without allocating. Like the merge sort, this is stable, which dedupe relies on
+  // for the last of the same keys to win.
+  @SuppressWarnings("unchecked")
+  private static <K> void insertionSort(Object[] data, Comparator<K> keyComparator) {
+    for (int i = 2; i < data.length; i += 2) {
+      Object key = data[i];
+      Object value = data[i + 1];
+      int j = i - 2;
+      for (; j >= 0 && compareToNullSafe((K) data[j], (K) key, keyComparator) > 0; j -= 2) {
+        data[j + 2] = data[j];
+        data[j + 3] = data[j + 1];
+      }
+      data[j + 2] = key;
+      data[j + 3] = value;
+    }
+  }
+
   // note: merge sort implementation cribbed from this wikipedia article:
   // https://en.wikipedia.org/wiki/Merge_sort (this is the top-down variant)
   private static void mergeSort(Object[] data, Comparator<?> keyComparator) {
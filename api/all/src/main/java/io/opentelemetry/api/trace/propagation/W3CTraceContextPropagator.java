@@ -23,9 +23,7 @@ import io.opentelemetry.context.propagation.TextMapSetter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
@@ -66,21 +64,9 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
   private static final char TRACESTATE_ENTRY_DELIMITER = ',';
   private static final Pattern TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN =
       Pattern.compile("[ \t]*" + TRACESTATE_ENTRY_DELIMITER + "[ \t]*");
-  private static final Set<String> VALID_VERSIONS;
-  private static final String VERSION_00 = "00";
   private static final W3CTraceContextPropagator INSTANCE = new W3CTraceContextPropagator();
 
-  static {
-    // A valid version is 1 byte representing an 8-bit unsigned integer, version ff is invalid.
-    VALID_VERSIONS = new HashSet<>();
-    for (int i = 0; i < 255; i++) {
-      String version = Long.toHexString(i);
-      if (version.length() < 2) {
-        version = '0' + version;
-      }
-      VALID_VERSIONS.add(version);
-    }
-  }
+  private static final ThreadLocal<TraceParentCache> TRACE_PARENT_CACHE = new ThreadLocal<>();
 
   private W3CTraceContextPropagator() {
     // singleton
@@ -110,6 +96,34 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
       return;
     }
 
+    setter.set(carrier, TRACE_PARENT, traceParent(spanContext));
+    TraceState traceState = spanContext.getTraceState();
+    if (traceState.isEmpty()) {
+      // No need to add an empty "tracestate" header.
+      return;
+    }
+    StringBuilder stringBuilder = new StringBuilder(TRACESTATE_MAX_SIZE);
+    traceState.forEach(
+        (key, value) -> {
+          if (stringBuilder.length() != 0) {
+            stringBuilder.append(TRACESTATE_ENTRY_DELIMITER);
+          }
+          stringBuilder.append(key).append(TRACESTATE_KEY_VALUE_DELIMITER).append(value);
+        });
+    setter.set(carrier, TRACE_STATE, stringBuilder.toString());
+  }
+
+  // Injecting the same SpanContext more than once, e.g. into several outgoing requests of a span,
+  // reuses the header of the last SpanContext injected on this thread.
+  private static String traceParent(SpanContext spanContext) {
+    TraceParentCache cache = TRACE_PARENT_CACHE.get();
+    if (cache == null) {
+      cache = new TraceParentCache();
+      TRACE_PARENT_CACHE.set(cache);
+    } else if (cache.spanContext == spanContext) {
+      return cache.traceParent;
+    }
+
     char[] chars = TemporaryBuffers.chars(TRACEPARENT_HEADER_SIZE);
     chars[0] = VERSION.charAt(0);
     chars[1] = VERSION.charAt(1);
@@ -127,21 +141,10 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
     String traceFlagsHex = spanContext.getTraceFlags().asHex();
     chars[TRACE_OPTION_OFFSET] = traceFlagsHex.charAt(0);
     chars[TRACE_OPTION_OFFSET + 1] = traceFlagsHex.charAt(1);
-    setter.set(carrier, TRACE_PARENT, new String(chars, 0, TRACEPARENT_HEADER_SIZE));
-    TraceState traceState = spanContext.getTraceState();
-    if (traceState.isEmpty()) {
-      // No need to add an empty "tracestate" header.
-      return;
-    }
-    StringBuilder stringBuilder = new StringBuilder(TRACESTATE_MAX_SIZE);
-    traceState.forEach(
-        (key, value) -> {
-          if (stringBuilder.length() != 0) {
-            stringBuilder.append(TRACESTATE_ENTRY_DELIMITER);
-          }
-          stringBuilder.append(key).append(TRACESTATE_KEY_VALUE_DELIMITER).append(value);
-        });
-    setter.set(carrier, TRACE_STATE, stringBuilder.toString());
+    String traceParent = new String(chars, 0, TRACEPARENT_HEADER_SIZE);
+    cache.spanContext = spanContext;
+    cache.traceParent = traceParent;
+    return traceParent;
   }
 
   @Override
@@ -191,8 +194,6 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
   }
 
   private static SpanContext extractContextFromTraceParent(String traceparent) {
-    // TODO(bdrutu): Do we need to verify that version is hex and that
-    // for the version the length is the expected one?
     boolean isValid =
         (traceparent.length() == TRACEPARENT_HEADER_SIZE
                 || (traceparent.length() > TRACEPARENT_HEADER_SIZE
@@ -205,16 +206,26 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
       return SpanContext.getInvalid();
     }
 
-    String version = traceparent.substring(0, 2);
-    if (!VALID_VERSIONS.contains(version)) {
+    // A valid version is 1 byte representing an 8-bit unsigned integer, version ff is invalid.
+    char firstVersionChar = traceparent.charAt(0);
+    char secondVersionChar = traceparent.charAt(1);
+    if (!OtelEncodingUtils.isValidBase16Character(firstVersionChar)
+        || !OtelEncodingUtils.isValidBase16Character(secondVersionChar)
+        || (firstVersionChar == 'f' && secondVersionChar == 'f')) {
+      return SpanContext.getInvalid();
+    }
+    if (firstVersionChar == '0'
+        && secondVersionChar == '0'
+        && traceparent.length() > TRACEPARENT_HEADER_SIZE) {
       return SpanContext.getInvalid();
     }
-    if (version.equals(VERSION_00) && traceparent.length() > TRACEPARENT_HEADER_SIZE) {
+
+    // Validate the ids in place so that only valid ones are copied out of the header.
+    if (!isValidId(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE)
+        || !isValidId(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE)) {
       return SpanContext.getInvalid();
     }
 
-    String traceId = traceparent.substring(TRACE_ID_OFFSET, TRACE_ID_OFFSET + TraceId.getLength());
-    String spanId = traceparent.substring(SPAN_ID_OFFSET, SPAN_ID_OFFSET + SpanId.getLength());
     char firstTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET);
     char secondTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET + 1);
 
@@ -223,12 +234,27 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
       return SpanContext.getInvalid();
     }
 
+    String traceId = traceparent.substring(TRACE_ID_OFFSET, TRACE_ID_OFFSET + TRACE_ID_HEX_SIZE);
+    String spanId = traceparent.substring(SPAN_ID_OFFSET, SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE);
     TraceFlags traceFlags =
         TraceFlags.fromByte(
             OtelEncodingUtils.byteFromBase16(firstTraceFlagsChar, secondTraceFlagsChar));
     return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, TraceState.getDefault());
   }
 
+  // Returns whether the length characters at offset are lowercase hex and not all zeros.
+  private static boolean isValidId(String traceparent, int offset, int length) {
+    boolean nonZero = false;
+    for (int i = offset; i < offset + length; i++) {
+      char c = traceparent.charAt(i);
+      if (!OtelEncodingUtils.isValidBase16Character(c)) {
+        return false;
+      }
+      nonZero |= c != '0';
+    }
+    return nonZero;
+  }
+
   private static TraceState extractTraceState(String traceStateHeader) {
     TraceStateBuilder traceStateBuilder = TraceState.builder();
     String[] listMembers = TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN.split(traceStateHeader);
@@ -249,4 +275,10 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
     }
     return traceState;
   }
+
+  private static final class TraceParentCache {
+    // Only valid span contexts are injected, so the initial entry never matches.
+    private SpanContext spanContext = SpanContext.getInvalid();
+    private String traceParent = "";
+  }
 }
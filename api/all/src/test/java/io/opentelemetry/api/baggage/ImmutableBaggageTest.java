@@ -199,4 +199,11 @@ class ImmutableBaggageTest {
         .addEqualityGroup(baggage2, baggage3)
         .testEquals();
   }
+
+  @Test
+  void testHashCode_matchesEntries() {
+    Baggage baggage = Baggage.builder().put(K1, V1, TMD).put(K2, V2).build();
+    assertThat(baggage).hasSameHashCodeAs(baggage.asMap());
+    assertThat(Baggage.empty()).hasSameHashCodeAs(Baggage.empty().asMap());
+  }
 }
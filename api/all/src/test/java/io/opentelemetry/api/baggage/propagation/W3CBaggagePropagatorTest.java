@@ -397,6 +397,53 @@ class W3CBaggagePropagatorTest {
     assertThat(Baggage.fromContext(result)).isEqualTo(expectedBaggage);
   }
 
+  @Test
+  void extract_equalsBuiltBaggage() {
+    W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
+
+    Context result =
+        propagator.extract(
+            Context.root(), ImmutableMap.of("baggage", "key1=value1,key2=value2;meta"), getter);
+
+    Baggage expectedBaggage =
+        Baggage.builder()
+            .put("key1", "value1")
+            .put("key2", "value2", BaggageEntryMetadata.create("meta"))
+            .build();
+    Baggage baggage = Baggage.fromContext(result);
+    assertThat(expectedBaggage).isEqualTo(baggage);
+    assertThat(baggage).isEqualTo(expectedBaggage);
+    assertThat(baggage).hasSameHashCodeAs(expectedBaggage);
+
+    Context reordered =
+        propagator.extract(
+            Context.root(), ImmutableMap.of("baggage", "key2=value2;meta,key1=value1"), getter);
+    assertThat(Baggage.fromContext(reordered)).isEqualTo(baggage);
+  }
+
+  @Test
+  void extract_replacesExistingBaggage() {
+    Context context = Context.root().with(Baggage.builder().put("cat", "meow").build());
+
+    Context result =
+        W3CBaggagePropagator.getInstance()
+            .extract(context, ImmutableMap.of("baggage", "key1=value1"), getter);
+
+    assertThat(Baggage.fromContext(result))
+        .isEqualTo(Baggage.builder().put("key1", "value1").build());
+  }
+
+  @Test
+  void extract_parseFailure_keepsExistingBaggage() {
+    Baggage existing = Baggage.builder().put("cat", "meow").build();
+
+    // The parser skips invalid entries rather than failing, a null header makes it throw.
+    Baggage baggage = new LazyBaggage(null, existing);
+
+    assertThat(baggage).isEqualTo(existing);
+    assertThat(baggage.getEntryValue("cat")).isEqualTo("meow");
+  }
+
   @Test
   void extract_nullContext() {
     assertThat(W3CBaggagePropagator.getInstance().extract(null, Collections.emptyMap(), getter))
@@ -443,6 +490,39 @@ class W3CBaggagePropagatorTest {
                 "baggage", "meta=meta-value;somemetadata; someother=foo,nometa=nometa-value"));
   }
 
+  @Test
+  void inject_sameBaggageTwice() {
+    Context context =
+        Context.root().with(Baggage.builder().put("key1", "value1").put("key2", "value2").build());
+    W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
+    Map<String, String> carrier = new HashMap<>();
+    propagator.inject(context, carrier, Map::put);
+    Map<String, String> carrier2 = new HashMap<>();
+    propagator.inject(context, carrier2, Map::put);
+    assertThat(carrier2.get("baggage"))
+        .isEqualTo("key1=value1,key2=value2")
+        .isSameAs(carrier.get("baggage"));
+
+    Map<String, String> carrier3 = new HashMap<>();
+    propagator.inject(
+        Context.root().with(Baggage.builder().put("key1", "other").build()), carrier3, Map::put);
+    assertThat(carrier3).containsExactlyInAnyOrderEntriesOf(singletonMap("baggage", "key1=other"));
+  }
+
+  @Test
+  void extractAndInject() {
+    W3CBaggagePropagator propagator = W3CBaggagePropagator.getInstance();
+    Context context =
+        propagator.extract(
+            Context.root(),
+            ImmutableMap.of("baggage", "key1=value1, ke<y=value, key2=value2"),
+            getter);
+    Map<String, String> carrier = new HashMap<>();
+    propagator.inject(context, carrier, Map::put);
+    assertThat(carrier)
+        .containsExactlyInAnyOrderEntriesOf(singletonMap("baggage", "key1=value1,key2=value2"));
+  }
+
   @Test
   void inject_nullContext() {
     Map<String, String> carrier = new LinkedHashMap<>();
@@ -22,4 +22,25 @@ class AttributeKeyTest {
   void nullToEmpty() {
     assertThat(AttributeKey.stringKey(null).getKey()).isEmpty();
   }
+
+  @Test
+  void interned() {
+    assertThat(AttributeKey.stringKey("interned")).isSameAs(AttributeKey.stringKey("interned"));
+    // A key name which is equal but not the same instance.
+    String name = new StringBuilder("interned").toString();
+    assertThat(AttributeKey.longKey(name)).isSameAs(AttributeKey.longKey("interned"));
+    assertThat(AttributeKey.stringKey("interned")).isNotEqualTo(AttributeKey.longKey("interned"));
+  }
+
+  @Test
+  void internedBounded() {
+    for (int i = 0; i < 2000; i++) {
+      assertThat(AttributeKey.doubleArrayKey("bounded" + i))
+          .isEqualTo(AttributeKey.doubleArrayKey("bounded" + i));
+    }
+    AttributeKey<?> key = AttributeKey.doubleArrayKey("beyond bound");
+    assertThat(key)
+        .isNotSameAs(AttributeKey.doubleArrayKey("beyond bound"))
+        .isEqualTo(AttributeKey.doubleArrayKey("beyond bound"));
+  }
 }
@@ -44,6 +44,37 @@ class ImmutableKeyValuePairsTest {
         .isEqualTo("{one=55, two=\"b\"}");
   }
 
+  @Test
+  void sortsAndDedupes() {
+    assertThat(new TestPairs(new Object[] {"one", 1, "three", 3, "two", 2}).toString())
+        .isEqualTo("{one=1, three=3, two=2}");
+    assertThat(new TestPairs(new Object[] {"two", 2, "one", 1, "three", 3}).toString())
+        .isEqualTo("{one=1, three=3, two=2}");
+    // The last value for a key wins, and a null value removes the key.
+    assertThat(new TestPairs(new Object[] {"b", 1, "a", 1, "b", 2, "a", null}).toString())
+        .isEqualTo("{b=2}");
+    assertThat(new TestPairs(new Object[] {"a", 1, "a", 2}).toString()).isEqualTo("{a=2}");
+    assertThat(new TestPairs(new Object[] {null, 1, "a", 1}).toString()).isEqualTo("{a=1}");
+  }
+
+  @Test
+  void sortsAndDedupesLarge() {
+    Object[] data = new Object[40];
+    for (int i = 0; i < 20; i++) {
+      // keys k19, k18, ..., k10, then k10, k11, ..., k19 again with different values
+      int key = i < 10 ? 19 - i : i;
+      data[i * 2] = "k" + key;
+      data[i * 2 + 1] = i;
+    }
+    TestPairs pairs = new TestPairs(data);
+    assertThat(pairs.size()).isEqualTo(10);
+    assertThat(pairs.get("k10")).isEqualTo(10);
+    assertThat(pairs.get("k11")).isEqualTo(11);
+    assertThat(pairs.get("k19")).isEqualTo(19);
+    assertThat(pairs.asMap().keySet())
+        .containsExactly("k10", "k11", "k12", "k13", "k14", "k15", "k16", "k17", "k18", "k19");
+  }
+
   @Test
   void doesNotCrash() {
     TestPairs pairs = new TestPairs(new Object[0]);
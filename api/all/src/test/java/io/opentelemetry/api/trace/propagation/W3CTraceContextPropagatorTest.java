@@ -163,6 +163,34 @@ class W3CTraceContextPropagatorTest {
             entry(W3CTraceContextPropagator.TRACE_STATE, TRACESTATE_NOT_DEFAULT_ENCODING));
   }
 
+  @Test
+  void inject_SameContextTwice() {
+    SpanContext spanContext =
+        SpanContext.create(
+            TRACE_ID_BASE16, SPAN_ID_BASE16, TraceFlags.getSampled(), TraceState.getDefault());
+    Context context = withSpanContext(spanContext, Context.root());
+    Map<String, String> carrier = new LinkedHashMap<>();
+    w3cTraceContextPropagator.inject(context, carrier, setter);
+    Map<String, String> carrier2 = new LinkedHashMap<>();
+    w3cTraceContextPropagator.inject(context, carrier2, setter);
+    assertThat(carrier2.get(W3CTraceContextPropagator.TRACE_PARENT))
+        .isEqualTo(TRACEPARENT_HEADER_SAMPLED)
+        .isSameAs(carrier.get(W3CTraceContextPropagator.TRACE_PARENT));
+
+    // A different span context with the same ids is encoded again.
+    Map<String, String> carrier3 = new LinkedHashMap<>();
+    w3cTraceContextPropagator.inject(
+        withSpanContext(
+            SpanContext.create(
+                TRACE_ID_BASE16, SPAN_ID_BASE16, TraceFlags.getDefault(), TraceState.getDefault()),
+            Context.root()),
+        carrier3,
+        setter);
+    assertThat(carrier3)
+        .containsExactly(
+            entry(W3CTraceContextPropagator.TRACE_PARENT, TRACEPARENT_HEADER_NOT_SAMPLED));
+  }
+
   @Test
   void inject_nullContext() {
     Map<String, String> carrier = new LinkedHashMap<>();
@@ -466,6 +494,33 @@ class W3CTraceContextPropagatorTest {
     verifyInvalidBehavior(invalidHeaders);
   }
 
+  @Test
+  void extract_InvalidVersion_notHex() {
+    Map<String, String> invalidHeaders = new HashMap<>();
+    invalidHeaders.put(
+        W3CTraceContextPropagator.TRACE_PARENT,
+        "0g-" + TRACE_ID_BASE16 + "-" + SPAN_ID_BASE16 + "-01");
+    verifyInvalidBehavior(invalidHeaders);
+  }
+
+  @Test
+  void extract_InvalidTraceId_AllZeros() {
+    Map<String, String> invalidHeaders = new HashMap<>();
+    invalidHeaders.put(
+        W3CTraceContextPropagator.TRACE_PARENT,
+        "00-" + TraceId.getInvalid() + "-" + SPAN_ID_BASE16 + "-01");
+    verifyInvalidBehavior(invalidHeaders);
+  }
+
+  @Test
+  void extract_InvalidSpanId_AllZeros() {
+    Map<String, String> invalidHeaders = new HashMap<>();
+    invalidHeaders.put(
+        W3CTraceContextPropagator.TRACE_PARENT,
+        "00-" + TRACE_ID_BASE16 + "-" + SpanId.getInvalid() + "-01");
+    verifyInvalidBehavior(invalidHeaders);
+  }
+
   @Test
   void extract_InvalidTraceparent_extraTrailing() {
     Map<String, String> invalidHeaders = new HashMap<>();
@@ -0,0 +1,93 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.metrics.common;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@SuppressWarnings("JavadocMethod")
+@State(Scope.Thread)
+public class LabelsBenchmark {
+
+  // pre-allocate the keys & values to remove one possible confounding factor
+  private static final String[] keys = new String[10];
+  private static final String[] values = new String[10];
+
+  static {
+    for (int i = 0; i < 10; i++) {
+      keys[i] = "key" + i;
+      values[i] = "value" + i;
+    }
+  }
+
+  private static final LabelsTemplate template = LabelsTemplate.of(keys[2], keys[1], keys[0]);
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Labels ofThree() {
+    return Labels.of(keys[0], values[0], keys[1], values[1], keys[2], values[2]);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Labels ofThreeReversed() {
+    return Labels.of(keys[2], values[2], keys[1], values[1], keys[0], values[0]);
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Labels builderTenItems() {
+    LabelsBuilder labelsBuilder = Labels.builder();
+    for (int i = 0; i < 10; i++) {
+      labelsBuilder.put(keys[i], values[i]);
+    }
+    return labelsBuilder.build();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Labels builderTenItemsReversed() {
+    LabelsBuilder labelsBuilder = Labels.builder();
+    for (int i = 9; i >= 0; i--) {
+      labelsBuilder.put(keys[i], values[i]);
+    }
+    return labelsBuilder.build();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Labels templateThree() {
+    return template.labels(values[2], values[1], values[0]);
+  }
+}
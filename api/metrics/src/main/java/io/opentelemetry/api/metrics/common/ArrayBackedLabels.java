@@ -16,8 +16,13 @@ final class ArrayBackedLabels extends ImmutableKeyValuePairs<String, String> imp
     return EMPTY;
   }
 
+  // Labels are used as keys of the maps aggregating metrics, which hash them on every recording
+  // and collection, so the hash is computed once.
+  private final int hashCode;
+
   private ArrayBackedLabels(Object[] data) {
     super(data);
+    this.hashCode = super.hashCode();
   }
 
   static Labels sortAndFilterToLabels(Object... data) {
@@ -28,4 +33,21 @@ final class ArrayBackedLabels extends ImmutableKeyValuePairs<String, String> imp
   public LabelsBuilder toBuilder() {
     return new ArrayBackedLabelsBuilder(data());
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    // Labels with different hashes can't be equal, which avoids comparing their entries.
+    if (o instanceof ArrayBackedLabels && ((ArrayBackedLabels) o).hashCode != hashCode) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.metrics.common;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+final class CachingLabelsTemplate implements LabelsTemplate {
+
+  // Bounds the memory used by templates recording with unbounded values, e.g. ids.
+  static final int MAX_CACHED_LABELS = 2048;
+
+  // Stands in for null values, which ConcurrentHashMap does not support as keys.
+  private static final Object NULL_VALUE = new Object();
+
+  private final List<String> keys;
+  private final String[] sortedKeys;
+  // For each of sortedKeys, the position of its value in the values passed to labels().
+  private final int[] valuePositions;
+
+  // A tree with a level per key, in the order of keys, indexed by the value for that key. Inner
+  // nodes are maps, leaves are the Labels for the values on the path to them.
+  private final ConcurrentHashMap<Object, Object> root = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  CachingLabelsTemplate(String[] keys) {
+    Integer[] positions = new Integer[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      checkArgument(keys[i] != null, "Label keys must not be null.");
+      positions[i] = i;
+    }
+    Arrays.sort(positions, (position1, position2) -> keys[position1].compareTo(keys[position2]));
+    this.sortedKeys = new String[keys.length];
+    this.valuePositions = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      sortedKeys[i] = keys[positions[i]];
+      valuePositions[i] = positions[i];
+      checkArgument(i == 0 || !sortedKeys[i].equals(sortedKeys[i - 1]), "Duplicate label key.");
+    }
+    this.keys = Collections.unmodifiableList(Arrays.asList(keys.clone()));
+  }
+
+  @Override
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Labels labels(String... values) {
+    checkArgument(
+        values.length == sortedKeys.length, "The number of values must be the number of keys.");
+    if (values.length == 0) {
+      return Labels.empty();
+    }
+
+    ConcurrentHashMap<Object, Object> node = root;
+    int last = values.length - 1;
+    for (int i = 0; i < last; i++) {
+      Object value = valueKey(values[i]);
+      Object child = node.get(value);
+      if (child == null) {
+        if (size.get() >= MAX_CACHED_LABELS) {
+          return create(values);
+        }
+        child = node.computeIfAbsent(value, unused -> new ConcurrentHashMap<>());
+      }
+      node = (ConcurrentHashMap<Object, Object>) child;
+    }
+
+    Object value = valueKey(values[last]);
+    Labels labels = (Labels) node.get(value);
+    if (labels != null) {
+      return labels;
+    }
+    labels = create(values);
+    if (size.get() >= MAX_CACHED_LABELS) {
+      return labels;
+    }
+    Labels existing = (Labels) node.putIfAbsent(value, labels);
+    if (existing != null) {
+      return existing;
+    }
+    size.incrementAndGet();
+    return labels;
+  }
+
+  private Labels create(String[] values) {
+    // Pass the pairs in key order, so that they don't need to be sorted.
+    Object[] data = new Object[sortedKeys.length * 2];
+    for (int i = 0; i < sortedKeys.length; i++) {
+      data[i * 2] = sortedKeys[i];
+      data[i * 2 + 1] = values[valuePositions[i]];
+    }
+    return ArrayBackedLabels.sortAndFilterToLabels(data);
+  }
+
+  private static Object valueKey(@Nullable String value) {
+    return value != null ? value : NULL_VALUE;
+  }
+
+  // visible for testing
+  int size() {
+    return size.get();
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.metrics.common;
+
+import java.util.List;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A fixed set of label keys, for recording many times with the same keys and varying values, for
+ * example:
+ *
+ * <pre>{@code
+ * private static final LabelsTemplate REQUEST_LABELS =
+ *     LabelsTemplate.of("http.route", "http.status_code", "http.method");
+ *
+ * void onRequestEnd(String route, String status, String method) {
+ *   requestCounter.add(1, REQUEST_LABELS.labels(route, status, method));
+ * }
+ * }</pre>
+ *
+ * <p>The {@link Labels} for each combination of values are created once and then reused, so
+ * recordings don't need to build and sort new {@link Labels}, and the instrument finds its
+ * aggregation for the reused {@link Labels} without computing their hash again. Only a bounded
+ * number of combinations is kept, beyond which new {@link Labels} are created for every call.
+ */
+@ThreadSafe
+public interface LabelsTemplate {
+
+  /**
+   * Returns a {@link LabelsTemplate} with the given keys, which must not be {@code null} and must
+   * be distinct.
+   *
+   * @throws IllegalArgumentException if any key is {@code null} or repeated.
+   */
+  static LabelsTemplate of(String... keys) {
+    return new CachingLabelsTemplate(keys);
+  }
+
+  /** Returns the keys of this template, in the order values are passed to {@link #labels}. */
+  List<String> getKeys();
+
+  /**
+   * Returns the {@link Labels} with the keys of this template and the given values, in the order of
+   * {@link #getKeys()}. As for {@link Labels#of}, keys with a {@code null} value are omitted.
+   *
+   * @throws IllegalArgumentException if the number of values is not the number of keys.
+   */
+  Labels labels(String... values);
+}
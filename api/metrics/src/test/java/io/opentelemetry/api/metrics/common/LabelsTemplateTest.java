@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.api.metrics.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LabelsTemplateTest {
+
+  @Test
+  void labels() {
+    LabelsTemplate template = LabelsTemplate.of("route", "status", "method");
+    assertThat(template.getKeys()).containsExactly("route", "status", "method");
+
+    Labels labels = template.labels("/users", "200", "GET");
+    assertThat(labels)
+        .isEqualTo(Labels.of("route", "/users", "status", "200", "method", "GET"))
+        .isSameAs(template.labels("/users", "200", "GET"));
+    assertThat(template.labels("/users", "500", "GET"))
+        .isEqualTo(Labels.of("route", "/users", "status", "500", "method", "GET"))
+        .isNotEqualTo(labels);
+  }
+
+  @Test
+  void nullValuesOmitted() {
+    LabelsTemplate template = LabelsTemplate.of("b", "a");
+    Labels labels = template.labels(null, "1");
+    assertThat(labels).isEqualTo(Labels.of("a", "1")).isSameAs(template.labels(null, "1"));
+    assertThat(template.labels(null, null)).isEqualTo(Labels.empty());
+  }
+
+  @Test
+  void noKeys() {
+    assertThat(LabelsTemplate.of().labels()).isSameAs(Labels.empty());
+  }
+
+  @Test
+  void invalidKeys() {
+    assertThatThrownBy(() -> LabelsTemplate.of("a", null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> LabelsTemplate.of("a", "b", "a"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void wrongNumberOfValues() {
+    LabelsTemplate template = LabelsTemplate.of("a", "b");
+    assertThatThrownBy(() -> template.labels("1")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> template.labels("1", "2", "3"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void cacheBounded() {
+    CachingLabelsTemplate template = (CachingLabelsTemplate) LabelsTemplate.of("id", "status");
+    for (int i = 0; i < CachingLabelsTemplate.MAX_CACHED_LABELS + 10; i++) {
+      assertThat(template.labels(String.valueOf(i), "200"))
+          .isEqualTo(Labels.of("id", String.valueOf(i), "status", "200"));
+    }
+    assertThat(template.size()).isEqualTo(CachingLabelsTemplate.MAX_CACHED_LABELS);
+
+    String id = String.valueOf(CachingLabelsTemplate.MAX_CACHED_LABELS + 1);
+    assertThat(template.labels(id, "200")).isNotSameAs(template.labels(id, "200"));
+    assertThat(template.labels("0", "200")).isSameAs(template.labels("0", "200"));
+  }
+}
@@ -8,6 +8,7 @@ package io.opentelemetry.api.metrics.common;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
+import com.google.common.testing.EqualsTester;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -74,6 +75,19 @@ class LabelsTest {
     assertThat(one).isEqualTo(two);
   }
 
+  @Test
+  void equalsAndHashCode() {
+    new EqualsTester()
+        .addEqualityGroup(
+            Labels.of("key1", "value1", "key2", "value2"),
+            Labels.of("key2", "value2", "key1", "value1"),
+            Labels.builder().put("key1", "value1").put("key2", "value2").build())
+        .addEqualityGroup(Labels.of("key1", "value1", "key2", "other"))
+        .addEqualityGroup(Labels.of("key1", "value1"))
+        .addEqualityGroup(Labels.empty())
+        .testEquals();
+  }
+
   @Test
   void nullValueEquivalentWithMissing() {
     Labels one =
@@ -28,21 +28,24 @@ import org.openjdk.jmh.infra.Blackhole;
 @State(Scope.Benchmark)
 public class ContextBenchmark {
 
-  @Param({"2", "3", "4", "5", "10", "20", "40"})
+  @Param({"1", "2", "4", "8", "9", "16", "32", "64"})
   private int size;
 
   private int middle;
 
   private List<ContextKey<String>> keys;
+  private List<Context> contexts;
   private Context context = Context.root();
 
   @Setup
   public void setup() {
     keys = new ArrayList<>();
+    contexts = new ArrayList<>();
     for (int i = 0; i < size; i++) {
       ContextKey<String> key = ContextKey.named(Integer.toString(i));
       context = context.with(key, "value");
       keys.add(key);
+      contexts.add(context);
     }
     middle = size / 2;
   }
@@ -82,4 +85,24 @@ public class ContextBenchmark {
     }
     return context;
   }
+
+  // Attaches contexts nested size deep, as done by instrumentation along a request path.
+  @Benchmark
+  public void attachNestedThreadLocal() {
+    attachNested(ThreadLocalContextStorage.INSTANCE, 0);
+  }
+
+  @Benchmark
+  public void attachNestedStack() {
+    attachNested(StackContextStorage.INSTANCE, 0);
+  }
+
+  private void attachNested(ContextStorage storage, int depth) {
+    if (depth == size) {
+      return;
+    }
+    try (io.opentelemetry.context.Scope ignored = storage.attach(contexts.get(depth))) {
+      attachNested(storage, depth + 1);
+    }
+  }
 }
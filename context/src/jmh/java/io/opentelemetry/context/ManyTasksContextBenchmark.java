@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Submits 1M concurrent tasks, each carrying the submitter's {@link Context} into the task the same
+ * way as {@link Context#wrap(Runnable)}, and nesting one more {@link Context} inside it, comparing
+ * the built-in {@link ContextStorage}s.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(3)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ManyTasksContextBenchmark {
+
+  private static final int TASKS = 1_000_000;
+  private static final ContextKey<String> KEY = ContextKey.named("key");
+
+  @Param({"threadLocal", "stack", "compact"})
+  private String storageName;
+
+  private ContextStorage storage;
+  private ExecutorService executor;
+  private final Context context = Context.root().with(KEY, "parent");
+  private final Context child = context.with(KEY, "child");
+
+  @Setup
+  public void setup() {
+    switch (storageName) {
+      case "stack":
+        storage = StackContextStorage.INSTANCE;
+        break;
+      case "compact":
+        storage = CompactContextStorage.INSTANCE;
+        break;
+      default:
+        storage = ThreadLocalContextStorage.INSTANCE;
+    }
+    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public void submitTasks() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(TASKS);
+    for (int i = 0; i < TASKS; i++) {
+      executor.execute(
+          () -> {
+            try (io.opentelemetry.context.Scope ignored = storage.attach(context)) {
+              try (io.opentelemetry.context.Scope ignored2 = storage.attach(child)) {
+                done.countDown();
+              }
+            }
+          });
+    }
+    done.await();
+  }
+}
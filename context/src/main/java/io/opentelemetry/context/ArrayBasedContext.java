@@ -27,6 +27,10 @@ import javax.annotation.Nullable;
 
 final class ArrayBasedContext implements Context {
 
+  // Beyond this many entries, scanning the array on every lookup and copying it on every update
+  // costs more than the trie used by TrieBasedContext.
+  static final int MAX_ARRAY_ENTRIES = 8;
+
   private static final Context ROOT = new ArrayBasedContext(new Object[0]);
 
   // Used by auto-instrumentation agent. Check with auto-instrumentation before making changes to
@@ -76,6 +80,9 @@ final class ArrayBasedContext implements Context {
         return new ArrayBasedContext(newEntries);
       }
     }
+    if (entries.length == MAX_ARRAY_ENTRIES * 2) {
+      return TrieBasedContext.create(entries, key, value);
+    }
     Object[] newEntries = Arrays.copyOf(entries, entries.length + 2);
     newEntries[newEntries.length - 2] = key;
     newEntries[newEntries.length - 1] = value;
@@ -0,0 +1,73 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ContextStorage} for applications running very large numbers of short-lived threads, such
+ * as one thread per task. A thread only has storage while a {@link Context} other than {@link
+ * Context#root()} is attached to it: the entry is removed, rather than reset, when its outermost
+ * {@link Scope} is closed, and attaching {@link Context#root()} to a thread without a {@link
+ * Context} is a no-op. The outermost attach on a thread, which is what wrapped tasks do, returns a
+ * shared {@link Scope} instead of allocating one. Nothing is copied to child threads.
+ */
+enum CompactContextStorage implements ContextStorage {
+  INSTANCE;
+
+  private static final Logger logger = Logger.getLogger(CompactContextStorage.class.getName());
+
+  private static final ThreadLocal<Context> THREAD_LOCAL_STORAGE = new ThreadLocal<>();
+
+  @Override
+  public Scope attach(Context toAttach) {
+    if (toAttach == null) {
+      // Null context not allowed so ignore it.
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+
+    Context beforeAttach = THREAD_LOCAL_STORAGE.get();
+    if (beforeAttach == null) {
+      if (toAttach == Context.root()) {
+        return ThreadLocalContextStorage.NoopScope.INSTANCE;
+      }
+      THREAD_LOCAL_STORAGE.set(toAttach);
+      return RemovingScope.INSTANCE;
+    }
+    if (toAttach == beforeAttach) {
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+
+    THREAD_LOCAL_STORAGE.set(toAttach);
+
+    return () -> {
+      if (current() != toAttach) {
+        logger.log(
+            Level.FINE,
+            "Context in storage not the expected context, Scope.close was not called correctly");
+      }
+      THREAD_LOCAL_STORAGE.set(beforeAttach);
+    };
+  }
+
+  @Override
+  @Nullable
+  public Context current() {
+    return THREAD_LOCAL_STORAGE.get();
+  }
+
+  // Closes the outermost scope of a thread, leaving it without storage.
+  enum RemovingScope implements Scope {
+    INSTANCE;
+
+    @Override
+    public void close() {
+      THREAD_LOCAL_STORAGE.remove();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+/**
+ * A {@link ContextStorageProvider} of a {@link ContextStorage} suited to applications running very
+ * large numbers of short-lived threads, such as one thread per task. Threads only hold storage
+ * while a {@link Context} is attached to them, {@link Context#root()} is never stored, and
+ * restoring a thread to having no {@link Context}, as tasks wrapped with {@link
+ * Context#wrap(Runnable)} or {@link Context#taskWrapping(java.util.concurrent.ExecutorService)} do
+ * when they finish, does not allocate.
+ *
+ * <p>To use it, set the {@code io.opentelemetry.context.contextStorageProvider} system property to
+ * {@code io.opentelemetry.context.CompactContextStorageProvider}.
+ */
+public final class CompactContextStorageProvider implements ContextStorageProvider {
+
+  @Override
+  public ContextStorage get() {
+    return CompactContextStorage.INSTANCE;
+  }
+}
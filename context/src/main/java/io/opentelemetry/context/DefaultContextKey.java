@@ -5,14 +5,26 @@
 
 package io.opentelemetry.context;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 final class DefaultContextKey<T> implements ContextKey<T> {
 
+  // Spreads the hashes of consecutively created keys, the same as ThreadLocal.
+  private static final int HASH_INCREMENT = 0x61c88647;
+  private static final AtomicInteger nextHash = new AtomicInteger();
+
   private final String name;
+  private final int hash = nextHash.getAndAdd(HASH_INCREMENT);
 
   DefaultContextKey(String name) {
     this.name = name;
   }
 
+  // Used to look up this key in a TrieBasedContext.
+  int hash() {
+    return hash;
+  }
+
   @Override
   public String toString() {
     return name;
@@ -102,6 +102,13 @@ final class LazyStorage {
     if (ENFORCE_DEFAULT_STORAGE_VALUE.equals(providerClassName)) {
       return ContextStorage.defaultStorage();
     }
+    // Allow user to select the built-in storages without registering them as a service
+    if (StackContextStorageProvider.class.getName().equals(providerClassName)) {
+      return new StackContextStorageProvider().get();
+    }
+    if (CompactContextStorageProvider.class.getName().equals(providerClassName)) {
+      return new CompactContextStorageProvider().get();
+    }
 
     List<ContextStorageProvider> providers = new ArrayList<>();
     for (ContextStorageProvider provider : ServiceLoader.load(ContextStorageProvider.class)) {
@@ -0,0 +1,122 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ContextStorage} which keeps a stack of attached {@link Context}s per thread. Attaching
+ * pushes onto the stack of the current thread and closing the returned {@link Scope} pops it, so
+ * neither allocates once the stack has grown to the deepest nesting used by the thread: the array
+ * backing the stack and the {@link Scope} for each depth are reused.
+ *
+ * <p>Because {@link Scope}s are reused, a {@link Scope} must be closed exactly once, on the thread
+ * it was returned on. Closing it again after another {@link Context} has been attached at the same
+ * depth detaches that {@link Context} instead.
+ */
+enum StackContextStorage implements ContextStorage {
+  INSTANCE;
+
+  private static final Logger logger = Logger.getLogger(StackContextStorage.class.getName());
+
+  private static final ThreadLocal<ContextStack> STACKS = new ThreadLocal<>();
+
+  @Override
+  public Scope attach(Context toAttach) {
+    if (toAttach == null) {
+      // Null context not allowed so ignore it.
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+
+    ContextStack stack = stack();
+    if (toAttach == stack.current()) {
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+    return stack.push(toAttach);
+  }
+
+  @Override
+  @Nullable
+  public Context current() {
+    ContextStack stack = STACKS.get();
+    return stack == null ? null : stack.current();
+  }
+
+  private static ContextStack stack() {
+    ContextStack stack = STACKS.get();
+    if (stack == null) {
+      stack = new ContextStack();
+      STACKS.set(stack);
+    }
+    return stack;
+  }
+
+  static final class ContextStack {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Context[] contexts = new Context[INITIAL_CAPACITY];
+    private StackScope[] scopes = new StackScope[INITIAL_CAPACITY];
+    private int size;
+
+    @Nullable
+    Context current() {
+      return size == 0 ? null : contexts[size - 1];
+    }
+
+    Scope push(Context context) {
+      if (size == contexts.length) {
+        contexts = Arrays.copyOf(contexts, size * 2);
+        scopes = Arrays.copyOf(scopes, size * 2);
+      }
+      contexts[size] = context;
+      StackScope scope = scopes[size];
+      if (scope == null) {
+        scope = new StackScope(this, size);
+        scopes[size] = scope;
+      }
+      size++;
+      return scope;
+    }
+
+    // Restores the stack to the given depth, which is the depth before the closed scope's context
+    // was attached.
+    void close(int depth) {
+      if (depth >= size) {
+        logger.log(
+            Level.FINE,
+            "Context already detached from storage, Scope.close was not called correctly");
+        return;
+      }
+      if (depth != size - 1) {
+        logger.log(
+            Level.FINE,
+            "Context in storage not the expected context, Scope.close was not called correctly");
+      }
+      for (int i = depth; i < size; i++) {
+        contexts[i] = null;
+      }
+      size = depth;
+    }
+  }
+
+  static final class StackScope implements Scope {
+    private final ContextStack stack;
+    private final int depth;
+
+    StackScope(ContextStack stack, int depth) {
+      this.stack = stack;
+      this.depth = depth;
+    }
+
+    @Override
+    public void close() {
+      stack.close(depth);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+/**
+ * A {@link ContextStorageProvider} of a {@link ContextStorage} which keeps a stack of attached
+ * {@link Context}s per thread instead of setting a {@link ThreadLocal} on every attach and close.
+ * Attaching a {@link Context} and closing its {@link Scope} do not allocate, at the cost of reusing
+ * {@link Scope}s: each {@link Scope} must be closed exactly once, on the thread that attached it.
+ *
+ * <p>To use it, set the {@code io.opentelemetry.context.contextStorageProvider} system property to
+ * {@code io.opentelemetry.context.StackContextStorageProvider}.
+ */
+public final class StackContextStorageProvider implements ContextStorageProvider {
+
+  @Override
+  public ContextStorage get() {
+    return StackContextStorage.INSTANCE;
+  }
+}
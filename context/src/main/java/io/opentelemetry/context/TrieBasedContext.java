@@ -0,0 +1,239 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Context} for many entries, stored in a persistent hash array mapped trie keyed by the
+ * identity of {@link ContextKey}s. Lookups and updates take time logarithmic in the number of
+ * entries, and {@link #with(ContextKey, Object)} only copies the nodes on the path to the updated
+ * entry, sharing the rest with this context. {@link ArrayBasedContext} switches to this once it
+ * grows beyond {@link ArrayBasedContext#MAX_ARRAY_ENTRIES} entries.
+ */
+final class TrieBasedContext implements Context {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private final Node root;
+
+  private TrieBasedContext(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns a context with the given key and value pairs, followed by the given key and value. Keys
+   * must be distinct.
+   */
+  static Context create(Object[] entries, Object key, @Nullable Object value) {
+    Node root = new Leaf(key, value, hash(key));
+    for (int i = 0; i < entries.length; i += 2) {
+      root = root.put(entries[i], entries[i + 1], hash(entries[i]), 0);
+    }
+    return new TrieBasedContext(root);
+  }
+
+  @Override
+  @Nullable
+  public <V> V get(ContextKey<V> key) {
+    @SuppressWarnings("unchecked")
+    V result = (V) root.get(key, hash(key), 0);
+    return result;
+  }
+
+  @Override
+  public <V> Context with(ContextKey<V> key, V value) {
+    Node newRoot = root.put(key, value, hash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new TrieBasedContext(newRoot);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    root.appendTo(sb);
+    // get rid of that last pesky comma
+    if (sb.length() > 1) {
+      sb.setLength(sb.length() - 2);
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  static int hash(Object key) {
+    if (key instanceof DefaultContextKey) {
+      return ((DefaultContextKey<?>) key).hash();
+    }
+    return System.identityHashCode(key);
+  }
+
+  private static int index(int hash, int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  abstract static class Node {
+    @Nullable
+    abstract Object get(Object key, int hash, int shift);
+
+    abstract Node put(Object key, @Nullable Object value, int hash, int shift);
+
+    abstract void appendTo(StringBuilder sb);
+  }
+
+  static final class Leaf extends Node {
+    private final Object key;
+    @Nullable private final Object value;
+    private final int hash;
+
+    Leaf(Object key, @Nullable Object value, int hash) {
+      this.key = key;
+      this.value = value;
+      this.hash = hash;
+    }
+
+    @Override
+    @Nullable
+    Object get(Object key, int hash, int shift) {
+      return key == this.key ? value : null;
+    }
+
+    @Override
+    Node put(Object key, @Nullable Object value, int hash, int shift) {
+      if (key == this.key) {
+        return value == this.value ? this : new Leaf(key, value, hash);
+      }
+      if (hash == this.hash) {
+        return new CollisionLeaf(hash, new Object[] {this.key, this.value, key, value});
+      }
+      return Branch.combine(this, this.hash, new Leaf(key, value, hash), hash, shift);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb) {
+      sb.append(key).append('=').append(value).append(", ");
+    }
+  }
+
+  // Entries of distinct keys with the same hash.
+  static final class CollisionLeaf extends Node {
+    private final int hash;
+    private final Object[] entries;
+
+    CollisionLeaf(int hash, Object[] entries) {
+      this.hash = hash;
+      this.entries = entries;
+    }
+
+    @Override
+    @Nullable
+    Object get(Object key, int hash, int shift) {
+      for (int i = 0; i < entries.length; i += 2) {
+        if (entries[i] == key) {
+          return entries[i + 1];
+        }
+      }
+      return null;
+    }
+
+    @Override
+    Node put(Object key, @Nullable Object value, int hash, int shift) {
+      if (hash != this.hash) {
+        return Branch.combine(this, this.hash, new Leaf(key, value, hash), hash, shift);
+      }
+      for (int i = 0; i < entries.length; i += 2) {
+        if (entries[i] == key) {
+          if (entries[i + 1] == value) {
+            return this;
+          }
+          Object[] newEntries = entries.clone();
+          newEntries[i + 1] = value;
+          return new CollisionLeaf(hash, newEntries);
+        }
+      }
+      Object[] newEntries = Arrays.copyOf(entries, entries.length + 2);
+      newEntries[newEntries.length - 2] = key;
+      newEntries[newEntries.length - 1] = value;
+      return new CollisionLeaf(hash, newEntries);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb) {
+      for (int i = 0; i < entries.length; i += 2) {
+        sb.append(entries[i]).append('=').append(entries[i + 1]).append(", ");
+      }
+    }
+  }
+
+  // Children for each of the 32 values of the hash bits at this level that are set in the bitmap,
+  // ordered by those values.
+  static final class Branch extends Node {
+    private final int bitmap;
+    private final Node[] children;
+
+    private Branch(int bitmap, Node[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    // Returns a branch containing two nodes with different hashes.
+    static Node combine(Node first, int firstHash, Node second, int secondHash, int shift) {
+      int firstIndex = index(firstHash, shift);
+      int secondIndex = index(secondHash, shift);
+      if (firstIndex == secondIndex) {
+        return new Branch(
+            1 << firstIndex,
+            new Node[] {combine(first, firstHash, second, secondHash, shift + BITS)});
+      }
+      int bitmap = (1 << firstIndex) | (1 << secondIndex);
+      if (firstIndex < secondIndex) {
+        return new Branch(bitmap, new Node[] {first, second});
+      }
+      return new Branch(bitmap, new Node[] {second, first});
+    }
+
+    @Override
+    @Nullable
+    Object get(Object key, int hash, int shift) {
+      int bit = 1 << index(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[Integer.bitCount(bitmap & (bit - 1))].get(key, hash, shift + BITS);
+    }
+
+    @Override
+    Node put(Object key, @Nullable Object value, int hash, int shift) {
+      int bit = 1 << index(hash, shift);
+      int position = Integer.bitCount(bitmap & (bit - 1));
+      if ((bitmap & bit) == 0) {
+        Node[] newChildren = new Node[children.length + 1];
+        System.arraycopy(children, 0, newChildren, 0, position);
+        newChildren[position] = new Leaf(key, value, hash);
+        System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+        return new Branch(bitmap | bit, newChildren);
+      }
+      Node child = children[position];
+      Node newChild = child.put(key, value, hash, shift + BITS);
+      if (newChild == child) {
+        return this;
+      }
+      Node[] newChildren = children.clone();
+      newChildren[position] = newChild;
+      return new Branch(bitmap, newChildren);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb) {
+      for (Node child : children) {
+        child.appendTo(sb);
+      }
+    }
+  }
+}
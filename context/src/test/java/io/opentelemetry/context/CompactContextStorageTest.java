@@ -0,0 +1,76 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CompactContextStorageTest {
+
+  private static final ContextKey<String> KEY = ContextKey.named("key");
+
+  private final ContextStorage storage = CompactContextStorage.INSTANCE;
+
+  @AfterEach
+  void checkEmpty() {
+    assertThat(storage.current()).isNull();
+  }
+
+  @Test
+  void attachAndClose() {
+    Context first = Context.root().with(KEY, "first");
+    Context second = Context.root().with(KEY, "second");
+
+    try (Scope scope = storage.attach(first)) {
+      // The outermost scope is shared.
+      assertThat(scope).isSameAs(CompactContextStorage.RemovingScope.INSTANCE);
+      assertThat(storage.current()).isSameAs(first);
+      try (Scope ignored = storage.attach(second)) {
+        assertThat(storage.current()).isSameAs(second);
+      }
+      assertThat(storage.current()).isSameAs(first);
+    }
+  }
+
+  @Test
+  void attachRoot() {
+    assertThat(storage.attach(Context.root()))
+        .isSameAs(ThreadLocalContextStorage.NoopScope.INSTANCE);
+    assertThat(storage.current()).isNull();
+
+    Context context = Context.root().with(KEY, "value");
+    try (Scope ignored = storage.attach(context)) {
+      // Root is stored when it replaces another context.
+      try (Scope ignored2 = storage.attach(Context.root())) {
+        assertThat(storage.current()).isSameAs(Context.root());
+      }
+      assertThat(storage.current()).isSameAs(context);
+    }
+  }
+
+  @Test
+  void attachSameContext() {
+    Context context = Context.root().with(KEY, "value");
+    try (Scope ignored = storage.attach(context)) {
+      assertThat(storage.attach(context)).isSameAs(ThreadLocalContextStorage.NoopScope.INSTANCE);
+    }
+  }
+
+  @Test
+  void notInherited() throws Exception {
+    Context context = Context.root().with(KEY, "value");
+    try (Scope ignored = storage.attach(context)) {
+      AtomicReference<Context> otherThread = new AtomicReference<>(context);
+      Thread thread = new Thread(() -> otherThread.set(storage.current()));
+      thread.start();
+      thread.join();
+      assertThat(otherThread.get()).isNull();
+    }
+  }
+}
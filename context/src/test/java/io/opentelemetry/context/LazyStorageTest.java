@@ -95,6 +95,24 @@ class LazyStorageTest {
     }
   }
 
+  @Test
+  @SetSystemProperty(
+      key = CONTEXT_STORAGE_PROVIDER_PROPERTY,
+      value = "io.opentelemetry.context.StackContextStorageProvider")
+  void stack_storage_and_empty_providers() {
+    assertThat(LazyStorage.createStorage(DEFERRED_STORAGE_FAILURE))
+        .isEqualTo(StackContextStorage.INSTANCE);
+  }
+
+  @Test
+  @SetSystemProperty(
+      key = CONTEXT_STORAGE_PROVIDER_PROPERTY,
+      value = "io.opentelemetry.context.CompactContextStorageProvider")
+  void compact_storage_and_empty_providers() {
+    assertThat(LazyStorage.createStorage(DEFERRED_STORAGE_FAILURE))
+        .isEqualTo(CompactContextStorage.INSTANCE);
+  }
+
   private static File createContextStorageProvider() throws IOException {
     URL location =
         MockContextStorageProvider.class.getProtectionDomain().getCodeSource().getLocation();
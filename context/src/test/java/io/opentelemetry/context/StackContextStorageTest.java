@@ -0,0 +1,105 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StackContextStorageTest {
+
+  private static final ContextKey<String> KEY = ContextKey.named("key");
+
+  private final ContextStorage storage = StackContextStorage.INSTANCE;
+
+  @AfterEach
+  void checkEmpty() {
+    assertThat(storage.current()).isNull();
+  }
+
+  @Test
+  void attachAndClose() {
+    Context first = Context.root().with(KEY, "first");
+    Context second = Context.root().with(KEY, "second");
+
+    try (Scope ignored = storage.attach(first)) {
+      assertThat(storage.current()).isSameAs(first);
+      try (Scope ignored2 = storage.attach(second)) {
+        assertThat(storage.current()).isSameAs(second);
+      }
+      assertThat(storage.current()).isSameAs(first);
+    }
+  }
+
+  @Test
+  void attachSameContext() {
+    Context context = Context.root().with(KEY, "value");
+    try (Scope scope = storage.attach(context)) {
+      assertThat(storage.attach(context)).isSameAs(ThreadLocalContextStorage.NoopScope.INSTANCE);
+      assertThat(scope).isNotSameAs(ThreadLocalContextStorage.NoopScope.INSTANCE);
+    }
+  }
+
+  @Test
+  void reusesScopes() {
+    Context first = Context.root().with(KEY, "first");
+    Context second = Context.root().with(KEY, "second");
+
+    Scope scope = storage.attach(first);
+    scope.close();
+    Scope reused = storage.attach(second);
+    assertThat(reused).isSameAs(scope);
+    assertThat(storage.current()).isSameAs(second);
+    reused.close();
+  }
+
+  @Test
+  void growsBeyondInitialCapacity() {
+    List<Context> contexts = new ArrayList<>();
+    List<Scope> scopes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Context context = Context.root().with(KEY, Integer.toString(i));
+      contexts.add(context);
+      scopes.add(storage.attach(context));
+      assertThat(storage.current()).isSameAs(context);
+    }
+    for (int i = 99; i >= 0; i--) {
+      assertThat(storage.current()).isSameAs(contexts.get(i));
+      scopes.get(i).close();
+    }
+  }
+
+  @Test
+  void closeOutOfOrder() {
+    Context first = Context.root().with(KEY, "first");
+    Context second = Context.root().with(KEY, "second");
+
+    Scope firstScope = storage.attach(first);
+    Scope secondScope = storage.attach(second);
+    // Closing the outer scope detaches everything attached after it.
+    firstScope.close();
+    assertThat(storage.current()).isNull();
+    // Closing the inner scope afterwards is ignored.
+    secondScope.close();
+    assertThat(storage.current()).isNull();
+  }
+
+  @Test
+  void separateThreads() throws Exception {
+    Context context = Context.root().with(KEY, "value");
+    try (Scope ignored = storage.attach(context)) {
+      AtomicReference<Context> otherThread = new AtomicReference<>(context);
+      Thread thread = new Thread(() -> otherThread.set(storage.current()));
+      thread.start();
+      thread.join();
+      assertThat(otherThread.get()).isNull();
+    }
+  }
+}
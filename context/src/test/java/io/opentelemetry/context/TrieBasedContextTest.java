@@ -0,0 +1,121 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrieBasedContextTest {
+
+  @Test
+  void switchesFromArrayWhenLarge() {
+    List<ContextKey<String>> keys = new ArrayList<>();
+    Context context = Context.root();
+    for (int i = 0; i < ArrayBasedContext.MAX_ARRAY_ENTRIES; i++) {
+      ContextKey<String> key = ContextKey.named("key" + i);
+      keys.add(key);
+      context = context.with(key, "value" + i);
+    }
+    assertThat(context).isInstanceOf(ArrayBasedContext.class);
+
+    ContextKey<String> key = ContextKey.named("last");
+    context = context.with(key, "last");
+    assertThat(context).isInstanceOf(TrieBasedContext.class);
+    assertThat(context.get(key)).isEqualTo("last");
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo("value" + i);
+    }
+  }
+
+  @Test
+  void manyKeys() {
+    List<ContextKey<Integer>> keys = new ArrayList<>();
+    List<Context> contexts = new ArrayList<>();
+    Context context = Context.root();
+    for (int i = 0; i < 1000; i++) {
+      ContextKey<Integer> key = ContextKey.named("key" + i);
+      keys.add(key);
+      context = context.with(key, i);
+      contexts.add(context);
+    }
+
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo(i);
+    }
+    // Earlier contexts are not affected by later updates.
+    Context earlier = contexts.get(499);
+    assertThat(earlier.get(keys.get(499))).isEqualTo(499);
+    assertThat(earlier.get(keys.get(500))).isNull();
+    ContextKey<Integer> missing = ContextKey.named("missing");
+    assertThat(context.get(missing)).isNull();
+  }
+
+  @Test
+  void replaceValue() {
+    Context context = Context.root();
+    List<ContextKey<String>> keys = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ContextKey<String> key = ContextKey.named("key" + i);
+      keys.add(key);
+      context = context.with(key, "value");
+    }
+
+    assertThat(context.with(keys.get(10), "value")).isSameAs(context);
+    Context updated = context.with(keys.get(10), "updated");
+    assertThat(updated.get(keys.get(10))).isEqualTo("updated");
+    assertThat(context.get(keys.get(10))).isEqualTo("value");
+    assertThat(updated.get(keys.get(11))).isEqualTo("value");
+  }
+
+  @Test
+  void customKeys() {
+    Context context = Context.root();
+    List<ContextKey<String>> keys = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ContextKey<String> key = new ContextKey<String>() {};
+      keys.add(key);
+      context = context.with(key, "value" + i);
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo("value" + i);
+    }
+  }
+
+  @Test
+  void hashCollisions() {
+    Object first = new Object();
+    Object second = new Object();
+    Object third = new Object();
+    TrieBasedContext.Node node = new TrieBasedContext.Leaf(first, "first", 42);
+    node = node.put(second, "second", 42, 0);
+    node = node.put(third, "third", 42 | (1 << 31), 0);
+    assertThat(node.get(first, 42, 0)).isEqualTo("first");
+    assertThat(node.get(second, 42, 0)).isEqualTo("second");
+    assertThat(node.get(third, 42 | (1 << 31), 0)).isEqualTo("third");
+    assertThat(node.get(new Object(), 42, 0)).isNull();
+
+    assertThat(node.put(second, "second", 42, 0)).isSameAs(node);
+    TrieBasedContext.Node updated = node.put(second, "updated", 42, 0);
+    assertThat(updated.get(second, 42, 0)).isEqualTo("updated");
+    assertThat(updated.get(first, 42, 0)).isEqualTo("first");
+  }
+
+  @Test
+  void toStringContainsAllEntries() {
+    Context context = Context.root();
+    for (int i = 0; i < 10; i++) {
+      context = context.with(ContextKey.named("key" + i), i);
+    }
+    String string = context.toString();
+    assertThat(string).startsWith("{").endsWith("}");
+    for (int i = 0; i < 10; i++) {
+      assertThat(string).contains("key" + i + "=" + i);
+    }
+  }
+}
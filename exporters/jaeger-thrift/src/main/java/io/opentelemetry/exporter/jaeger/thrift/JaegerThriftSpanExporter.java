@@ -11,7 +11,9 @@ import io.jaegertracing.thriftjava.Process;
 import io.jaegertracing.thriftjava.Span;
 import io.jaegertracing.thriftjava.Tag;
 import io.jaegertracing.thriftjava.TagType;
+import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
 import io.opentelemetry.sdk.internal.ThrottlingLogger;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -19,16 +21,30 @@ import io.opentelemetry.sdk.trace.export.SpanExporter;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.ThreadSafe;
 
-/** Exports spans to Jaeger via Thrift, using Jaeger's thrift model. */
+/**
+ * Exports spans to Jaeger via Thrift, using Jaeger's thrift model. Each export is sent on a pool of
+ * worker threads, one batch per resource, so exporting does not block the calling thread on the
+ * HTTP round-trips. As many exports as there are senders may wait for one, and further exports
+ * fail.
+ */
 @ThreadSafe
 public final class JaegerThriftSpanExporter implements SpanExporter {
 
@@ -40,19 +56,41 @@ public final class JaegerThriftSpanExporter implements SpanExporter {
   private static final String HOSTNAME_KEY = "hostname";
   private static final String IP_KEY = "ip";
   private static final String IP_DEFAULT = "0.0.0.0";
+  private static final String WORKER_THREAD_NAME =
+      JaegerThriftSpanExporter.class.getSimpleName() + "_WorkerThread";
 
   private final ThrottlingLogger logger =
       new ThrottlingLogger(Logger.getLogger(JaegerThriftSpanExporter.class.getName()));
-  private final ThriftSender thriftSender;
+  // ThriftSender is not thread-safe, so each concurrent send borrows a sender of its own.
+  private final BlockingQueue<ThriftSender> thriftSenders;
+  private final ExecutorService executor;
+  private final Set<CompletableResultCode> pendingExports =
+      Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final AtomicBoolean isShutdown = new AtomicBoolean(false);
   private final Process process;
+  // The process of each resource, which spans of a provider share, so that its service name and
+  // tags are only converted once rather than for every batch. Senders only read it.
+  private final WeakConcurrentMap<Resource, Process> processes =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
 
   /**
-   * Creates a new Jaeger gRPC Span Reporter with the given name, using the given channel.
+   * Creates a new Jaeger Thrift Span Reporter, using the given senders.
    *
-   * @param thriftSender The sender used for sending the data.
+   * @param thriftSenders The senders used for sending the data. Up to one export is sent at a time
+   *     with each of them.
    */
-  JaegerThriftSpanExporter(ThriftSender thriftSender) {
-    this.thriftSender = thriftSender;
+  JaegerThriftSpanExporter(List<ThriftSender> thriftSenders) {
+    this.thriftSenders = new ArrayBlockingQueue<>(thriftSenders.size(), false, thriftSenders);
+    // Exports waiting for a sender are bounded, so that exports against a slow or unreachable
+    // collector fail rather than piling up converted spans on the heap.
+    this.executor =
+        new ThreadPoolExecutor(
+            thriftSenders.size(),
+            thriftSenders.size(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(thriftSenders.size()),
+            new DaemonThreadFactory(WORKER_THREAD_NAME));
     String hostname;
     String ipv4;
 
@@ -75,7 +113,9 @@ public final class JaegerThriftSpanExporter implements SpanExporter {
   }
 
   /**
-   * Submits all the given spans in a single batch to the Jaeger collector.
+   * Submits the given spans to the Jaeger collector, in one batch per resource. The batches are
+   * sent in turn with one of the senders and the returned result completes once all of them have
+   * been sent.
    *
    * @param spans the list of sampled Spans to be exported.
    * @return the result of the operation
@@ -86,24 +126,64 @@ public final class JaegerThriftSpanExporter implements SpanExporter {
         spans.stream().collect(Collectors.groupingBy(SpanData::getResource)).entrySet().stream()
             .collect(
                 Collectors.toMap(
-                    entry -> createProcess(entry.getKey()),
-                    entry -> Adapter.toJaeger(entry.getValue())));
-
-    List<CompletableResultCode> batchResults = new ArrayList<>(batches.size());
-    batches.forEach(
-        (process, jaegerSpans) -> {
-          CompletableResultCode batchResult = new CompletableResultCode();
-          batchResults.add(batchResult);
-          try {
-            // todo: consider making truly async
-            thriftSender.send(process, jaegerSpans);
-            batchResult.succeed();
-          } catch (SenderException e) {
-            logger.log(Level.WARNING, "Failed to export spans", e);
-            batchResult.fail();
-          }
-        });
-    return CompletableResultCode.ofAll(batchResults);
+                    entry -> process(entry.getKey()), entry -> Adapter.toJaeger(entry.getValue())));
+
+    CompletableResultCode result = new CompletableResultCode();
+    pendingExports.add(result);
+    result.whenComplete(() -> pendingExports.remove(result));
+    try {
+      // A single task sends all batches, so that an accepted export never has some of its batches
+      // rejected.
+      executor.execute(() -> send(batches, result));
+    } catch (RejectedExecutionException e) {
+      if (isShutdown.get()) {
+        logger.log(Level.WARNING, "Failed to export spans, the exporter has been shut down.");
+      } else {
+        logger.log(Level.WARNING, "Failed to export spans, too many exports are pending.");
+      }
+      result.fail();
+    }
+    return result;
+  }
+
+  private void send(Map<Process, List<Span>> batches, CompletableResultCode result) {
+    ThriftSender thriftSender;
+    try {
+      thriftSender = thriftSenders.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.fail();
+      return;
+    }
+    boolean success = true;
+    try {
+      for (Map.Entry<Process, List<Span>> batch : batches.entrySet()) {
+        try {
+          thriftSender.send(batch.getKey(), batch.getValue());
+        } catch (SenderException | RuntimeException e) {
+          logger.log(Level.WARNING, "Failed to export spans", e);
+          success = false;
+        }
+      }
+    } finally {
+      thriftSenders.add(thriftSender);
+    }
+    if (success) {
+      result.succeed();
+    } else {
+      result.fail();
+    }
+  }
+
+  private Process process(Resource resource) {
+    Process result = processes.get(resource);
+    if (result == null) {
+      // Since WeakConcurrentMap doesn't support computeIfAbsent, we may end up doing the conversion
+      // a few times until the cache gets filled which is fine.
+      result = createProcess(resource);
+      processes.put(resource, result);
+    }
+    return result;
   }
 
   private Process createProcess(Resource resource) {
@@ -141,13 +221,17 @@ public final class JaegerThriftSpanExporter implements SpanExporter {
 
   /**
    * Initiates an orderly shutdown in which preexisting calls continue but new calls are immediately
-   * cancelled.
+   * cancelled. The returned result completes once the preexisting calls have.
    */
   @Override
   public CompletableResultCode shutdown() {
+    if (isShutdown.getAndSet(true)) {
+      return CompletableResultCode.ofSuccess();
+    }
+    executor.shutdown();
     final CompletableResultCode result = new CompletableResultCode();
-    // todo
-    return result.succeed();
+    CompletableResultCode.ofAll(pendingExports).whenComplete(result::succeed);
+    return result;
   }
 
   // Visible for testing
@@ -5,19 +5,28 @@
 
 package io.opentelemetry.exporter.jaeger.thrift;
 
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
 import io.jaegertracing.thrift.internal.senders.HttpSender;
 import io.jaegertracing.thrift.internal.senders.ThriftSender;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.apache.thrift.transport.TTransportException;
 
 /** Builder utility for this exporter. */
 public final class JaegerThriftSpanExporterBuilder {
 
+  private static final int DEFAULT_MAX_CONCURRENT_EXPORTS = 4;
+
   private String endpoint = JaegerThriftSpanExporter.DEFAULT_ENDPOINT;
   private ThriftSender thriftSender;
+  private int maxConcurrentExports = DEFAULT_MAX_CONCURRENT_EXPORTS;
 
   /**
    * Explicitly set the {@link ThriftSender} instance to use for this Exporter. Will override any
-   * endpoint that has been set.
+   * endpoint that has been set. Since a {@link ThriftSender} is not thread-safe, exports are sent
+   * one at a time with it, regardless of {@link #setMaxConcurrentExports(int)}.
    *
    * @param thriftSender The ThriftSender to use.
    * @return this.
@@ -40,20 +49,40 @@ public final class JaegerThriftSpanExporterBuilder {
     return this;
   }
 
+  /**
+   * Sets the maximum number of exports sent to the Jaeger endpoint at the same time, each over its
+   * own connection. Spans of different resources are sent as separate batches of the same export.
+   * As many more exports may wait to be sent, and further exports fail until they have been.
+   *
+   * <p>Optional, defaults to {@value DEFAULT_MAX_CONCURRENT_EXPORTS}.
+   *
+   * @param maxConcurrentExports the maximum number of exports sent concurrently.
+   * @return this.
+   */
+  public JaegerThriftSpanExporterBuilder setMaxConcurrentExports(int maxConcurrentExports) {
+    checkArgument(maxConcurrentExports > 0, "maxConcurrentExports must be positive");
+    this.maxConcurrentExports = maxConcurrentExports;
+    return this;
+  }
+
   /**
    * Constructs a new instance of the exporter based on the builder's values.
    *
    * @return a new exporter's instance.
    */
   public JaegerThriftSpanExporter build() {
-    if (thriftSender == null) {
+    if (thriftSender != null) {
+      return new JaegerThriftSpanExporter(Collections.singletonList(thriftSender));
+    }
+    List<ThriftSender> thriftSenders = new ArrayList<>(maxConcurrentExports);
+    for (int i = 0; i < maxConcurrentExports; i++) {
       try {
-        thriftSender = new HttpSender.Builder(endpoint).build();
+        thriftSenders.add(new HttpSender.Builder(endpoint).build());
       } catch (TTransportException e) {
         throw new IllegalStateException("Failed to construct a thrift HttpSender.", e);
       }
     }
-    return new JaegerThriftSpanExporter(thriftSender);
+    return new JaegerThriftSpanExporter(thriftSenders);
   }
 
   JaegerThriftSpanExporterBuilder() {}
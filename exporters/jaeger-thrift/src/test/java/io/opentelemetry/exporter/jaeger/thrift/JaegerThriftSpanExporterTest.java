@@ -6,6 +6,12 @@
 package io.opentelemetry.exporter.jaeger.thrift;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.jaegertracing.internal.exceptions.SenderException;
@@ -31,9 +37,11 @@ import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -251,4 +259,147 @@ class JaegerThriftSpanExporterTest {
     verify(thriftSender).send(expectedProcess2, Collections.singletonList(expectedSpan2));
     verify(thriftSender).send(expectedProcess1, Collections.singletonList(expectedSpan1));
   }
+
+  @Test
+  void invalidConfig() {
+    assertThatThrownBy(() -> JaegerThriftSpanExporter.builder().setMaxConcurrentExports(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxConcurrentExports must be positive");
+  }
+
+  @Test
+  void testExport_DoesNotBlock() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch responded = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              sending.countDown();
+              responded.await();
+              return null;
+            })
+        .when(thriftSender)
+        .send(any(Process.class), anyList());
+
+    CompletableResultCode result = exporter.export(Collections.singletonList(generateSpan()));
+    assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(result.isDone()).isFalse();
+
+    responded.countDown();
+    result.join(1, TimeUnit.SECONDS);
+    assertThat(result.isSuccess()).isTrue();
+  }
+
+  @Test
+  void testExport_QueueFull() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch responded = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              sending.countDown();
+              responded.await();
+              return null;
+            })
+        .when(thriftSender)
+        .send(any(Process.class), anyList());
+
+    // With a single sender, one batch is sent and one more waits for it.
+    CompletableResultCode sent = exporter.export(Collections.singletonList(generateSpan()));
+    assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+    CompletableResultCode queued = exporter.export(Collections.singletonList(generateSpan()));
+    CompletableResultCode rejected = exporter.export(Collections.singletonList(generateSpan()));
+    assertThat(rejected.isDone()).isTrue();
+    assertThat(rejected.isSuccess()).isFalse();
+    assertThat(sent.isDone()).isFalse();
+    assertThat(queued.isDone()).isFalse();
+
+    responded.countDown();
+    sent.join(1, TimeUnit.SECONDS);
+    queued.join(1, TimeUnit.SECONDS);
+    assertThat(sent.isSuccess()).isTrue();
+    assertThat(queued.isSuccess()).isTrue();
+  }
+
+  @Test
+  void testExport_ManyResources() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch responded = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              sending.countDown();
+              responded.await();
+              return null;
+            })
+        .when(thriftSender)
+        .send(any(Process.class), anyList());
+
+    // With a single sender, all batches of an accepted export are sent even if there are more of
+    // them than exports which may be pending.
+    List<SpanData> spans = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      spans.add(
+          TestSpanData.builder()
+              .setHasEnded(true)
+              .setSpanContext(SPAN_CONTEXT)
+              .setName("GET /api/endpoint")
+              .setStartEpochNanos(0)
+              .setEndEpochNanos(1)
+              .setStatus(StatusData.ok())
+              .setKind(SpanKind.CONSUMER)
+              .setTotalRecordedLinks(0)
+              .setTotalRecordedEvents(0)
+              .setResource(
+                  Resource.create(
+                      Attributes.of(ResourceAttributes.SERVICE_NAME, "myServiceName" + i)))
+              .build());
+    }
+    CompletableResultCode result = exporter.export(spans);
+    assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(result.isDone()).isFalse();
+
+    responded.countDown();
+    result.join(1, TimeUnit.SECONDS);
+    assertThat(result.isSuccess()).isTrue();
+    verify(thriftSender, times(3)).send(any(Process.class), anyList());
+  }
+
+  @Test
+  void testExport_Failure() throws SenderException {
+    doThrow(new SenderException("Failed to send", 1))
+        .when(thriftSender)
+        .send(any(Process.class), anyList());
+
+    CompletableResultCode result = exporter.export(Collections.singletonList(generateSpan()));
+    result.join(1, TimeUnit.SECONDS);
+    assertThat(result.isDone()).isTrue();
+    assertThat(result.isSuccess()).isFalse();
+  }
+
+  @Test
+  void testShutdown() {
+    CompletableResultCode shutdownResult = exporter.shutdown();
+    shutdownResult.join(1, TimeUnit.SECONDS);
+    assertThat(shutdownResult.isSuccess()).isTrue();
+
+    CompletableResultCode result = exporter.export(Collections.singletonList(generateSpan()));
+    assertThat(result.isDone()).isTrue();
+    assertThat(result.isSuccess()).isFalse();
+  }
+
+  private static SpanData generateSpan() {
+    long startMs = System.currentTimeMillis();
+    return TestSpanData.builder()
+        .setHasEnded(true)
+        .setSpanContext(SPAN_CONTEXT)
+        .setName("GET /api/endpoint")
+        .setStartEpochNanos(TimeUnit.MILLISECONDS.toNanos(startMs))
+        .setEndEpochNanos(TimeUnit.MILLISECONDS.toNanos(startMs + 900))
+        .setStatus(StatusData.ok())
+        .setKind(SpanKind.CONSUMER)
+        .setLinks(Collections.emptyList())
+        .setTotalRecordedLinks(0)
+        .setTotalRecordedEvents(0)
+        .setInstrumentationLibraryInfo(
+            InstrumentationLibraryInfo.create("io.opentelemetry.auto", "1.0.0"))
+        .build();
+  }
 }
@@ -11,6 +11,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
+import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
 import io.opentelemetry.exporter.jaeger.proto.api_v2.Collector;
 import io.opentelemetry.exporter.jaeger.proto.api_v2.CollectorServiceGrpc;
 import io.opentelemetry.exporter.jaeger.proto.api_v2.Model;
@@ -48,6 +49,10 @@ public final class JaegerGrpcSpanExporter implements SpanExporter {
 
   private final CollectorServiceGrpc.CollectorServiceFutureStub stub;
   private final Model.Process.Builder processBuilder;
+  // The process of each resource, which spans of a provider share, so that its service name and
+  // tags are only converted once rather than for every batch.
+  private final WeakConcurrentMap<Resource, Model.Process> processes =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
   private final ManagedChannel managedChannel;
   private final long timeoutNanos;
 
@@ -149,25 +154,36 @@ public final class JaegerGrpcSpanExporter implements SpanExporter {
   }
 
   private Collector.PostSpansRequest buildRequest(Resource resource, List<SpanData> spans) {
-    Model.Process.Builder builder = this.processBuilder.clone();
-
-    String serviceName = resource.getAttributes().get(ResourceAttributes.SERVICE_NAME);
-    if (serviceName == null || serviceName.isEmpty()) {
-      serviceName = Resource.getDefault().getAttributes().get(ResourceAttributes.SERVICE_NAME);
-    }
-    builder.setServiceName(serviceName);
-
-    builder.addAllTags(Adapter.toKeyValues(resource.getAttributes()));
-
     return Collector.PostSpansRequest.newBuilder()
         .setBatch(
             Model.Batch.newBuilder()
                 .addAllSpans(Adapter.toJaeger(spans))
-                .setProcess(builder.build())
+                .setProcess(process(resource))
                 .build())
         .build();
   }
 
+  private Model.Process process(Resource resource) {
+    Model.Process process = processes.get(resource);
+    if (process == null) {
+      // Since WeakConcurrentMap doesn't support computeIfAbsent, we may end up doing the conversion
+      // a few times until the cache gets filled which is fine.
+      Model.Process.Builder builder = this.processBuilder.clone();
+
+      String serviceName = resource.getAttributes().get(ResourceAttributes.SERVICE_NAME);
+      if (serviceName == null || serviceName.isEmpty()) {
+        serviceName = Resource.getDefault().getAttributes().get(ResourceAttributes.SERVICE_NAME);
+      }
+      builder.setServiceName(serviceName);
+
+      builder.addAllTags(Adapter.toKeyValues(resource.getAttributes()));
+
+      process = builder.build();
+      processes.put(resource, process);
+    }
+    return process;
+  }
+
   /**
    * The Jaeger exporter does not batch spans, so this method will immediately return with success.
    *
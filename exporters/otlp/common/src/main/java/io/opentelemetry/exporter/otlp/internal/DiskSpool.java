@@ -0,0 +1,326 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A persistent FIFO queue of serialized export requests, used to keep telemetry across exporter
+ * outages and process restarts without growing the heap.
+ *
+ * <p>Records are appended to fixed-size, memory-mapped segment files in a directory owned by this
+ * spool. Each record is stored as its length, a CRC32 of its bytes, a state flag and the bytes
+ * themselves. Consuming a record flips its state flag in place, and a segment file is deleted once
+ * all of its records have been consumed. When opened, the spool recovers the unconsumed records of
+ * existing segments, stopping at the first record of a segment whose checksum does not match, as
+ * left behind by a crash in the middle of a write. Delivery is at-least-once: a record whose
+ * consumption was not persisted before a crash is replayed.
+ *
+ * <p>The total size of the segment files is capped. When a new segment would exceed the cap, the
+ * oldest segment is deleted, dropping its unconsumed records.
+ */
+@ThreadSafe
+public final class DiskSpool implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(DiskSpool.class.getName());
+
+  private static final String SEGMENT_SUFFIX = ".spool";
+  // length (int), crc32 (int), state (byte)
+  private static final int HEADER_SIZE = 9;
+  private static final byte STATE_READY = 1;
+  private static final byte STATE_CONSUMED = 2;
+  private static final int MIN_SEGMENTS = 4;
+  private static final int MAX_SEGMENT_BYTES = 4 * 1024 * 1024;
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final long maxBytes;
+
+  @GuardedBy("this")
+  private final ArrayDeque<Segment> segments;
+
+  @GuardedBy("this")
+  @Nullable
+  private Segment writeSegment;
+
+  @GuardedBy("this")
+  private long nextSequence;
+
+  @GuardedBy("this")
+  private boolean closed;
+
+  /**
+   * Returns the segment size to use for a spool of the given maximum size, so that at least four
+   * segments fit within it, up to 4 MiB each. Dropping the oldest segment when the spool is full
+   * then loses at most a quarter of its records.
+   */
+  public static int segmentBytes(long maxBytes) {
+    return (int) Math.max(HEADER_SIZE + 1, Math.min(maxBytes / MIN_SEGMENTS, MAX_SEGMENT_BYTES));
+  }
+
+  /**
+   * Opens the spool stored in the given directory, creating the directory if needed and recovering
+   * the records left by a previous process.
+   *
+   * @param directory the directory holding the segment files. It must not be shared with any other
+   *     spool, in this process or another.
+   * @param segmentBytes the size of each segment file, which bounds the size of a single record.
+   * @param maxBytes the maximum total size of the segment files.
+   */
+  public static DiskSpool open(Path directory, int segmentBytes, long maxBytes) throws IOException {
+    checkArgument(segmentBytes > HEADER_SIZE, "segmentBytes must be greater than " + HEADER_SIZE);
+    checkArgument(maxBytes >= segmentBytes, "maxBytes must not be less than segmentBytes");
+    Files.createDirectories(directory);
+
+    List<Long> sequences = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        try {
+          sequences.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          // Not one of our segments.
+        }
+      }
+    }
+    Collections.sort(sequences);
+
+    ArrayDeque<Segment> segments = new ArrayDeque<>(sequences.size());
+    for (long sequence : sequences) {
+      Path path = segmentPath(directory, sequence);
+      try (FileChannel channel =
+          FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        segments.addLast(
+            new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size())));
+      }
+    }
+    long nextSequence = sequences.isEmpty() ? 0 : sequences.get(sequences.size() - 1) + 1;
+    return new DiskSpool(directory, segmentBytes, maxBytes, segments, nextSequence);
+  }
+
+  private DiskSpool(
+      Path directory,
+      int segmentBytes,
+      long maxBytes,
+      ArrayDeque<Segment> segments,
+      long nextSequence) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.maxBytes = maxBytes;
+    this.segments = segments;
+    this.nextSequence = nextSequence;
+  }
+
+  /**
+   * Appends a record to the end of this spool and forces it to storage.
+   *
+   * @return {@code false} if the record is too large to fit in a segment and was not appended.
+   */
+  public synchronized boolean append(byte[] record) throws IOException {
+    if (closed) {
+      throw new IOException("Spool is closed");
+    }
+    if (HEADER_SIZE + record.length > segmentBytes) {
+      return false;
+    }
+    Segment segment = writeSegment;
+    if (segment == null || segment.writePosition + HEADER_SIZE + record.length > segmentBytes) {
+      segment = newSegment();
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(record, 0, record.length);
+    MappedByteBuffer buffer = segment.buffer;
+    int position = segment.writePosition;
+    buffer.putInt(position, record.length);
+    buffer.putInt(position + 4, (int) crc.getValue());
+    buffer.put(position + 8, STATE_READY);
+    ByteBuffer payload = buffer.duplicate();
+    payload.position(position + HEADER_SIZE);
+    payload.put(record);
+    buffer.force();
+    segment.writePosition = position + HEADER_SIZE + record.length;
+    return true;
+  }
+
+  /** Returns the oldest unconsumed record without consuming it, or {@code null} if empty. */
+  @Nullable
+  public synchronized Record peek() {
+    if (closed) {
+      return null;
+    }
+    while (!segments.isEmpty()) {
+      Segment segment = segments.peekFirst();
+      Record record = readFrom(segment);
+      if (record != null) {
+        return record;
+      }
+      if (segment == writeSegment) {
+        return null;
+      }
+      // Every record of this segment has been consumed or is unreadable.
+      segments.removeFirst();
+      delete(segment);
+    }
+    return null;
+  }
+
+  /** Marks the given record, previously returned by {@link #peek()}, as consumed. */
+  public synchronized void remove(Record record) {
+    Segment segment = record.segment;
+    if (closed || !segments.contains(segment)) {
+      return;
+    }
+    segment.buffer.put(record.position + 8, STATE_CONSUMED);
+    if (segment.readPosition == record.position) {
+      segment.readPosition = record.position + HEADER_SIZE + record.bytes.length;
+    }
+  }
+
+  /** Returns whether this spool holds no unconsumed records. */
+  public boolean isEmpty() {
+    return peek() == null;
+  }
+
+  /** Returns the directory holding the segment files of this spool. */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for (Segment segment : segments) {
+      segment.buffer.force();
+    }
+    segments.clear();
+    writeSegment = null;
+  }
+
+  @GuardedBy("this")
+  private Segment newSegment() throws IOException {
+    while (!segments.isEmpty() && (segments.size() + 1L) * segmentBytes > maxBytes) {
+      Segment oldest = segments.removeFirst();
+      if (readFrom(oldest) != null) {
+        logger.log(
+            Level.WARNING,
+            "Spool in " + directory + " is full, dropping the oldest segment " + oldest.path);
+      }
+      delete(oldest);
+    }
+
+    long sequence = nextSequence++;
+    Path path = segmentPath(directory, sequence);
+    Segment segment;
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+    }
+    segments.addLast(segment);
+    writeSegment = segment;
+    return segment;
+  }
+
+  // Returns the first unconsumed record of the segment at or after its read position, skipping
+  // consumed records, or null if there is none.
+  @Nullable
+  private static Record readFrom(Segment segment) {
+    MappedByteBuffer buffer = segment.buffer;
+    int limit = buffer.capacity();
+    while (segment.readPosition + HEADER_SIZE <= limit) {
+      int position = segment.readPosition;
+      int length = buffer.getInt(position);
+      byte state = buffer.get(position + 8);
+      if (length <= 0
+          || length > limit - position - HEADER_SIZE
+          || (state != STATE_READY && state != STATE_CONSUMED)) {
+        return null;
+      }
+      if (state == STATE_CONSUMED) {
+        segment.readPosition = position + HEADER_SIZE + length;
+        continue;
+      }
+      byte[] bytes = new byte[length];
+      ByteBuffer payload = buffer.duplicate();
+      payload.position(position + HEADER_SIZE);
+      payload.get(bytes);
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, length);
+      if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+        // A torn write, nothing after it in this segment can be trusted.
+        return null;
+      }
+      return new Record(segment, position, bytes);
+    }
+    return null;
+  }
+
+  private static void delete(Segment segment) {
+    try {
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to delete spool segment " + segment.path, e);
+    }
+  }
+
+  private static Path segmentPath(Path directory, long sequence) {
+    return directory.resolve(sequence + SEGMENT_SUFFIX);
+  }
+
+  /** A record read from a {@link DiskSpool}. */
+  public static final class Record {
+    private final Segment segment;
+    private final int position;
+    private final byte[] bytes;
+
+    private Record(Segment segment, int position, byte[] bytes) {
+      this.segment = segment;
+      this.position = position;
+      this.bytes = bytes;
+    }
+
+    /** Returns the bytes of this record. */
+    public byte[] getBytes() {
+      return bytes;
+    }
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int readPosition;
+
+    private Segment(Path path, MappedByteBuffer buffer) {
+      this.path = path;
+      this.buffer = buffer;
+    }
+  }
+}
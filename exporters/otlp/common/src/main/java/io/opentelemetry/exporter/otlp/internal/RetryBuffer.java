@@ -0,0 +1,136 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A FIFO buffer of export requests that failed with a retryable status, bounded by the total
+ * serialized size of the requests it holds. When adding a request would exceed the bound, the
+ * oldest requests are evicted to make room, since newer telemetry is generally more valuable.
+ *
+ * @param <T> the type of the buffered requests.
+ */
+@ThreadSafe
+public final class RetryBuffer<T> {
+
+  private final long maxBytes;
+
+  @GuardedBy("this")
+  private final ArrayDeque<Entry<T>> entries = new ArrayDeque<>();
+
+  @GuardedBy("this")
+  private long bytes;
+
+  /**
+   * Creates a new {@link RetryBuffer}.
+   *
+   * @param maxBytes the maximum total size, in bytes, of the buffered requests.
+   */
+  public RetryBuffer(long maxBytes) {
+    checkArgument(maxBytes > 0, "maxBytes must be positive");
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Appends the given request to the end of this buffer, evicting the oldest requests if needed to
+   * stay within the size bound. A request larger than the bound is not buffered at all.
+   *
+   * @return the requests that were evicted or rejected, in the order they were added.
+   */
+  public synchronized List<T> offer(T request, long sizeBytes) {
+    if (sizeBytes > maxBytes) {
+      return Collections.singletonList(request);
+    }
+    List<T> evicted = Collections.emptyList();
+    while (bytes + sizeBytes > maxBytes) {
+      Entry<T> oldest = entries.removeFirst();
+      bytes -= oldest.sizeBytes;
+      if (evicted.isEmpty()) {
+        evicted = new ArrayList<>();
+      }
+      evicted.add(oldest.request);
+    }
+    entries.addLast(new Entry<>(request, sizeBytes));
+    bytes += sizeBytes;
+    return evicted;
+  }
+
+  /** Returns the oldest buffered request without removing it, or {@code null} if empty. */
+  @Nullable
+  public synchronized T peek() {
+    Entry<T> entry = entries.peekFirst();
+    return entry != null ? entry.request : null;
+  }
+
+  /**
+   * Removes the given request from this buffer if it has not already been evicted.
+   *
+   * @return {@code true} if the request was removed.
+   */
+  public synchronized boolean remove(T request) {
+    for (Iterator<Entry<T>> it = entries.iterator(); it.hasNext(); ) {
+      Entry<T> entry = it.next();
+      if (entry.request == request) {
+        it.remove();
+        bytes -= entry.sizeBytes;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether this buffer holds no requests. */
+  public synchronized boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /** Returns the number of buffered requests. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns the total size, in bytes, of the buffered requests. */
+  public synchronized long getBytes() {
+    return bytes;
+  }
+
+  /** Returns a copy of the buffered requests, in the order they were added. */
+  public synchronized List<T> toList() {
+    List<T> requests = new ArrayList<>(entries.size());
+    for (Entry<T> entry : entries) {
+      requests.add(entry.request);
+    }
+    return requests;
+  }
+
+  /** Removes and returns all buffered requests, in the order they were added. */
+  public synchronized List<T> clear() {
+    List<T> requests = toList();
+    entries.clear();
+    bytes = 0;
+    return requests;
+  }
+
+  private static final class Entry<T> {
+    private final T request;
+    private final long sizeBytes;
+
+    private Entry(T request, long sizeBytes) {
+      this.request = request;
+      this.sizeBytes = sizeBytes;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.rpc.RetryInfo;
+import io.grpc.protobuf.StatusProto;
+import io.opentelemetry.sdk.common.export.RetryPolicy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Utilities for applying a {@link RetryPolicy} to OTLP gRPC exports. */
+public final class RetryUtil {
+
+  // The status codes the OTLP specification considers retryable. RESOURCE_EXHAUSTED is only
+  // retryable when the server includes RetryInfo, which gRPC's built-in retries do not inspect, so
+  // the exporters handle it themselves.
+  private static final List<String> RETRYABLE_STATUS_CODES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              "CANCELLED",
+              "DEADLINE_EXCEEDED",
+              "ABORTED",
+              "OUT_OF_RANGE",
+              "UNAVAILABLE",
+              "DATA_LOSS"));
+
+  /** Returns the names of the gRPC status codes retried by the channel. */
+  public static List<String> retryableStatusCodes() {
+    return RETRYABLE_STATUS_CODES;
+  }
+
+  /**
+   * Returns the delay in nanoseconds requested through {@code RetryInfo} by the server in the
+   * status of the given failed call, or -1 if there is none.
+   */
+  public static long retryDelayNanos(Throwable t) {
+    com.google.rpc.Status status = StatusProto.fromThrowable(t);
+    if (status == null) {
+      return -1;
+    }
+    for (Any detail : status.getDetailsList()) {
+      if (detail.is(RetryInfo.class)) {
+        try {
+          com.google.protobuf.Duration retryDelay = detail.unpack(RetryInfo.class).getRetryDelay();
+          return TimeUnit.SECONDS.toNanos(retryDelay.getSeconds()) + retryDelay.getNanos();
+        } catch (InvalidProtocolBufferException e) {
+          return -1;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a gRPC service config applying the {@link RetryPolicy} to all methods of the given
+   * fully qualified service, for use with {@code ManagedChannelBuilder.defaultServiceConfig}. gRPC
+   * applies jitter to each backoff and honors {@code grpc-retry-pushback-ms} hints from the server.
+   */
+  public static Map<String, ?> toServiceConfig(String serviceName, RetryPolicy retryPolicy) {
+    Map<String, Object> policy = new HashMap<>();
+    policy.put("maxAttempts", (double) retryPolicy.getMaxAttempts());
+    policy.put("initialBackoff", toServiceConfigDuration(retryPolicy.getInitialBackoff()));
+    policy.put("maxBackoff", toServiceConfigDuration(retryPolicy.getMaxBackoff()));
+    policy.put("backoffMultiplier", retryPolicy.getBackoffMultiplier());
+    policy.put("retryableStatusCodes", RETRYABLE_STATUS_CODES);
+
+    Map<String, Object> methodConfig = new HashMap<>();
+    methodConfig.put(
+        "name", Collections.singletonList(Collections.singletonMap("service", serviceName)));
+    methodConfig.put("retryPolicy", policy);
+
+    return Collections.singletonMap("methodConfig", Collections.singletonList(methodConfig));
+  }
+
+  // gRPC service config durations are decimal seconds with an "s" suffix, e.g. "1.5s".
+  private static String toServiceConfigDuration(Duration duration) {
+    return BigDecimal.valueOf(duration.getSeconds())
+            .add(BigDecimal.valueOf(duration.getNano(), 9))
+            .stripTrailingZeros()
+            .toPlainString()
+        + "s";
+  }
+
+  private RetryUtil() {}
+}
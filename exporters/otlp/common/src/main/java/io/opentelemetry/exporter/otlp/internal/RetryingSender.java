@@ -0,0 +1,411 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.grpc.Status;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.internal.ThrottlingLogger;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Sends the export requests of an OTLP gRPC exporter. Requests which fail with a retryable status
+ * are either kept in a {@link RetryBuffer} and sent again before newer requests, so that the server
+ * receives them in order, or persisted in a {@link DiskSpool} and replayed once the server is
+ * reachable again. While the server asks for a delay through {@code RetryInfo}, requests are not
+ * retried. Failed requests are also retried in the background once the delay has passed, or every 5
+ * seconds, so that they are sent even if no further request is exported.
+ *
+ * <p>The result of an export completes once its request has been attempted: it fails if the first
+ * attempt fails, even though the request is then kept for retry. Requests queued behind the
+ * requests being retried are not attempted until those are sent, and their results complete then,
+ * or fail once they are dropped from the buffer or the sender is shut down.
+ *
+ * @param <T> the type of the export requests.
+ */
+@ThreadSafe
+public abstract class RetryingSender<T extends MessageLite> {
+
+  private static final long RETRY_INTERVAL_SECONDS = 5;
+  private static final String RETRY_THREAD_NAME =
+      RetryingSender.class.getSimpleName() + "_RetryThread";
+
+  private final ThrottlingLogger logger;
+  private final String telemetryName;
+  private final Parser<T> parser;
+  @Nullable private final RetryBuffer<PendingExport<T>> retryBuffer;
+  private final AtomicBoolean draining = new AtomicBoolean();
+  @Nullable private final DiskSpool diskSpool;
+  private final AtomicBoolean replaying = new AtomicBoolean();
+  @Nullable private final ScheduledExecutorService retryScheduler;
+  private final AtomicBoolean retryScheduled = new AtomicBoolean();
+  private volatile long throttledUntilNanos;
+
+  /**
+   * Creates a new {@link RetryingSender}.
+   *
+   * @param logger the logger of the exporter.
+   * @param telemetryName the name of the exported telemetry in log messages, e.g. {@code spans}.
+   * @param parser the parser of the requests replayed from the {@code diskSpool}.
+   * @param retryBufferBytes the maximum size of the requests kept for retry after failing with a
+   *     retryable status. When set to 0, or when a {@code diskSpool} is given, there is no retry
+   *     buffer.
+   * @param diskSpool the spool persisting requests that failed with a retryable status until the
+   *     server is reachable again, or {@code null} to keep them in the retry buffer instead.
+   */
+  protected RetryingSender(
+      Logger logger,
+      String telemetryName,
+      Parser<T> parser,
+      long retryBufferBytes,
+      @Nullable DiskSpool diskSpool) {
+    this.logger = new ThrottlingLogger(logger);
+    this.telemetryName = telemetryName;
+    this.parser = parser;
+    this.retryBuffer =
+        retryBufferBytes > 0 && diskSpool == null ? new RetryBuffer<>(retryBufferBytes) : null;
+    this.diskSpool = diskSpool;
+    this.retryScheduler =
+        retryBuffer != null || diskSpool != null
+            ? Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(RETRY_THREAD_NAME))
+            : null;
+    this.throttledUntilNanos = System.nanoTime();
+  }
+
+  /** Sends the given request to the server. */
+  protected abstract ListenableFuture<?> send(T request);
+
+  /** Returns the number of telemetry items in the given request replayed from the disk spool. */
+  protected abstract int countItems(T request);
+
+  /**
+   * Records that the given number of telemetry items were exported, or failed to be. Does nothing
+   * by default.
+   */
+  protected void recordExported(int itemCount, boolean success) {}
+
+  /**
+   * Sends the given request, or queues it behind the requests waiting to be retried.
+   *
+   * @param itemCount the number of telemetry items in the request.
+   */
+  public final CompletableResultCode export(T request, int itemCount) {
+    PendingExport<T> pendingExport = new PendingExport<>(request, itemCount, null);
+    RetryBuffer<PendingExport<T>> retryBuffer = this.retryBuffer;
+    if (retryBuffer == null || (retryBuffer.isEmpty() && !draining.get())) {
+      sendPending(pendingExport, /* buffered= */ false);
+    } else {
+      // Keep the server receiving telemetry in order by queueing behind the requests being retried.
+      buffer(retryBuffer, pendingExport);
+      if (isThrottled()) {
+        scheduleRetry();
+      } else if (draining.compareAndSet(false, true)) {
+        drainNext(retryBuffer);
+      }
+    }
+    return pendingExport.result;
+  }
+
+  /**
+   * Fails all the requests waiting to be retried in memory and closes the disk spool. Requests in
+   * the disk spool stay on disk and are replayed by the next sender using the same spool.
+   */
+  public final void shutdown() {
+    if (retryScheduler != null) {
+      retryScheduler.shutdownNow();
+    }
+    if (retryBuffer != null) {
+      for (PendingExport<T> pendingExport : retryBuffer.clear()) {
+        recordExported(pendingExport.itemCount, /* success= */ false);
+        pendingExport.result.fail();
+      }
+    }
+    if (diskSpool != null) {
+      diskSpool.close();
+    }
+  }
+
+  /** Returns the buffer of the requests waiting to be retried, or {@code null} if disabled. */
+  @Nullable
+  public final RetryBuffer<?> getRetryBuffer() {
+    return retryBuffer;
+  }
+
+  /** Returns the disk spool of the requests waiting to be retried, or {@code null} if disabled. */
+  @Nullable
+  public final DiskSpool getDiskSpool() {
+    return diskSpool;
+  }
+
+  private void sendPending(PendingExport<T> pendingExport, boolean buffered) {
+    Futures.addCallback(
+        send(pendingExport.request),
+        new FutureCallback<Object>() {
+          @Override
+          public void onSuccess(@Nullable Object response) {
+            recordExported(pendingExport.itemCount, /* success= */ true);
+            pendingExport.result.succeed();
+            DiskSpool.Record spoolRecord = pendingExport.spoolRecord;
+            if (spoolRecord != null) {
+              DiskSpool diskSpool = requireNonNull(RetryingSender.this.diskSpool);
+              diskSpool.remove(spoolRecord);
+              replayNext(diskSpool);
+            } else if (buffered) {
+              RetryBuffer<PendingExport<T>> retryBuffer =
+                  requireNonNull(RetryingSender.this.retryBuffer);
+              retryBuffer.remove(pendingExport);
+              drainNext(retryBuffer);
+            } else {
+              // The server is reachable, catch up on the requests spooled while it was not.
+              startReplay();
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            Status status = Status.fromThrowable(t);
+            switch (status.getCode()) {
+              case UNIMPLEMENTED:
+                logger.log(
+                    Level.SEVERE,
+                    "Failed to export "
+                        + telemetryName
+                        + ". Server responded with UNIMPLEMENTED. "
+                        + "This usually means that your collector is not configured with an otlp "
+                        + "receiver in the \"pipelines\" section of the configuration. "
+                        + "Full error message: "
+                        + t.getMessage());
+                break;
+              case UNAVAILABLE:
+                logger.log(
+                    Level.SEVERE,
+                    "Failed to export "
+                        + telemetryName
+                        + ". Server is UNAVAILABLE. "
+                        + "Make sure your collector is running and reachable from this network. "
+                        + "Full error message:"
+                        + t.getMessage());
+                break;
+              default:
+                logger.log(
+                    Level.WARNING,
+                    "Failed to export " + telemetryName + ". Error message: " + t.getMessage());
+                break;
+            }
+            if (logger.isLoggable(Level.FINEST)) {
+              logger.log(
+                  Level.FINEST, "Failed to export " + telemetryName + ". Details follow: " + t);
+            }
+            pendingExport.result.fail();
+            handleFailure(pendingExport, buffered, status, t);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void handleFailure(
+      PendingExport<T> pendingExport, boolean buffered, Status status, Throwable t) {
+    RetryBuffer<PendingExport<T>> retryBuffer = this.retryBuffer;
+    DiskSpool diskSpool = this.diskSpool;
+    if (retryBuffer == null && diskSpool == null) {
+      recordExported(pendingExport.itemCount, /* success= */ false);
+      return;
+    }
+
+    long retryDelayNanos = RetryUtil.retryDelayNanos(t);
+    boolean retryable =
+        RetryUtil.retryableStatusCodes().contains(status.getCode().name())
+            || (status.getCode() == Status.Code.RESOURCE_EXHAUSTED && retryDelayNanos >= 0);
+    DiskSpool.Record spoolRecord = pendingExport.spoolRecord;
+    if (!retryable) {
+      recordExported(pendingExport.itemCount, /* success= */ false);
+      if (spoolRecord != null) {
+        requireNonNull(diskSpool).remove(spoolRecord);
+        replayNext(requireNonNull(diskSpool));
+      } else if (buffered) {
+        requireNonNull(retryBuffer).remove(pendingExport);
+        drainNext(requireNonNull(retryBuffer));
+      }
+      return;
+    }
+
+    if (retryDelayNanos >= 0) {
+      throttledUntilNanos = System.nanoTime() + retryDelayNanos;
+    }
+    if (spoolRecord != null) {
+      // The record stays in the spool and is replayed by the next retry.
+      replaying.set(false);
+    } else if (buffered) {
+      draining.set(false);
+    } else if (diskSpool != null) {
+      spool(diskSpool, pendingExport);
+    } else {
+      buffer(requireNonNull(retryBuffer), pendingExport);
+    }
+    scheduleRetry();
+  }
+
+  private void spool(DiskSpool diskSpool, PendingExport<T> pendingExport) {
+    try {
+      if (diskSpool.append(pendingExport.request.toByteArray())) {
+        return;
+      }
+      logger.log(
+          Level.WARNING,
+          "Batch of "
+              + pendingExport.itemCount
+              + " "
+              + telemetryName
+              + " is too large to spool, dropping it.");
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to spool batch of " + telemetryName + ", dropping it.", e);
+    }
+    recordExported(pendingExport.itemCount, /* success= */ false);
+  }
+
+  private void startReplay() {
+    DiskSpool diskSpool = this.diskSpool;
+    if (diskSpool != null && replaying.compareAndSet(false, true)) {
+      replayNext(diskSpool);
+    }
+  }
+
+  // Must only be called by the thread that set replaying to true.
+  private void replayNext(DiskSpool diskSpool) {
+    while (true) {
+      DiskSpool.Record record = diskSpool.peek();
+      if (record == null) {
+        replaying.set(false);
+        return;
+      }
+      if (isThrottled()) {
+        replaying.set(false);
+        scheduleRetry();
+        return;
+      }
+      T request;
+      try {
+        request = parser.parseFrom(record.getBytes());
+      } catch (InvalidProtocolBufferException e) {
+        logger.log(
+            Level.WARNING, "Dropping unreadable batch of " + telemetryName + " from the spool.", e);
+        diskSpool.remove(record);
+        continue;
+      }
+      sendPending(new PendingExport<>(request, countItems(request), record), /* buffered= */ false);
+      return;
+    }
+  }
+
+  private void buffer(RetryBuffer<PendingExport<T>> retryBuffer, PendingExport<T> pendingExport) {
+    List<PendingExport<T>> dropped =
+        retryBuffer.offer(pendingExport, pendingExport.request.getSerializedSize());
+    if (dropped.isEmpty()) {
+      return;
+    }
+    for (PendingExport<T> droppedExport : dropped) {
+      recordExported(droppedExport.itemCount, /* success= */ false);
+      droppedExport.result.fail();
+    }
+    logger.log(
+        Level.WARNING,
+        "Retry buffer is full, dropped "
+            + dropped.size()
+            + " batches of "
+            + telemetryName
+            + " waiting for retry.");
+  }
+
+  // Must only be called by the thread that set draining to true.
+  private void drainNext(RetryBuffer<PendingExport<T>> retryBuffer) {
+    while (true) {
+      if (isThrottled()) {
+        draining.set(false);
+        scheduleRetry();
+        return;
+      }
+      PendingExport<T> next = retryBuffer.peek();
+      if (next != null) {
+        sendPending(next, /* buffered= */ true);
+        return;
+      }
+      draining.set(false);
+      // An export may have queued a request after the buffer was found empty but before the flag
+      // was cleared, relying on this drain to send it.
+      if (retryBuffer.isEmpty() || !draining.compareAndSet(false, true)) {
+        return;
+      }
+    }
+  }
+
+  @SuppressWarnings("FutureReturnValueIgnored")
+  private void scheduleRetry() {
+    ScheduledExecutorService retryScheduler = this.retryScheduler;
+    if (retryScheduler == null || !retryScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    // Retry as soon as the server allows it, or after a fixed interval if it did not ask for a
+    // delay.
+    long delayNanos =
+        isThrottled()
+            ? throttledUntilNanos - System.nanoTime()
+            : TimeUnit.SECONDS.toNanos(RETRY_INTERVAL_SECONDS);
+    try {
+      retryScheduler.schedule(this::retry, delayNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // The sender has been shut down.
+      retryScheduled.set(false);
+    }
+  }
+
+  private void retry() {
+    retryScheduled.set(false);
+    RetryBuffer<PendingExport<T>> retryBuffer = this.retryBuffer;
+    if (retryBuffer != null) {
+      if (!retryBuffer.isEmpty() && draining.compareAndSet(false, true)) {
+        drainNext(retryBuffer);
+      }
+    } else {
+      startReplay();
+    }
+  }
+
+  private boolean isThrottled() {
+    return System.nanoTime() - throttledUntilNanos < 0;
+  }
+
+  private static final class PendingExport<T> {
+    private final T request;
+    private final int itemCount;
+    @Nullable private final DiskSpool.Record spoolRecord;
+    private final CompletableResultCode result = new CompletableResultCode();
+
+    private PendingExport(T request, int itemCount, @Nullable DiskSpool.Record spoolRecord) {
+      this.request = request;
+      this.itemCount = itemCount;
+      this.spoolRecord = spoolRecord;
+    }
+  }
+}
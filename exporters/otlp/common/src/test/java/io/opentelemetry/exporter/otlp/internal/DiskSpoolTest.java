@@ -0,0 +1,173 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskSpoolTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void invalidConfig() {
+    assertThatThrownBy(() -> DiskSpool.open(tempDir, 9, 100))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("segmentBytes must be greater than 9");
+    assertThatThrownBy(() -> DiskSpool.open(tempDir, 100, 99))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBytes must not be less than segmentBytes");
+  }
+
+  @Test
+  void fifo() throws IOException {
+    try (DiskSpool spool = DiskSpool.open(tempDir, 1024, 4096)) {
+      assertThat(spool.isEmpty()).isTrue();
+      assertThat(spool.peek()).isNull();
+
+      assertThat(spool.append(bytes("a"))).isTrue();
+      assertThat(spool.append(bytes("b"))).isTrue();
+
+      DiskSpool.Record record = spool.peek();
+      assertThat(record.getBytes()).isEqualTo(bytes("a"));
+      // Peeking does not consume.
+      assertThat(spool.peek().getBytes()).isEqualTo(bytes("a"));
+      spool.remove(record);
+      record = spool.peek();
+      assertThat(record.getBytes()).isEqualTo(bytes("b"));
+      spool.remove(record);
+      assertThat(spool.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  void recoversUnconsumedRecords() throws IOException {
+    try (DiskSpool spool = DiskSpool.open(tempDir, 1024, 4096)) {
+      spool.append(bytes("a"));
+      spool.append(bytes("b"));
+      spool.remove(spool.peek());
+    }
+
+    try (DiskSpool spool = DiskSpool.open(tempDir, 1024, 4096)) {
+      DiskSpool.Record record = spool.peek();
+      assertThat(record.getBytes()).isEqualTo(bytes("b"));
+      spool.remove(record);
+
+      // New records go after the recovered ones.
+      spool.append(bytes("c"));
+      assertThat(spool.peek().getBytes()).isEqualTo(bytes("c"));
+    }
+  }
+
+  @Test
+  void deletesConsumedSegments() throws IOException {
+    // Room for a single 10 byte record per segment.
+    try (DiskSpool spool = DiskSpool.open(tempDir, 32, 1024)) {
+      spool.append(bytes("0123456789"));
+      spool.append(bytes("abcdefghij"));
+      assertThat(segmentCount()).isEqualTo(2);
+
+      spool.remove(spool.peek());
+      assertThat(spool.peek().getBytes()).isEqualTo(bytes("abcdefghij"));
+      assertThat(segmentCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void dropsOldestSegmentWhenFull() throws IOException {
+    try (DiskSpool spool = DiskSpool.open(tempDir, 32, 64)) {
+      spool.append(bytes("0123456789"));
+      spool.append(bytes("abcdefghij"));
+      spool.append(bytes("ABCDEFGHIJ"));
+      assertThat(segmentCount()).isEqualTo(2);
+
+      DiskSpool.Record record = spool.peek();
+      assertThat(record.getBytes()).isEqualTo(bytes("abcdefghij"));
+      spool.remove(record);
+      assertThat(spool.peek().getBytes()).isEqualTo(bytes("ABCDEFGHIJ"));
+    }
+  }
+
+  @Test
+  void keepsRecordsWhenRollingOverJustAboveOneSegment() throws IOException {
+    // Just above the largest segment size, four segments of 1 MiB are used rather than a single
+    // one which would be dropped, with all of its records, when rolling over.
+    long maxBytes = 4 * 1024 * 1024 + 1;
+    assertThat(DiskSpool.segmentBytes(maxBytes)).isEqualTo(1024 * 1024);
+    try (DiskSpool spool = DiskSpool.open(tempDir, DiskSpool.segmentBytes(maxBytes), maxBytes)) {
+      // Room for a single record per segment.
+      for (int i = 0; i < 7; i++) {
+        byte[] record = new byte[600 * 1024];
+        record[0] = (byte) i;
+        assertThat(spool.append(record)).isTrue();
+      }
+      assertThat(segmentCount()).isEqualTo(4);
+
+      for (int i = 3; i < 7; i++) {
+        DiskSpool.Record record = spool.peek();
+        assertThat(record.getBytes()[0]).isEqualTo((byte) i);
+        spool.remove(record);
+      }
+      assertThat(spool.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  void segmentBytes() {
+    assertThat(DiskSpool.segmentBytes(4096)).isEqualTo(1024);
+    assertThat(DiskSpool.segmentBytes(1024L * 1024 * 1024)).isEqualTo(4 * 1024 * 1024);
+    assertThat(DiskSpool.segmentBytes(20)).isEqualTo(10);
+  }
+
+  @Test
+  void rejectsRecordLargerThanSegment() throws IOException {
+    try (DiskSpool spool = DiskSpool.open(tempDir, 32, 64)) {
+      assertThat(spool.append(new byte[24])).isFalse();
+      assertThat(spool.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  void stopsAtTornWrite() throws IOException {
+    try (DiskSpool spool = DiskSpool.open(tempDir, 1024, 4096)) {
+      spool.append(bytes("a"));
+      spool.append(bytes("b"));
+    }
+
+    // Corrupt the payload of the second record, following the 9 byte header and payload of the
+    // first one and its own header.
+    try (RandomAccessFile file = new RandomAccessFile(tempDir.resolve("0.spool").toFile(), "rw")) {
+      file.seek(9 + 1 + 9);
+      file.write('x');
+    }
+
+    try (DiskSpool spool = DiskSpool.open(tempDir, 1024, 4096)) {
+      DiskSpool.Record record = spool.peek();
+      assertThat(record.getBytes()).isEqualTo(bytes("a"));
+      spool.remove(record);
+      assertThat(spool.peek()).isNull();
+    }
+  }
+
+  private long segmentCount() throws IOException {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      return files.count();
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBufferTest {
+
+  @Test
+  void invalidConfig() {
+    assertThatThrownBy(() -> new RetryBuffer<String>(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBytes must be positive");
+  }
+
+  @Test
+  void fifo() {
+    RetryBuffer<String> buffer = new RetryBuffer<>(100);
+    assertThat(buffer.isEmpty()).isTrue();
+    assertThat(buffer.peek()).isNull();
+
+    assertThat(buffer.offer("a", 10)).isEmpty();
+    assertThat(buffer.offer("b", 20)).isEmpty();
+    assertThat(buffer.size()).isEqualTo(2);
+    assertThat(buffer.getBytes()).isEqualTo(30);
+    assertThat(buffer.toList()).containsExactly("a", "b");
+
+    assertThat(buffer.peek()).isEqualTo("a");
+    assertThat(buffer.remove("a")).isTrue();
+    assertThat(buffer.remove("a")).isFalse();
+    assertThat(buffer.peek()).isEqualTo("b");
+    assertThat(buffer.getBytes()).isEqualTo(20);
+  }
+
+  @Test
+  void evictsOldest() {
+    RetryBuffer<String> buffer = new RetryBuffer<>(100);
+    buffer.offer("a", 40);
+    buffer.offer("b", 40);
+    assertThat(buffer.offer("c", 40)).containsExactly("a");
+    assertThat(buffer.toList()).containsExactly("b", "c");
+    assertThat(buffer.offer("d", 100)).containsExactly("b", "c");
+    assertThat(buffer.toList()).containsExactly("d");
+    assertThat(buffer.getBytes()).isEqualTo(100);
+  }
+
+  @Test
+  void rejectsOversized() {
+    RetryBuffer<String> buffer = new RetryBuffer<>(100);
+    buffer.offer("a", 40);
+    assertThat(buffer.offer("b", 101)).containsExactly("b");
+    assertThat(buffer.toList()).containsExactly("a");
+  }
+
+  @Test
+  void clear() {
+    RetryBuffer<String> buffer = new RetryBuffer<>(100);
+    buffer.offer("a", 40);
+    buffer.offer("b", 40);
+    assertThat(buffer.clear()).containsExactly("a", "b");
+    assertThat(buffer.isEmpty()).isTrue();
+    assertThat(buffer.getBytes()).isZero();
+  }
+}
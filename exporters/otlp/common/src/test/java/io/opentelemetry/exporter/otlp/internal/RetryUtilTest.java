@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.Any;
+import com.google.rpc.RetryInfo;
+import io.grpc.Status;
+import io.grpc.protobuf.StatusProto;
+import io.opentelemetry.sdk.common.export.RetryPolicy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RetryUtilTest {
+
+  @Test
+  void toServiceConfig() {
+    RetryPolicy retryPolicy =
+        RetryPolicy.builder()
+            .setMaxAttempts(3)
+            .setInitialBackoff(Duration.ofMillis(500))
+            .setMaxBackoff(Duration.ofSeconds(2))
+            .setBackoffMultiplier(2.0)
+            .build();
+
+    Map<String, Object> expectedPolicy = new HashMap<>();
+    expectedPolicy.put("maxAttempts", 3.0);
+    expectedPolicy.put("initialBackoff", "0.5s");
+    expectedPolicy.put("maxBackoff", "2s");
+    expectedPolicy.put("backoffMultiplier", 2.0);
+    expectedPolicy.put("retryableStatusCodes", RetryUtil.retryableStatusCodes());
+    Map<String, Object> expectedMethodConfig = new HashMap<>();
+    expectedMethodConfig.put(
+        "name", Collections.singletonList(Collections.singletonMap("service", "foo.Service")));
+    expectedMethodConfig.put("retryPolicy", expectedPolicy);
+
+    assertThat(RetryUtil.toServiceConfig("foo.Service", retryPolicy))
+        .isEqualTo(
+            Collections.singletonMap(
+                "methodConfig", Collections.singletonList(expectedMethodConfig)));
+  }
+
+  @Test
+  void retryableStatusCodes() {
+    assertThat(RetryUtil.retryableStatusCodes())
+        .containsExactlyInAnyOrder(
+            "CANCELLED",
+            "DEADLINE_EXCEEDED",
+            "ABORTED",
+            "OUT_OF_RANGE",
+            "UNAVAILABLE",
+            "DATA_LOSS");
+  }
+
+  @Test
+  void retryDelayNanos() {
+    assertThat(
+            RetryUtil.retryDelayNanos(
+                StatusProto.toStatusRuntimeException(
+                    com.google.rpc.Status.newBuilder()
+                        .setCode(Status.Code.RESOURCE_EXHAUSTED.value())
+                        .addDetails(
+                            Any.pack(
+                                RetryInfo.newBuilder()
+                                    .setRetryDelay(
+                                        com.google.protobuf.Duration.newBuilder()
+                                            .setSeconds(2)
+                                            .setNanos(500))
+                                    .build()))
+                        .build())))
+        .isEqualTo(TimeUnit.SECONDS.toNanos(2) + 500);
+    assertThat(RetryUtil.retryDelayNanos(Status.RESOURCE_EXHAUSTED.asRuntimeException()))
+        .isEqualTo(-1);
+    assertThat(RetryUtil.retryDelayNanos(new IllegalStateException())).isEqualTo(-1);
+  }
+}
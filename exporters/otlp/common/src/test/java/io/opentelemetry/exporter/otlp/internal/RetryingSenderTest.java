@@ -0,0 +1,195 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.Any;
+import com.google.protobuf.StringValue;
+import com.google.rpc.RetryInfo;
+import io.grpc.Status;
+import io.grpc.protobuf.StatusProto;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RetryingSenderTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void noRetryBuffer() {
+    TestSender sender = new TestSender(0, null);
+    sender.error = Status.UNAVAILABLE.asRuntimeException();
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    assertThat(sender.getRetryBuffer()).isNull();
+
+    sender.error = null;
+    assertThat(sender.export(StringValue.of("b"), 2).isSuccess()).isTrue();
+    assertThat(sender.sent).containsExactly("a", "b");
+    assertThat(sender.exported).isEqualTo(2);
+    assertThat(sender.failed).isEqualTo(1);
+  }
+
+  @Test
+  void retriesInOrder() {
+    TestSender sender = new TestSender(1024, null);
+    sender.error = Status.UNAVAILABLE.asRuntimeException();
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    assertThat(sender.getRetryBuffer().size()).isEqualTo(1);
+
+    sender.error = null;
+    assertThat(sender.export(StringValue.of("b"), 1).isSuccess()).isTrue();
+    assertThat(sender.sent).containsExactly("a", "a", "b");
+    assertThat(sender.getRetryBuffer().isEmpty()).isTrue();
+    assertThat(sender.exported).isEqualTo(2);
+    assertThat(sender.failed).isEqualTo(0);
+  }
+
+  @Test
+  void dropsNonRetryable() {
+    TestSender sender = new TestSender(1024, null);
+    sender.error = Status.PERMISSION_DENIED.asRuntimeException();
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    assertThat(sender.getRetryBuffer().isEmpty()).isTrue();
+    assertThat(sender.failed).isEqualTo(1);
+  }
+
+  @Test
+  void throttled() {
+    TestSender sender = new TestSender(1024, null);
+    sender.error = throttledError(TimeUnit.SECONDS.toMillis(60));
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+
+    // The server asked to wait before retrying, so new requests are queued without being sent.
+    sender.error = null;
+    CompletableResultCode result = sender.export(StringValue.of("b"), 1);
+    assertThat(result.isDone()).isFalse();
+    assertThat(sender.sent).containsExactly("a");
+    assertThat(sender.getRetryBuffer().size()).isEqualTo(2);
+
+    sender.shutdown();
+    assertThat(result.isDone()).isTrue();
+    assertThat(result.isSuccess()).isFalse();
+    assertThat(sender.getRetryBuffer().isEmpty()).isTrue();
+    assertThat(sender.failed).isEqualTo(2);
+  }
+
+  @Test
+  void retriesWhenIdle() {
+    TestSender sender = new TestSender(1024, null);
+    sender.error = throttledError(100);
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    CompletableResultCode result = sender.export(StringValue.of("b"), 1);
+    assertThat(result.isDone()).isFalse();
+
+    // Once the delay asked by the server has passed, the buffer is sent without another export.
+    sender.error = null;
+    await().untilAsserted(() -> assertThat(sender.getRetryBuffer().isEmpty()).isTrue());
+    assertThat(sender.sent).containsExactly("a", "a", "b");
+    assertThat(result.isSuccess()).isTrue();
+
+    sender.shutdown();
+  }
+
+  @Test
+  void replaysSpoolWhenIdle() throws IOException {
+    DiskSpool diskSpool = DiskSpool.open(tempDir, 1024, 4096);
+    TestSender sender = new TestSender(1024, diskSpool);
+    sender.error = throttledError(100);
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    assertThat(diskSpool.isEmpty()).isFalse();
+
+    sender.error = null;
+    await().untilAsserted(() -> assertThat(diskSpool.isEmpty()).isTrue());
+    assertThat(sender.sent).containsExactly("a", "a");
+
+    sender.shutdown();
+  }
+
+  @Test
+  void replaysSpool() throws IOException {
+    DiskSpool diskSpool = DiskSpool.open(tempDir, 1024, 4096);
+    TestSender sender = new TestSender(1024, diskSpool);
+    assertThat(sender.getRetryBuffer()).isNull();
+    sender.error = Status.UNAVAILABLE.asRuntimeException();
+    assertThat(sender.export(StringValue.of("a"), 1).isSuccess()).isFalse();
+    assertThat(diskSpool.isEmpty()).isFalse();
+
+    // Spooled requests are replayed once a request succeeds.
+    sender.error = null;
+    assertThat(sender.export(StringValue.of("b"), 1).isSuccess()).isTrue();
+    assertThat(sender.sent).containsExactly("a", "b", "a");
+    assertThat(diskSpool.isEmpty()).isTrue();
+    assertThat(sender.exported).isEqualTo(2);
+    assertThat(sender.failed).isEqualTo(0);
+
+    sender.shutdown();
+  }
+
+  private static Throwable throttledError(long retryDelayMillis) {
+    return StatusProto.toStatusRuntimeException(
+        com.google.rpc.Status.newBuilder()
+            .setCode(Status.Code.RESOURCE_EXHAUSTED.value())
+            .addDetails(
+                Any.pack(
+                    RetryInfo.newBuilder()
+                        .setRetryDelay(
+                            com.google.protobuf.Duration.newBuilder()
+                                .setSeconds(retryDelayMillis / 1000)
+                                .setNanos(
+                                    (int) TimeUnit.MILLISECONDS.toNanos(retryDelayMillis % 1000)))
+                        .build()))
+            .build());
+  }
+
+  private static final class TestSender extends RetryingSender<StringValue> {
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    @Nullable private volatile Throwable error;
+    private int exported;
+    private int failed;
+
+    private TestSender(long retryBufferBytes, @Nullable DiskSpool diskSpool) {
+      super(
+          Logger.getLogger(RetryingSenderTest.class.getName()),
+          "strings",
+          StringValue.parser(),
+          retryBufferBytes,
+          diskSpool);
+    }
+
+    @Override
+    protected ListenableFuture<?> send(StringValue request) {
+      sent.add(request.getValue());
+      Throwable error = this.error;
+      return error != null ? Futures.immediateFailedFuture(error) : Futures.immediateFuture(null);
+    }
+
+    @Override
+    protected int countItems(StringValue request) {
+      return 1;
+    }
+
+    @Override
+    protected void recordExported(int itemCount, boolean success) {
+      if (success) {
+        exported += itemCount;
+      } else {
+        failed += itemCount;
+      }
+    }
+  }
+}
@@ -5,16 +5,17 @@
 
 package io.opentelemetry.exporter.otlp.metrics;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.grpc.ManagedChannel;
-import io.grpc.Status;
+import io.opentelemetry.exporter.otlp.internal.DiskSpool;
 import io.opentelemetry.exporter.otlp.internal.MetricAdapter;
+import io.opentelemetry.exporter.otlp.internal.RetryBuffer;
+import io.opentelemetry.exporter.otlp.internal.RetryingSender;
 import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
-import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceResponse;
 import io.opentelemetry.proto.collector.metrics.v1.MetricsServiceGrpc;
 import io.opentelemetry.proto.collector.metrics.v1.MetricsServiceGrpc.MetricsServiceFutureStub;
+import io.opentelemetry.proto.metrics.v1.InstrumentationLibraryMetrics;
+import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.internal.ThrottlingLogger;
 import io.opentelemetry.sdk.metrics.data.MetricData;
@@ -36,6 +37,8 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
   private final MetricsServiceFutureStub metricsService;
   private final ManagedChannel managedChannel;
   private final long timeoutNanos;
+  @Nullable private final String compressionMethod;
+  private final MetricSender sender;
 
   /**
    * Creates a new OTLP gRPC Metric Reporter with the given name, using the given channel.
@@ -43,15 +46,34 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
    * @param channel the channel to use when communicating with the OpenTelemetry Collector.
    * @param timeoutNanos max waiting time for the collector to process each metric batch. When set
    *     to 0 or to a negative value, the exporter will wait indefinitely.
+   * @param compressionMethod the name of the compressor to apply to each request, or {@code null}
+   *     to send requests uncompressed.
+   * @param retryBufferBytes the maximum size of the batches kept for retry after failing with a
+   *     retryable status. When set to 0, failed batches are dropped.
+   * @param diskSpool the spool persisting batches that failed with a retryable status until the
+   *     collector is reachable again, or {@code null} to keep them in the retry buffer instead.
    */
-  OtlpGrpcMetricExporter(ManagedChannel channel, long timeoutNanos) {
+  OtlpGrpcMetricExporter(
+      ManagedChannel channel,
+      long timeoutNanos,
+      @Nullable String compressionMethod,
+      long retryBufferBytes,
+      @Nullable DiskSpool diskSpool) {
     this.managedChannel = channel;
     this.timeoutNanos = timeoutNanos;
-    metricsService = MetricsServiceGrpc.newFutureStub(channel);
+    this.compressionMethod = compressionMethod;
+    MetricsServiceFutureStub stub = MetricsServiceGrpc.newFutureStub(channel);
+    if (compressionMethod != null) {
+      stub = stub.withCompression(compressionMethod);
+    }
+    metricsService = stub;
+    sender = new MetricSender(retryBufferBytes, diskSpool);
   }
 
   /**
-   * Submits all the given metrics in a single batch to the OpenTelemetry collector.
+   * Submits all the given metrics in a single batch to the OpenTelemetry collector. If a retry
+   * buffer is configured and earlier batches are waiting to be retried, they are sent first and
+   * this batch is queued behind them.
    *
    * @param metrics the list of Metrics to be exported.
    * @return the result of the operation
@@ -62,54 +84,18 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
         ExportMetricsServiceRequest.newBuilder()
             .addAllResourceMetrics(MetricAdapter.toProtoResourceMetrics(metrics))
             .build();
+    return sender.export(exportMetricsServiceRequest, metrics.size());
+  }
 
-    final CompletableResultCode result = new CompletableResultCode();
-    MetricsServiceFutureStub exporter;
-    if (timeoutNanos > 0) {
-      exporter = metricsService.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS);
-    } else {
-      exporter = metricsService;
+  private static int countMetrics(ExportMetricsServiceRequest request) {
+    int metricCount = 0;
+    for (ResourceMetrics resourceMetrics : request.getResourceMetricsList()) {
+      for (InstrumentationLibraryMetrics libraryMetrics :
+          resourceMetrics.getInstrumentationLibraryMetricsList()) {
+        metricCount += libraryMetrics.getMetricsCount();
+      }
     }
-
-    Futures.addCallback(
-        exporter.export(exportMetricsServiceRequest),
-        new FutureCallback<ExportMetricsServiceResponse>() {
-          @Override
-          public void onSuccess(@Nullable ExportMetricsServiceResponse response) {
-            result.succeed();
-          }
-
-          @Override
-          public void onFailure(Throwable t) {
-            Status status = Status.fromThrowable(t);
-            switch (status.getCode()) {
-              case UNIMPLEMENTED:
-                logger.log(
-                    Level.SEVERE,
-                    "Failed to export metrics. Server responded with UNIMPLEMENTED. "
-                        + "This usually means that your collector is not configured with an otlp "
-                        + "receiver in the \"pipelines\" section of the configuration. "
-                        + "Full error message: "
-                        + t.getMessage());
-                break;
-              case UNAVAILABLE:
-                logger.log(
-                    Level.SEVERE,
-                    "Failed to export metrics. Server is UNAVAILABLE. "
-                        + "Make sure your collector is running and reachable from this network."
-                        + t.getMessage());
-                break;
-              default:
-                logger.log(
-                    Level.WARNING, "Failed to export metrics. Error message: " + t.getMessage());
-                break;
-            }
-            logger.log(Level.FINEST, "Failed to export metrics. Details follow: " + t);
-            result.fail();
-          }
-        },
-        MoreExecutors.directExecutor());
-    return result;
+    return metricCount;
   }
 
   /**
@@ -148,6 +134,7 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
    */
   @Override
   public CompletableResultCode shutdown() {
+    sender.shutdown();
     try {
       managedChannel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
     } catch (InterruptedException e) {
@@ -156,4 +143,50 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
     }
     return CompletableResultCode.ofSuccess();
   }
+
+  // Visible for testing
+  @Nullable
+  String getCompressionMethod() {
+    return compressionMethod;
+  }
+
+  // Visible for testing
+  @Nullable
+  RetryBuffer<?> getRetryBuffer() {
+    return sender.getRetryBuffer();
+  }
+
+  // Visible for testing
+  @Nullable
+  DiskSpool getDiskSpool() {
+    return sender.getDiskSpool();
+  }
+
+  private final class MetricSender extends RetryingSender<ExportMetricsServiceRequest> {
+
+    private MetricSender(long retryBufferBytes, @Nullable DiskSpool diskSpool) {
+      super(
+          Logger.getLogger(OtlpGrpcMetricExporter.class.getName()),
+          "metrics",
+          ExportMetricsServiceRequest.parser(),
+          retryBufferBytes,
+          diskSpool);
+    }
+
+    @Override
+    protected ListenableFuture<?> send(ExportMetricsServiceRequest request) {
+      MetricsServiceFutureStub exporter;
+      if (timeoutNanos > 0) {
+        exporter = metricsService.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS);
+      } else {
+        exporter = metricsService;
+      }
+      return exporter.export(request);
+    }
+
+    @Override
+    protected int countItems(ExportMetricsServiceRequest request) {
+      return countMetrics(request);
+    }
+  }
 }
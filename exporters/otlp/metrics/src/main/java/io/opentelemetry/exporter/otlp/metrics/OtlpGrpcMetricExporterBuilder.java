@@ -9,12 +9,19 @@ import static io.grpc.Metadata.ASCII_STRING_MARSHALLER;
 import static io.opentelemetry.api.internal.Utils.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import io.grpc.CompressorRegistry;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.Metadata;
 import io.grpc.stub.MetadataUtils;
+import io.opentelemetry.exporter.otlp.internal.DiskSpool;
+import io.opentelemetry.exporter.otlp.internal.RetryUtil;
+import io.opentelemetry.proto.collector.metrics.v1.MetricsServiceGrpc;
+import io.opentelemetry.sdk.common.export.RetryPolicy;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
@@ -31,6 +38,11 @@ public final class OtlpGrpcMetricExporterBuilder {
   private URI endpoint = DEFAULT_ENDPOINT;
 
   @Nullable private Metadata metadata;
+  @Nullable private String compressionMethod;
+  @Nullable private RetryPolicy retryPolicy;
+  private long retryBufferBytes;
+  @Nullable private Path spoolDirectory;
+  private long spoolMaxBytes;
 
   /**
    * Sets the managed chanel to use when communicating with the backend. Takes precedence over
@@ -88,6 +100,68 @@ public final class OtlpGrpcMetricExporterBuilder {
     return this;
   }
 
+  /**
+   * Sets the method used to compress payloads. If unset, compression is disabled. Currently
+   * supported compression methods include "gzip" and "none". Other methods, such as zstd or snappy,
+   * may be used once a compressor with that name has been registered with {@link
+   * CompressorRegistry#getDefaultInstance()}.
+   */
+  public OtlpGrpcMetricExporterBuilder setCompression(String compressionMethod) {
+    requireNonNull(compressionMethod, "compressionMethod");
+    checkArgument(
+        compressionMethod.equals("none")
+            || CompressorRegistry.getDefaultInstance().lookupCompressor(compressionMethod) != null,
+        "Unsupported compression method. Supported compression methods include: gzip, none.");
+    this.compressionMethod = compressionMethod.equals("none") ? null : compressionMethod;
+    return this;
+  }
+
+  /**
+   * Sets the {@link RetryPolicy} used to retry exports that fail with a retryable status, such as
+   * {@code UNAVAILABLE}. Retries use jittered exponential backoff and honor throttling hints sent
+   * by the server. If unset, exports are not retried. Only applies if {@link #setChannel} is not
+   * used, since the policy is configured on the channel built by this builder.
+   */
+  public OtlpGrpcMetricExporterBuilder setRetryPolicy(RetryPolicy retryPolicy) {
+    requireNonNull(retryPolicy, "retryPolicy");
+    this.retryPolicy = retryPolicy;
+    return this;
+  }
+
+  /**
+   * Sets the maximum total size, in bytes, of batches of metrics kept in memory after their export
+   * failed with a retryable status. Buffered batches are sent again, ahead of new data, on the next
+   * export or in the background once the server can be retried. When the buffer is full, the oldest
+   * batches are dropped. If unset or set to 0, failed batches are dropped immediately.
+   *
+   * <p>The result of an export fails if its first attempt fails, even though the batch is then
+   * buffered and may still be delivered. Batches exported while others are buffered are sent after
+   * them, and their results only complete once they are attempted or dropped.
+   */
+  public OtlpGrpcMetricExporterBuilder setRetryBufferSize(long retryBufferBytes) {
+    checkArgument(retryBufferBytes >= 0, "retryBufferBytes must be non-negative");
+    this.retryBufferBytes = retryBufferBytes;
+    return this;
+  }
+
+  /**
+   * Persists batches of metrics whose export failed with a retryable status to memory-mapped files
+   * in the given directory instead of dropping them or buffering them in memory. Spooled batches
+   * are replayed, oldest first, once the server is reachable again, including batches left by a
+   * previous process using the same directory. When the files would grow beyond {@code maxBytes},
+   * the oldest batches are dropped. Batches larger than 4 MiB or a quarter of {@code maxBytes} are
+   * dropped rather than spooled. Takes precedence over {@link #setRetryBufferSize(long)}.
+   *
+   * <p>The directory must not be shared with any other exporter.
+   */
+  public OtlpGrpcMetricExporterBuilder setDiskSpool(Path directory, long maxBytes) {
+    requireNonNull(directory, "directory");
+    checkArgument(maxBytes > 0, "maxBytes must be positive");
+    this.spoolDirectory = directory;
+    this.spoolMaxBytes = maxBytes;
+    return this;
+  }
+
   /**
    * Add header to request. Optional. Applicable only if {@link
    * OtlpGrpcMetricExporterBuilder#endpoint} is set to build channel.
@@ -120,13 +194,31 @@ public final class OtlpGrpcMetricExporterBuilder {
         managedChannelBuilder.usePlaintext();
       }
 
+      if (retryPolicy != null) {
+        managedChannelBuilder
+            .defaultServiceConfig(
+                RetryUtil.toServiceConfig(MetricsServiceGrpc.SERVICE_NAME, retryPolicy))
+            .enableRetry();
+      }
+
       if (metadata != null) {
         managedChannelBuilder.intercept(MetadataUtils.newAttachHeadersInterceptor(metadata));
       }
 
       channel = managedChannelBuilder.build();
     }
-    return new OtlpGrpcMetricExporter(channel, timeoutNanos);
+
+    DiskSpool diskSpool = null;
+    if (spoolDirectory != null) {
+      try {
+        diskSpool =
+            DiskSpool.open(spoolDirectory, DiskSpool.segmentBytes(spoolMaxBytes), spoolMaxBytes);
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not open spool in " + spoolDirectory, e);
+      }
+    }
+    return new OtlpGrpcMetricExporter(
+        channel, timeoutNanos, compressionMethod, retryBufferBytes, diskSpool);
   }
 
   OtlpGrpcMetricExporterBuilder() {}
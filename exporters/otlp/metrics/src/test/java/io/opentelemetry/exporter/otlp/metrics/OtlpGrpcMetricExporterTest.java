@@ -19,13 +19,16 @@ import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.stub.StreamObserver;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.exporter.otlp.internal.DiskSpool;
 import io.opentelemetry.exporter.otlp.internal.MetricAdapter;
+import io.opentelemetry.exporter.otlp.internal.RetryBuffer;
 import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
 import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceResponse;
 import io.opentelemetry.proto.collector.metrics.v1.MetricsServiceGrpc;
 import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.export.RetryPolicy;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.LongSumData;
@@ -33,6 +36,8 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.resources.Resource;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -43,6 +48,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
 import org.slf4j.event.LoggingEvent;
 
@@ -101,6 +107,64 @@ class OtlpGrpcMetricExporterTest {
     assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setEndpoint("gopher://localhost"))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Invalid endpoint, must start with http:// or https://: gopher://localhost");
+
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setCompression(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("compressionMethod");
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setCompression("foo"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(
+            "Unsupported compression method. Supported compression methods include: gzip, none.");
+
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setRetryPolicy(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("retryPolicy");
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setRetryBufferSize(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("retryBufferBytes must be non-negative");
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setDiskSpool(null, 1024))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("directory");
+    assertThatThrownBy(() -> OtlpGrpcMetricExporter.builder().setDiskSpool(Paths.get("spool"), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBytes must be positive");
+  }
+
+  @Test
+  void retryConfig() {
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder().setRetryPolicy(RetryPolicy.getDefault()).build();
+    assertThat(exporter.getRetryBuffer()).isNull();
+    exporter.shutdown();
+
+    exporter = OtlpGrpcMetricExporter.builder().setRetryBufferSize(1024).build();
+    assertThat(exporter.getRetryBuffer()).isNotNull();
+    exporter.shutdown();
+  }
+
+  @Test
+  void compressionConfig() {
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder().setChannel(inProcessChannel).build();
+    assertThat(exporter.getCompressionMethod()).isNull();
+    exporter.shutdown();
+
+    exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setCompression("gzip")
+            .build();
+    assertThat(exporter.getCompressionMethod()).isEqualTo("gzip");
+    exporter.shutdown();
+
+    exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setCompression("gzip")
+            .setCompression("none")
+            .build();
+    assertThat(exporter.getCompressionMethod()).isNull();
+    exporter.shutdown();
   }
 
   @Test
@@ -117,6 +181,23 @@ class OtlpGrpcMetricExporterTest {
     }
   }
 
+  @Test
+  void testExport_Compressed() {
+    MetricData metric = generateFakeMetric();
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setCompression("gzip")
+            .build();
+    try {
+      assertThat(exporter.export(Collections.singletonList(metric)).isSuccess()).isTrue();
+      assertThat(fakeCollector.getReceivedMetrics())
+          .isEqualTo(MetricAdapter.toProtoResourceMetrics(Collections.singletonList(metric)));
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
   @Test
   void testExport_MultipleMetrics() {
     List<MetricData> spans = new ArrayList<>();
@@ -231,6 +312,125 @@ class OtlpGrpcMetricExporterTest {
     assertThat(log.getLevel()).isEqualTo(Level.ERROR);
   }
 
+  @Test
+  void testExport_RetryBuffer() {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .build();
+    try {
+      RetryBuffer<?> retryBuffer = exporter.getRetryBuffer();
+      MetricData failedMetric = generateFakeMetric();
+      assertThat(exporter.export(Collections.singletonList(failedMetric)).isSuccess()).isFalse();
+      assertThat(retryBuffer.size()).isEqualTo(1);
+
+      fakeCollector.setReturnedStatus(Status.OK);
+      fakeCollector.getReceivedMetrics().clear();
+      MetricData metric = generateFakeMetric();
+      assertThat(exporter.export(Collections.singletonList(metric)).isSuccess()).isTrue();
+      assertThat(retryBuffer.isEmpty()).isTrue();
+
+      // The buffered batch is sent ahead of the new one.
+      List<ResourceMetrics> expected =
+          new ArrayList<>(
+              MetricAdapter.toProtoResourceMetrics(Collections.singletonList(failedMetric)));
+      expected.addAll(MetricAdapter.toProtoResourceMetrics(Collections.singletonList(metric)));
+      assertThat(fakeCollector.getReceivedMetrics()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_RetryBuffer_NotRetryable() {
+    fakeCollector.setReturnedStatus(Status.PERMISSION_DENIED);
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.export(Collections.singletonList(generateFakeMetric())).isSuccess())
+          .isFalse();
+      assertThat(exporter.getRetryBuffer().isEmpty()).isTrue();
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_DiskSpool(@TempDir Path tempDir) {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.getRetryBuffer()).isNull();
+      DiskSpool diskSpool = exporter.getDiskSpool();
+      MetricData failedMetric = generateFakeMetric();
+      assertThat(exporter.export(Collections.singletonList(failedMetric)).isSuccess()).isFalse();
+      assertThat(diskSpool.isEmpty()).isFalse();
+
+      fakeCollector.setReturnedStatus(Status.OK);
+      fakeCollector.getReceivedMetrics().clear();
+      MetricData metric = generateFakeMetric();
+      assertThat(exporter.export(Collections.singletonList(metric)).isSuccess()).isTrue();
+      assertThat(diskSpool.isEmpty()).isTrue();
+
+      // The spooled batch is replayed once the collector accepts data again.
+      List<ResourceMetrics> expected =
+          new ArrayList<>(MetricAdapter.toProtoResourceMetrics(Collections.singletonList(metric)));
+      expected.addAll(
+          MetricAdapter.toProtoResourceMetrics(Collections.singletonList(failedMetric)));
+      assertThat(fakeCollector.getReceivedMetrics()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_DiskSpool_Recovered(@TempDir Path tempDir) {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcMetricExporter exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(inProcessChannel)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    MetricData failedMetric = generateFakeMetric();
+    assertThat(exporter.export(Collections.singletonList(failedMetric)).isSuccess()).isFalse();
+    exporter.shutdown();
+
+    // A new exporter, for example after a restart, picks up the batches left in the spool.
+    fakeCollector.setReturnedStatus(Status.OK);
+    fakeCollector.getReceivedMetrics().clear();
+    ManagedChannel channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    closer.register(channel::shutdownNow);
+    exporter =
+        OtlpGrpcMetricExporter.builder()
+            .setChannel(channel)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.getDiskSpool().isEmpty()).isFalse();
+      MetricData metric = generateFakeMetric();
+      assertThat(exporter.export(Collections.singletonList(metric)).isSuccess()).isTrue();
+      assertThat(exporter.getDiskSpool().isEmpty()).isTrue();
+
+      List<ResourceMetrics> expected =
+          new ArrayList<>(MetricAdapter.toProtoResourceMetrics(Collections.singletonList(metric)));
+      expected.addAll(
+          MetricAdapter.toProtoResourceMetrics(Collections.singletonList(failedMetric)));
+      assertThat(fakeCollector.getReceivedMetrics()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
   @Test
   void testExport_Unimplemented() {
     fakeCollector.setReturnedStatus(Status.UNIMPLEMENTED);
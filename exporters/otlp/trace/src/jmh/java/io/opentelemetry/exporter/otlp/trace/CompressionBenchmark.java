@@ -0,0 +1,192 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import io.grpc.Codec;
+import io.grpc.Compressor;
+import io.grpc.CompressorRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the CPU cost of compressing a marshaled OTLP trace request against the number of bytes
+ * it saves on the wire. The {@code bytesRatio} counter reports the compressed size as a fraction of
+ * the uncompressed size. Compressors other than gzip can be compared by registering them with
+ * {@link CompressorRegistry#getDefaultInstance()} and passing their name with {@code -p
+ * compression=<name>}.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+  private static final Resource RESOURCE =
+      Resource.create(
+          Attributes.builder()
+              .put(AttributeKey.stringKey("service.name"), "checkout")
+              .put(AttributeKey.stringKey("host.name"), "checkout-7d9f8b6c5-x2x4z")
+              .put(AttributeKey.stringKey("telemetry.sdk.language"), "java")
+              .put(AttributeKey.stringKey("telemetry.sdk.version"), "1.3.0")
+              .build());
+
+  private static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.okhttp-3.0", "1.3.0");
+
+  private static final String[] ROUTES = {
+    "GET /api/cart", "POST /api/cart/items", "GET /api/products/{id}", "POST /api/checkout"
+  };
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    @Param({"16", "512"})
+    int numSpans;
+
+    Compressor compressor;
+    byte[] uncompressed;
+
+    @Setup
+    public void setup() throws IOException {
+      if (compression.equals("none")) {
+        compressor = Codec.Identity.NONE;
+      } else {
+        compressor = CompressorRegistry.getDefaultInstance().lookupCompressor(compression);
+        if (compressor == null) {
+          throw new IllegalArgumentException("No compressor registered for " + compression);
+        }
+      }
+
+      IdGenerator idGenerator = IdGenerator.random();
+      List<SpanData> spans = new ArrayList<>(numSpans);
+      for (int i = 0; i < numSpans; i++) {
+        spans.add(createSpanData(idGenerator, i));
+      }
+      TraceMarshaler.RequestMarshaler requestMarshaler =
+          TraceMarshaler.RequestMarshaler.create(spans);
+      uncompressed = new byte[requestMarshaler.getSerializedSize()];
+      requestMarshaler.writeTo(CodedOutputStream.newInstance(uncompressed));
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ThreadState {
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BenchmarkState benchmarkState;
+    long compressedBytes;
+
+    @Setup(Level.Iteration)
+    public void setup(BenchmarkState benchmarkState) {
+      this.benchmarkState = benchmarkState;
+    }
+
+    public long uncompressedBytes() {
+      return benchmarkState.uncompressed.length;
+    }
+
+    public long compressedBytes() {
+      return compressedBytes;
+    }
+
+    public double bytesRatio() {
+      return (double) compressedBytes / benchmarkState.uncompressed.length;
+    }
+  }
+
+  /** Compresses a marshaled request the same way gRPC does when writing it to the transport. */
+  @Benchmark
+  @Threads(1)
+  public int compress(BenchmarkState benchmarkState, ThreadState threadState) throws IOException {
+    threadState.output.reset();
+    try (OutputStream compressed = benchmarkState.compressor.compress(threadState.output)) {
+      compressed.write(benchmarkState.uncompressed);
+    }
+    threadState.compressedBytes = threadState.output.size();
+    return threadState.output.size();
+  }
+
+  private static SpanData createSpanData(IdGenerator idGenerator, int index) {
+    String traceId = idGenerator.generateTraceId();
+    String route = ROUTES[index % ROUTES.length];
+    long startEpochNanos = TimeUnit.MILLISECONDS.toNanos(1_622_505_600_000L) + index * 1_000_000L;
+    return TestSpanData.builder()
+        .setResource(RESOURCE)
+        .setInstrumentationLibraryInfo(INSTRUMENTATION_LIBRARY_INFO)
+        .setHasEnded(true)
+        .setSpanContext(
+            SpanContext.create(
+                traceId,
+                idGenerator.generateSpanId(),
+                TraceFlags.getSampled(),
+                TraceState.getDefault()))
+        .setParentSpanContext(
+            SpanContext.create(
+                traceId,
+                idGenerator.generateSpanId(),
+                TraceFlags.getSampled(),
+                TraceState.getDefault()))
+        .setName(route)
+        .setKind(SpanKind.SERVER)
+        .setStartEpochNanos(startEpochNanos)
+        .setEndEpochNanos(startEpochNanos + 1_000_000L + (index * 7919L) % 50_000_000L)
+        .setAttributes(
+            Attributes.builder()
+                .put(AttributeKey.stringKey("http.method"), route.substring(0, route.indexOf(' ')))
+                .put(AttributeKey.stringKey("http.url"), "https://shop.example.com/api/" + index)
+                .put(AttributeKey.longKey("http.status_code"), 200L)
+                .put(AttributeKey.stringKey("net.peer.ip"), "10.0.0." + (index % 256))
+                .build())
+        .setTotalAttributeCount(4)
+        .setEvents(
+            Arrays.asList(
+                EventData.create(startEpochNanos + 10, "request.received", Attributes.empty()),
+                EventData.create(
+                    startEpochNanos + 20,
+                    "cache.miss",
+                    Attributes.of(AttributeKey.longKey("cache.size"), (long) index))))
+        .setTotalRecordedEvents(2)
+        .setStatus(StatusData.ok())
+        .build();
+  }
+}
@@ -5,29 +5,28 @@
 
 package io.opentelemetry.exporter.otlp.trace;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
-import io.grpc.Status;
 import io.opentelemetry.api.metrics.BoundLongCounter;
 import io.opentelemetry.api.metrics.GlobalMeterProvider;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.common.Labels;
+import io.opentelemetry.exporter.otlp.internal.DiskSpool;
+import io.opentelemetry.exporter.otlp.internal.RetryBuffer;
+import io.opentelemetry.exporter.otlp.internal.RetryingSender;
 import io.opentelemetry.exporter.otlp.internal.SpanAdapter;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
-import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
 import io.opentelemetry.proto.collector.trace.v1.TraceServiceGrpc;
 import io.opentelemetry.proto.collector.trace.v1.TraceServiceGrpc.TraceServiceFutureStub;
+import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
 import io.opentelemetry.sdk.common.CompletableResultCode;
-import io.opentelemetry.sdk.internal.ThrottlingLogger;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -43,13 +42,12 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
   private static final Labels EXPORT_FAILURE_LABELS =
       Labels.of("exporter", EXPORTER_NAME, "success", "false");
 
-  private final ThrottlingLogger logger =
-      new ThrottlingLogger(Logger.getLogger(OtlpGrpcSpanExporter.class.getName()));
-
   private final TraceServiceFutureStub traceService;
 
   private final ManagedChannel managedChannel;
   private final long timeoutNanos;
+  @Nullable private final String compressionMethod;
+  private final SpanSender sender;
   private final BoundLongCounter spansSeen;
   private final BoundLongCounter spansExportedSuccess;
   private final BoundLongCounter spansExportedFailure;
@@ -60,8 +58,19 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
    * @param channel the channel to use when communicating with the OpenTelemetry Collector.
    * @param timeoutNanos max waiting time for the collector to process each span batch. When set to
    *     0 or to a negative value, the exporter will wait indefinitely.
+   * @param compressionMethod the name of the compressor to apply to each request, or {@code null}
+   *     to send requests uncompressed.
+   * @param retryBufferBytes the maximum size of the batches kept for retry after failing with a
+   *     retryable status. When set to 0, failed batches are dropped.
+   * @param diskSpool the spool persisting batches that failed with a retryable status until the
+   *     collector is reachable again, or {@code null} to keep them in the retry buffer instead.
    */
-  OtlpGrpcSpanExporter(ManagedChannel channel, long timeoutNanos) {
+  OtlpGrpcSpanExporter(
+      ManagedChannel channel,
+      long timeoutNanos,
+      @Nullable String compressionMethod,
+      long retryBufferBytes,
+      @Nullable DiskSpool diskSpool) {
     Meter meter = GlobalMeterProvider.getMeter("io.opentelemetry.exporters.otlp");
     this.spansSeen =
         meter.longCounterBuilder("spansSeenByExporter").build().bind(EXPORTER_NAME_LABELS);
@@ -70,12 +79,20 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
     this.spansExportedFailure = spansExportedCounter.bind(EXPORT_FAILURE_LABELS);
     this.managedChannel = channel;
     this.timeoutNanos = timeoutNanos;
+    this.compressionMethod = compressionMethod;
 
-    this.traceService = TraceServiceGrpc.newFutureStub(channel);
+    TraceServiceFutureStub stub = TraceServiceGrpc.newFutureStub(channel);
+    if (compressionMethod != null) {
+      stub = stub.withCompression(compressionMethod);
+    }
+    this.traceService = stub;
+    this.sender = new SpanSender(retryBufferBytes, diskSpool);
   }
 
   /**
-   * Submits all the given spans in a single batch to the OpenTelemetry collector.
+   * Submits all the given spans in a single batch to the OpenTelemetry collector. If a retry buffer
+   * is configured and earlier batches are waiting to be retried, they are sent first and this batch
+   * is queued behind them.
    *
    * @param spans the list of sampled Spans to be exported.
    * @return the result of the operation
@@ -87,60 +104,18 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
         ExportTraceServiceRequest.newBuilder()
             .addAllResourceSpans(SpanAdapter.toProtoResourceSpans(spans))
             .build();
+    return sender.export(exportTraceServiceRequest, spans.size());
+  }
 
-    final CompletableResultCode result = new CompletableResultCode();
-
-    TraceServiceFutureStub exporter;
-    if (timeoutNanos > 0) {
-      exporter = traceService.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS);
-    } else {
-      exporter = traceService;
+  private static int countSpans(ExportTraceServiceRequest request) {
+    int spanCount = 0;
+    for (ResourceSpans resourceSpans : request.getResourceSpansList()) {
+      for (InstrumentationLibrarySpans librarySpans :
+          resourceSpans.getInstrumentationLibrarySpansList()) {
+        spanCount += librarySpans.getSpansCount();
+      }
     }
-
-    Futures.addCallback(
-        exporter.export(exportTraceServiceRequest),
-        new FutureCallback<ExportTraceServiceResponse>() {
-          @Override
-          public void onSuccess(@Nullable ExportTraceServiceResponse response) {
-            spansExportedSuccess.add(spans.size());
-            result.succeed();
-          }
-
-          @Override
-          public void onFailure(Throwable t) {
-            spansExportedFailure.add(spans.size());
-            Status status = Status.fromThrowable(t);
-            switch (status.getCode()) {
-              case UNIMPLEMENTED:
-                logger.log(
-                    Level.SEVERE,
-                    "Failed to export spans. Server responded with UNIMPLEMENTED. "
-                        + "This usually means that your collector is not configured with an otlp "
-                        + "receiver in the \"pipelines\" section of the configuration. "
-                        + "Full error message: "
-                        + t.getMessage());
-                break;
-              case UNAVAILABLE:
-                logger.log(
-                    Level.SEVERE,
-                    "Failed to export spans. Server is UNAVAILABLE. "
-                        + "Make sure your collector is running and reachable from this network. "
-                        + "Full error message:"
-                        + t.getMessage());
-                break;
-              default:
-                logger.log(
-                    Level.WARNING, "Failed to export spans. Error message: " + t.getMessage());
-                break;
-            }
-            if (logger.isLoggable(Level.FINEST)) {
-              logger.log(Level.FINEST, "Failed to export spans. Details follow: " + t);
-            }
-            result.fail();
-          }
-        },
-        MoreExecutors.directExecutor());
-    return result;
+    return spanCount;
   }
 
   /**
@@ -185,6 +160,7 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
       return result.succeed();
     }
     managedChannel.shutdown();
+    sender.shutdown();
     this.spansSeen.unbind();
     this.spansExportedSuccess.unbind();
     this.spansExportedFailure.unbind();
@@ -195,4 +171,59 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
   long getTimeoutNanos() {
     return timeoutNanos;
   }
+
+  // Visible for testing
+  @Nullable
+  String getCompressionMethod() {
+    return compressionMethod;
+  }
+
+  // Visible for testing
+  @Nullable
+  RetryBuffer<?> getRetryBuffer() {
+    return sender.getRetryBuffer();
+  }
+
+  // Visible for testing
+  @Nullable
+  DiskSpool getDiskSpool() {
+    return sender.getDiskSpool();
+  }
+
+  private final class SpanSender extends RetryingSender<ExportTraceServiceRequest> {
+
+    private SpanSender(long retryBufferBytes, @Nullable DiskSpool diskSpool) {
+      super(
+          Logger.getLogger(OtlpGrpcSpanExporter.class.getName()),
+          "spans",
+          ExportTraceServiceRequest.parser(),
+          retryBufferBytes,
+          diskSpool);
+    }
+
+    @Override
+    protected ListenableFuture<?> send(ExportTraceServiceRequest request) {
+      TraceServiceFutureStub exporter;
+      if (timeoutNanos > 0) {
+        exporter = traceService.withDeadlineAfter(timeoutNanos, TimeUnit.NANOSECONDS);
+      } else {
+        exporter = traceService;
+      }
+      return exporter.export(request);
+    }
+
+    @Override
+    protected int countItems(ExportTraceServiceRequest request) {
+      return countSpans(request);
+    }
+
+    @Override
+    protected void recordExported(int itemCount, boolean success) {
+      if (success) {
+        spansExportedSuccess.add(itemCount);
+      } else {
+        spansExportedFailure.add(itemCount);
+      }
+    }
+  }
 }
@@ -10,6 +10,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 
 import com.google.common.io.Closer;
+import com.google.protobuf.Any;
+import com.google.rpc.RetryInfo;
 import io.github.netmikey.logunit.api.LogCapturer;
 import io.grpc.ManagedChannel;
 import io.grpc.Server;
@@ -17,11 +19,14 @@ import io.grpc.Status;
 import io.grpc.Status.Code;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.StatusProto;
 import io.grpc.stub.StreamObserver;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.exporter.otlp.internal.DiskSpool;
+import io.opentelemetry.exporter.otlp.internal.RetryBuffer;
 import io.opentelemetry.exporter.otlp.internal.SpanAdapter;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
@@ -29,19 +34,24 @@ import io.opentelemetry.proto.collector.trace.v1.TraceServiceGrpc;
 import io.opentelemetry.proto.trace.v1.ResourceSpans;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.export.RetryPolicy;
 import io.opentelemetry.sdk.testing.trace.TestSpanData;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.StatusData;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
 import org.slf4j.event.LoggingEvent;
 
@@ -102,6 +112,61 @@ class OtlpGrpcSpanExporterTest {
     assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setEndpoint("gopher://localhost"))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage("Invalid endpoint, must start with http:// or https://: gopher://localhost");
+
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setCompression(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("compressionMethod");
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setCompression("foo"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(
+            "Unsupported compression method. Supported compression methods include: gzip, none.");
+
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setRetryPolicy(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("retryPolicy");
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setRetryBufferSize(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("retryBufferBytes must be non-negative");
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setDiskSpool(null, 1024))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("directory");
+    assertThatThrownBy(() -> OtlpGrpcSpanExporter.builder().setDiskSpool(Paths.get("spool"), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBytes must be positive");
+  }
+
+  @Test
+  void retryConfig() {
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder().setRetryPolicy(RetryPolicy.getDefault()).build();
+    assertThat(exporter.getRetryBuffer()).isNull();
+    exporter.shutdown();
+
+    exporter = OtlpGrpcSpanExporter.builder().setRetryBufferSize(1024).build();
+    assertThat(exporter.getRetryBuffer()).isNotNull();
+    exporter.shutdown();
+  }
+
+  @Test
+  void compressionConfig() {
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder().setChannel(inProcessChannel).build();
+    assertThat(exporter.getCompressionMethod()).isNull();
+    exporter.shutdown();
+
+    exporter =
+        OtlpGrpcSpanExporter.builder().setChannel(inProcessChannel).setCompression("gzip").build();
+    assertThat(exporter.getCompressionMethod()).isEqualTo("gzip");
+    exporter.shutdown();
+
+    exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setCompression("gzip")
+            .setCompression("none")
+            .build();
+    assertThat(exporter.getCompressionMethod()).isNull();
+    exporter.shutdown();
   }
 
   @Test
@@ -118,6 +183,20 @@ class OtlpGrpcSpanExporterTest {
     }
   }
 
+  @Test
+  void testExport_Compressed() {
+    SpanData span = generateFakeSpan();
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder().setChannel(inProcessChannel).setCompression("gzip").build();
+    try {
+      assertThat(exporter.export(Collections.singletonList(span)).isSuccess()).isTrue();
+      assertThat(fakeCollector.getReceivedSpans())
+          .isEqualTo(SpanAdapter.toProtoResourceSpans(Collections.singletonList(span)));
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
   @Test
   void testExport_MultipleSpans() {
     List<SpanData> spans = new ArrayList<>();
@@ -240,6 +319,157 @@ class OtlpGrpcSpanExporterTest {
     assertThat(log.getLevel()).isEqualTo(Level.ERROR);
   }
 
+  @Test
+  void testExport_RetryBuffer() {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .build();
+    try {
+      RetryBuffer<?> retryBuffer = exporter.getRetryBuffer();
+      SpanData failedSpan = generateFakeSpan();
+      assertThat(exporter.export(Collections.singletonList(failedSpan)).isSuccess()).isFalse();
+      assertThat(retryBuffer.size()).isEqualTo(1);
+
+      fakeCollector.setReturnedStatus(Status.OK);
+      fakeCollector.getReceivedSpans().clear();
+      SpanData span = generateFakeSpan();
+      assertThat(exporter.export(Collections.singletonList(span)).isSuccess()).isTrue();
+      assertThat(retryBuffer.isEmpty()).isTrue();
+
+      // The buffered batch is sent ahead of the new one.
+      List<ResourceSpans> expected =
+          new ArrayList<>(SpanAdapter.toProtoResourceSpans(Collections.singletonList(failedSpan)));
+      expected.addAll(SpanAdapter.toProtoResourceSpans(Collections.singletonList(span)));
+      assertThat(fakeCollector.getReceivedSpans()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_RetryBuffer_NotRetryable() {
+    fakeCollector.setReturnedStatus(Status.PERMISSION_DENIED);
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.export(Collections.singletonList(generateFakeSpan())).isSuccess())
+          .isFalse();
+      assertThat(exporter.getRetryBuffer().isEmpty()).isTrue();
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_RetryBuffer_Throttled() {
+    fakeCollector.setReturnedError(
+        StatusProto.toStatusRuntimeException(
+            com.google.rpc.Status.newBuilder()
+                .setCode(Code.RESOURCE_EXHAUSTED.value())
+                .addDetails(
+                    Any.pack(
+                        RetryInfo.newBuilder()
+                            .setRetryDelay(com.google.protobuf.Duration.newBuilder().setSeconds(60))
+                            .build()))
+                .build()));
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .build();
+    try {
+      RetryBuffer<?> retryBuffer = exporter.getRetryBuffer();
+      assertThat(exporter.export(Collections.singletonList(generateFakeSpan())).isSuccess())
+          .isFalse();
+      assertThat(retryBuffer.size()).isEqualTo(1);
+
+      // The server asked us to wait before retrying, so new data is queued without being sent.
+      fakeCollector.setReturnedError(null);
+      fakeCollector.getReceivedSpans().clear();
+      assertThat(exporter.export(Collections.singletonList(generateFakeSpan())).isSuccess())
+          .isFalse();
+      assertThat(retryBuffer.size()).isEqualTo(2);
+      assertThat(fakeCollector.getReceivedSpans()).isEmpty();
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_DiskSpool(@TempDir Path tempDir) {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setRetryBufferSize(1024 * 1024)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.getRetryBuffer()).isNull();
+      DiskSpool diskSpool = exporter.getDiskSpool();
+      SpanData failedSpan = generateFakeSpan();
+      assertThat(exporter.export(Collections.singletonList(failedSpan)).isSuccess()).isFalse();
+      assertThat(diskSpool.isEmpty()).isFalse();
+
+      fakeCollector.setReturnedStatus(Status.OK);
+      fakeCollector.getReceivedSpans().clear();
+      SpanData span = generateFakeSpan();
+      assertThat(exporter.export(Collections.singletonList(span)).isSuccess()).isTrue();
+      assertThat(diskSpool.isEmpty()).isTrue();
+
+      // The spooled batch is replayed once the collector accepts data again.
+      List<ResourceSpans> expected =
+          new ArrayList<>(SpanAdapter.toProtoResourceSpans(Collections.singletonList(span)));
+      expected.addAll(SpanAdapter.toProtoResourceSpans(Collections.singletonList(failedSpan)));
+      assertThat(fakeCollector.getReceivedSpans()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  void testExport_DiskSpool_Recovered(@TempDir Path tempDir) {
+    fakeCollector.setReturnedStatus(Status.UNAVAILABLE);
+    OtlpGrpcSpanExporter exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(inProcessChannel)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    SpanData failedSpan = generateFakeSpan();
+    assertThat(exporter.export(Collections.singletonList(failedSpan)).isSuccess()).isFalse();
+    exporter.shutdown();
+
+    // A new exporter, for example after a restart, picks up the batches left in the spool.
+    fakeCollector.setReturnedStatus(Status.OK);
+    fakeCollector.getReceivedSpans().clear();
+    ManagedChannel channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    closer.register(channel::shutdownNow);
+    exporter =
+        OtlpGrpcSpanExporter.builder()
+            .setChannel(channel)
+            .setDiskSpool(tempDir, 1024 * 1024)
+            .build();
+    try {
+      assertThat(exporter.getDiskSpool().isEmpty()).isFalse();
+      SpanData span = generateFakeSpan();
+      assertThat(exporter.export(Collections.singletonList(span)).isSuccess()).isTrue();
+      assertThat(exporter.getDiskSpool().isEmpty()).isTrue();
+
+      List<ResourceSpans> expected =
+          new ArrayList<>(SpanAdapter.toProtoResourceSpans(Collections.singletonList(span)));
+      expected.addAll(SpanAdapter.toProtoResourceSpans(Collections.singletonList(failedSpan)));
+      assertThat(fakeCollector.getReceivedSpans()).isEqualTo(expected);
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
   @Test
   void testExport_Unimplemented() {
     fakeCollector.setReturnedStatus(Status.UNIMPLEMENTED);
@@ -310,6 +540,7 @@ class OtlpGrpcSpanExporterTest {
   private static final class FakeCollector extends TraceServiceGrpc.TraceServiceImplBase {
     private final List<ResourceSpans> receivedSpans = new ArrayList<>();
     private Status returnedStatus = Status.OK;
+    @Nullable private RuntimeException returnedError;
 
     @Override
     public void export(
@@ -317,6 +548,10 @@ class OtlpGrpcSpanExporterTest {
         StreamObserver<ExportTraceServiceResponse> responseObserver) {
       receivedSpans.addAll(request.getResourceSpansList());
       responseObserver.onNext(ExportTraceServiceResponse.newBuilder().build());
+      if (returnedError != null) {
+        responseObserver.onError(returnedError);
+        return;
+      }
       if (!returnedStatus.isOk()) {
         if (returnedStatus.getCode() == Code.DEADLINE_EXCEEDED) {
           // Do not call onCompleted to simulate a deadline exceeded.
@@ -335,5 +570,9 @@ class OtlpGrpcSpanExporterTest {
     void setReturnedStatus(Status returnedStatus) {
       this.returnedStatus = returnedStatus;
     }
+
+    void setReturnedError(@Nullable RuntimeException returnedError) {
+      this.returnedError = returnedError;
+    }
   }
 }
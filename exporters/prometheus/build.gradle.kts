@@ -2,6 +2,7 @@ plugins {
     id("otel.java-conventions")
     id("otel.publish-conventions")
 
+    id("otel.jmh-conventions")
     id("otel.animalsniffer-conventions")
 }
 
@@ -13,6 +14,8 @@ dependencies {
 
     api("io.prometheus:simpleclient")
 
+    compileOnly("org.codehaus.mojo:animal-sniffer-annotations")
+
     testImplementation("io.prometheus:simpleclient_common")
     testImplementation("com.google.guava:guava")
 }
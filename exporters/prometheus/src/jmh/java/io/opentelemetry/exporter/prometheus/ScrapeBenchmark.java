@@ -0,0 +1,164 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramData;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.LongSumData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scrapes a synthetic set of 100,000 points: 90 counters and 10 histograms with 1,000 points each.
+ * The {@code sanitize*} benchmarks isolate the cost of converting every metric name and label key
+ * of a scrape, with and without the memoizing {@link LabelNameSanitizer}.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ScrapeBenchmark {
+
+  private static final int METRICS = 100;
+  private static final int POINTS_PER_METRIC = 1_000;
+  private static final List<MetricData> DATA = createData();
+
+  private final TextFormatWriter textFormatWriter = new TextFormatWriter();
+  private final LabelNameSanitizer sanitizer = new LabelNameSanitizer();
+
+  @Benchmark
+  public List<MetricFamilySamples> toMetricFamilySamples() {
+    List<MetricFamilySamples> samples = new ArrayList<>(DATA.size());
+    for (MetricData metric : DATA) {
+      samples.add(MetricAdapter.toMetricFamilySamples(metric));
+    }
+    return samples;
+  }
+
+  @Benchmark
+  public void writeTextFormat(Blackhole blackhole) throws IOException {
+    textFormatWriter.write(DATA, new BlackholeOutputStream(blackhole), /* openMetrics= */ false);
+  }
+
+  @Benchmark
+  public void sanitizeUncached(Blackhole blackhole) {
+    for (MetricData metric : DATA) {
+      blackhole.consume(Collector.sanitizeMetricName(metric.getName()));
+      for (PointData point : MetricAdapter.getPoints(metric)) {
+        point
+            .getAttributes()
+            .forEach((key, value) -> blackhole.consume(Collector.sanitizeMetricName(key.getKey())));
+      }
+    }
+  }
+
+  @Benchmark
+  public void sanitizeCached(Blackhole blackhole) {
+    for (MetricData metric : DATA) {
+      blackhole.consume(sanitizer.apply(metric.getName()));
+      for (PointData point : MetricAdapter.getPoints(metric)) {
+        point
+            .getAttributes()
+            .forEach((key, value) -> blackhole.consume(sanitizer.apply(key.getKey())));
+      }
+    }
+  }
+
+  private static List<MetricData> createData() {
+    Resource resource = Resource.getDefault();
+    InstrumentationLibraryInfo library = InstrumentationLibraryInfo.create("benchmark", "1.0");
+    List<MetricData> data = new ArrayList<>(METRICS);
+    for (int i = 0; i < METRICS; i++) {
+      List<LongPointData> longPoints = new ArrayList<>(POINTS_PER_METRIC);
+      List<DoubleHistogramPointData> histogramPoints = new ArrayList<>(POINTS_PER_METRIC);
+      for (int j = 0; j < POINTS_PER_METRIC; j++) {
+        Attributes attributes =
+            Attributes.builder()
+                .put(stringKey("http.method"), j % 2 == 0 ? "GET" : "POST")
+                .put(longKey("http.status_code"), 200 + j % 5)
+                .put(stringKey("http.route"), "/api/v1/resource/" + j)
+                .put(stringKey("net.peer.name"), "host-" + (j % 10) + ".example.com")
+                .build();
+        longPoints.add(LongPointData.create(0, 1, attributes, j));
+        histogramPoints.add(
+            DoubleHistogramPointData.create(
+                0,
+                1,
+                attributes,
+                j * 3.5,
+                Arrays.asList(1.0, 5.0, 10.0, 50.0),
+                Arrays.asList(1L, 2L, 3L, 4L, (long) j)));
+      }
+      if (i % 10 == 0) {
+        data.add(
+            MetricData.createDoubleHistogram(
+                resource,
+                library,
+                "http.server.duration." + i,
+                "Duration of HTTP requests",
+                "ms",
+                DoubleHistogramData.create(AggregationTemporality.CUMULATIVE, histogramPoints)));
+      } else {
+        data.add(
+            MetricData.createLongSum(
+                resource,
+                library,
+                "http.server.requests." + i,
+                "Number of HTTP requests",
+                "1",
+                LongSumData.create(
+                    /* isMonotonic= */ true, AggregationTemporality.CUMULATIVE, longPoints)));
+      }
+    }
+    return data;
+  }
+
+  private static final class BlackholeOutputStream extends OutputStream {
+    private final Blackhole blackhole;
+
+    private BlackholeOutputStream(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(int b) {
+      blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      blackhole.consume(b);
+    }
+  }
+}
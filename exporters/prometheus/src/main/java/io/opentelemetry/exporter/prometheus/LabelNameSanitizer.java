@@ -9,10 +9,20 @@ import io.prometheus.client.Collector;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import javax.annotation.concurrent.ThreadSafe;
 
-/** Used to convert a label keys to a label names. Sanitizes the label keys. Not thread safe. */
+/**
+ * Used to convert label keys and metric names to Prometheus names. Sanitized names are memoized in
+ * a concurrent cache shared by all collections, since the set of distinct keys and names is small
+ * compared to the number of points scraped. Once the cache holds {@value #MAX_CACHE_SIZE} names,
+ * further names are sanitized without being cached.
+ */
+@ThreadSafe
 class LabelNameSanitizer implements Function<String, String> {
 
+  // visible for testing
+  static final int MAX_CACHE_SIZE = 10_000;
+
   private final Function<String, String> delegate;
   private final Map<String, String> cache = new ConcurrentHashMap<>();
 
@@ -27,6 +37,15 @@ class LabelNameSanitizer implements Function<String, String> {
 
   @Override
   public String apply(String labelName) {
-    return cache.computeIfAbsent(labelName, delegate);
+    String sanitized = cache.get(labelName);
+    if (sanitized != null) {
+      return sanitized;
+    }
+    sanitized = delegate.apply(labelName);
+    // The size check races with other threads, so the cache may slightly exceed its bound.
+    if (cache.size() < MAX_CACHE_SIZE) {
+      cache.putIfAbsent(labelName, sanitized);
+    }
+    return sanitized;
   }
 }
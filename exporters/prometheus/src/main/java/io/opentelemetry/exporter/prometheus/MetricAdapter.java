@@ -53,6 +53,8 @@ final class MetricAdapter {
   static final String LABEL_NAME_QUANTILE = "quantile";
   static final String LABEL_NAME_LE = "le";
 
+  static final Function<String, String> sanitizer = new LabelNameSanitizer();
+
   // Converts a MetricData to a Prometheus MetricFamilySamples.
   static MetricFamilySamples toMetricFamilySamples(MetricData metricData) {
     String cleanMetricName = cleanMetricName(metricData.getName());
@@ -65,8 +67,9 @@ final class MetricAdapter {
         toSamples(cleanMetricName, metricData.getType(), getPoints(metricData)));
   }
 
-  private static String cleanMetricName(String descriptorMetricName) {
-    return Collector.sanitizeMetricName(descriptorMetricName);
+  static String cleanMetricName(String descriptorMetricName) {
+    // Label keys are sanitized the same way, so they share the cache.
+    return sanitizer.apply(descriptorMetricName);
   }
 
   static Collector.Type toMetricFamilyType(MetricData metricData) {
@@ -96,8 +99,6 @@ final class MetricAdapter {
     return Collector.Type.UNKNOWN;
   }
 
-  private static final Function<String, String> sanitizer = new LabelNameSanitizer();
-
   // Converts a list of points from MetricData to a list of Prometheus Samples.
   static List<Sample> toSamples(
       String name, MetricDataType type, Collection<? extends PointData> points) {
@@ -222,7 +223,7 @@ final class MetricAdapter {
   }
 
   @Nullable
-  private static Exemplar lastExemplarOrNull(Collection<Exemplar> exemplars) {
+  static Exemplar lastExemplarOrNull(Collection<Exemplar> exemplars) {
     Exemplar result = null;
     for (Exemplar e : exemplars) {
       result = e;
@@ -231,7 +232,7 @@ final class MetricAdapter {
   }
 
   @Nullable
-  private static Exemplar filterExemplars(Collection<Exemplar> exemplars, double min, double max) {
+  static Exemplar filterExemplars(Collection<Exemplar> exemplars, double min, double max) {
     Exemplar result = null;
     for (Exemplar e : exemplars) {
       double value = e.getValueAsDouble();
@@ -250,7 +251,7 @@ final class MetricAdapter {
     return numPoints;
   }
 
-  private static Collection<? extends PointData> getPoints(MetricData metricData) {
+  static Collection<? extends PointData> getPoints(MetricData metricData) {
     switch (metricData.getType()) {
       case DOUBLE_GAUGE:
         return metricData.getDoubleGaugeData().getPoints();
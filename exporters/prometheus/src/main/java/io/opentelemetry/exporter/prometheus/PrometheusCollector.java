@@ -8,12 +8,15 @@ package io.opentelemetry.exporter.prometheus;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.export.MetricProducer;
 import io.prometheus.client.Collector;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 public final class PrometheusCollector extends Collector {
   private final MetricProducer metricProducer;
+  private final TextFormatWriter textFormatWriter = new TextFormatWriter();
 
   PrometheusCollector(MetricProducer metricProducer) {
     this.metricProducer = metricProducer;
@@ -29,6 +32,29 @@ public final class PrometheusCollector extends Collector {
     return allSamples;
   }
 
+  /**
+   * Collects all metrics and writes them to the given stream in the Prometheus text exposition
+   * format, version 0.0.4, which has the content type {@code text/plain; version=0.0.4;
+   * charset=utf-8}. The stream is not closed.
+   *
+   * <p>The output is the same as writing the result of {@link #collect()} with simpleclient's
+   * {@code TextFormat.write004}, but metrics are written directly without intermediate samples, and
+   * the rendered labels of each series are reused across calls.
+   */
+  public void writeTextFormat(OutputStream out) throws IOException {
+    textFormatWriter.write(metricProducer.collectAllMetrics(), out, /* openMetrics= */ false);
+  }
+
+  /**
+   * Collects all metrics and writes them to the given stream in the OpenMetrics text format,
+   * version 1.0.0, which has the content type {@code application/openmetrics-text; version=1.0.0;
+   * charset=utf-8}, the same way as {@link #writeTextFormat(OutputStream)}. The stream is not
+   * closed.
+   */
+  public void writeOpenMetrics(OutputStream out) throws IOException {
+    textFormatWriter.write(metricProducer.collectAllMetrics(), out, /* openMetrics= */ true);
+  }
+
   /**
    * Returns a new builder instance for this exporter.
    *
@@ -0,0 +1,260 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+/**
+ * A minimal HTTP server that serves the metrics of a {@link MetricProducer} to Prometheus scrapes
+ * on {@code /} and {@code /metrics}, in the text format or, if accepted by the scraper, in the
+ * OpenMetrics format, gzip-compressed if accepted.
+ *
+ * <p>Concurrent scrapes are coalesced into a single {@link MetricProducer#collectAllMetrics()},
+ * whose result is rendered at most once per format and served to all of them. The result of a
+ * collection can also be reused for scrapes arriving within a minimum interval, see {@link
+ * PrometheusHttpServerBuilder#setMinScrapeInterval(java.time.Duration)}.
+ */
+@ThreadSafe
+@IgnoreJRERequirement
+public final class PrometheusHttpServer implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(PrometheusHttpServer.class.getName());
+
+  private static final String HEADER_ACCEPT = "Accept";
+  private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String HEADER_CONTENT_TYPE = "Content-Type";
+  private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final MetricProducer metricProducer;
+  private final long minScrapeIntervalNanos;
+  private final TextFormatWriter textFormatWriter = new TextFormatWriter();
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  @Nullable
+  private CompletableFuture<Scrape> pendingScrape;
+
+  @GuardedBy("lock")
+  @Nullable
+  private Scrape lastScrape;
+
+  /**
+   * Returns a new builder instance for this server.
+   *
+   * @return a new builder instance for this server.
+   */
+  public static PrometheusHttpServerBuilder builder() {
+    return new PrometheusHttpServerBuilder();
+  }
+
+  PrometheusHttpServer(
+      InetSocketAddress address,
+      int threads,
+      MetricProducer metricProducer,
+      long minScrapeIntervalNanos)
+      throws IOException {
+    this.metricProducer = metricProducer;
+    this.minScrapeIntervalNanos = minScrapeIntervalNanos;
+    server = HttpServer.create(address, /* backlog= */ 0);
+    HttpHandler handler = new MetricsHandler();
+    server.createContext("/", handler);
+    server.createContext("/metrics", handler);
+    executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new DaemonThreadFactory(PrometheusHttpServer.class.getSimpleName() + "_WorkerThread"));
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** Returns the address this server is bound to. */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /** Stops this server, closing any open connections. */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  // Returns the result of a collection that is either in progress, recent enough to be reused, or
+  // started by this call.
+  Scrape scrape() {
+    CompletableFuture<Scrape> future;
+    boolean collect = false;
+    synchronized (lock) {
+      Scrape last = lastScrape;
+      if (last != null && System.nanoTime() - last.collectedNanos < minScrapeIntervalNanos) {
+        return last;
+      }
+      if (pendingScrape == null) {
+        pendingScrape = new CompletableFuture<>();
+        collect = true;
+      }
+      future = pendingScrape;
+    }
+    if (!collect) {
+      return future.join();
+    }
+
+    Scrape scrape;
+    try {
+      scrape = new Scrape(metricProducer.collectAllMetrics(), System.nanoTime());
+    } catch (Throwable t) {
+      // Whatever the failure, scrapes waiting for this collection must not block forever and later
+      // ones must collect again.
+      synchronized (lock) {
+        pendingScrape = null;
+      }
+      future.completeExceptionally(t);
+      throw t;
+    }
+    synchronized (lock) {
+      pendingScrape = null;
+      lastScrape = scrape;
+    }
+    future.complete(scrape);
+    return scrape;
+  }
+
+  /** The result of a single collection, rendered on demand. */
+  final class Scrape {
+    private final Collection<MetricData> metrics;
+    private final long collectedNanos;
+    // Indexed by 2 * openMetrics + gzip.
+    @GuardedBy("this")
+    private final byte[][] rendered = new byte[4][];
+
+    private Scrape(Collection<MetricData> metrics, long collectedNanos) {
+      this.metrics = metrics;
+      this.collectedNanos = collectedNanos;
+    }
+
+    synchronized byte[] render(boolean openMetrics, boolean gzip) throws IOException {
+      int index = (openMetrics ? 2 : 0) + (gzip ? 1 : 0);
+      byte[] result = rendered[index];
+      if (result == null) {
+        if (gzip) {
+          byte[] uncompressed = render(openMetrics, /* gzip= */ false);
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream(uncompressed.length / 4);
+          try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(uncompressed);
+          }
+          result = bytes.toByteArray();
+        } else {
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+          textFormatWriter.write(metrics, bytes, openMetrics);
+          result = bytes.toByteArray();
+        }
+        rendered[index] = result;
+      }
+      return result;
+    }
+  }
+
+  @IgnoreJRERequirement
+  private final class MetricsHandler implements HttpHandler {
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      try {
+        String method = exchange.getRequestMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+          exchange.sendResponseHeaders(405, -1);
+          return;
+        }
+        boolean openMetrics = acceptsOpenMetrics(exchange.getRequestHeaders().get(HEADER_ACCEPT));
+        boolean gzip = acceptsGzip(exchange.getRequestHeaders().get(HEADER_ACCEPT_ENCODING));
+
+        byte[] body;
+        try {
+          body = scrape().render(openMetrics, gzip);
+        } catch (RuntimeException e) {
+          logger.log(Level.WARNING, "Failed to collect metrics for Prometheus scrape.", e);
+          exchange.sendResponseHeaders(500, -1);
+          return;
+        }
+
+        exchange
+            .getResponseHeaders()
+            .set(
+                HEADER_CONTENT_TYPE,
+                openMetrics
+                    ? TextFormatWriter.CONTENT_TYPE_OPENMETRICS_100
+                    : TextFormatWriter.CONTENT_TYPE_004);
+        if (gzip) {
+          exchange.getResponseHeaders().set(HEADER_CONTENT_ENCODING, "gzip");
+        }
+        if (method.equals("HEAD")) {
+          exchange.sendResponseHeaders(200, -1);
+          return;
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      } finally {
+        exchange.close();
+      }
+    }
+  }
+
+  // Same as simpleclient's TextFormat.chooseContentType.
+  private static boolean acceptsOpenMetrics(@Nullable List<String> acceptHeaders) {
+    if (acceptHeaders == null) {
+      return false;
+    }
+    for (String header : acceptHeaders) {
+      for (String accepted : header.split(",")) {
+        if (accepted.trim().startsWith("application/openmetrics-text")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean acceptsGzip(@Nullable List<String> acceptEncodingHeaders) {
+    if (acceptEncodingHeaders == null) {
+      return false;
+    }
+    for (String header : acceptEncodingHeaders) {
+      for (String encoding : header.split(",")) {
+        if (encoding.trim().toLowerCase(Locale.ROOT).startsWith("gzip")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
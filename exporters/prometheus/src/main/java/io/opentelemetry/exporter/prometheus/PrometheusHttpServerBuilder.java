@@ -0,0 +1,106 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/** Builder for {@link PrometheusHttpServer}. */
+public final class PrometheusHttpServerBuilder {
+
+  private static final String DEFAULT_HOST = "0.0.0.0";
+  private static final int DEFAULT_PORT = 9464;
+  private static final int DEFAULT_THREADS = 5;
+
+  private String host = DEFAULT_HOST;
+  private int port = DEFAULT_PORT;
+  private int threads = DEFAULT_THREADS;
+  private long minScrapeIntervalNanos;
+  @Nullable private MetricProducer metricProducer;
+
+  PrometheusHttpServerBuilder() {}
+
+  /**
+   * Sets the metric producer whose metrics are served. Required.
+   *
+   * @param metricProducer the {@link MetricProducer} to use.
+   * @return this builder's instance.
+   */
+  public PrometheusHttpServerBuilder setMetricProducer(MetricProducer metricProducer) {
+    requireNonNull(metricProducer, "metricProducer");
+    this.metricProducer = metricProducer;
+    return this;
+  }
+
+  /** Sets the host to bind to. If unset, defaults to {@value DEFAULT_HOST}. */
+  public PrometheusHttpServerBuilder setHost(String host) {
+    requireNonNull(host, "host");
+    checkArgument(!host.isEmpty(), "host must not be empty");
+    this.host = host;
+    return this;
+  }
+
+  /** Sets the port to bind to. If unset, defaults to {@value DEFAULT_PORT}. */
+  public PrometheusHttpServerBuilder setPort(int port) {
+    checkArgument(port >= 0, "port must be non-negative");
+    this.port = port;
+    return this;
+  }
+
+  /** Sets the number of threads serving scrapes. If unset, defaults to {@value DEFAULT_THREADS}. */
+  public PrometheusHttpServerBuilder setThreads(int threads) {
+    checkArgument(threads > 0, "threads must be positive");
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Sets the minimum interval between two collections of metrics. Scrapes arriving within this
+   * interval of the last collection are served its result instead of collecting again, which also
+   * keeps frequent scrapes from resetting delta aggregations. If unset, defaults to 0, and only
+   * concurrent scrapes share a collection.
+   */
+  public PrometheusHttpServerBuilder setMinScrapeInterval(long interval, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(interval >= 0, "interval must be non-negative");
+    minScrapeIntervalNanos = unit.toNanos(interval);
+    return this;
+  }
+
+  /**
+   * Sets the minimum interval between two collections of metrics. Scrapes arriving within this
+   * interval of the last collection are served its result instead of collecting again, which also
+   * keeps frequent scrapes from resetting delta aggregations. If unset, defaults to 0, and only
+   * concurrent scrapes share a collection.
+   */
+  public PrometheusHttpServerBuilder setMinScrapeInterval(Duration interval) {
+    requireNonNull(interval, "interval");
+    return setMinScrapeInterval(interval.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Constructs and starts a new {@link PrometheusHttpServer} based on the builder's values.
+   *
+   * @return a new, started {@code PrometheusHttpServer}.
+   * @throws IllegalStateException if the server could not be bound to the configured address.
+   */
+  public PrometheusHttpServer build() {
+    MetricProducer metricProducer = requireNonNull(this.metricProducer, "metricProducer");
+    try {
+      return new PrometheusHttpServer(
+          new InetSocketAddress(host, port), threads, metricProducer, minScrapeIntervalNanos);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not start Prometheus HTTP server on port " + port, e);
+    }
+  }
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.exporter.prometheus.MetricAdapter.LABEL_NAME_LE;
+import static io.opentelemetry.exporter.prometheus.MetricAdapter.LABEL_NAME_QUANTILE;
+import static io.opentelemetry.exporter.prometheus.MetricAdapter.SAMPLE_SUFFIX_BUCKET;
+import static io.opentelemetry.exporter.prometheus.MetricAdapter.SAMPLE_SUFFIX_COUNT;
+import static io.opentelemetry.exporter.prometheus.MetricAdapter.SAMPLE_SUFFIX_SUM;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.DoubleSummaryPointData;
+import io.opentelemetry.sdk.metrics.data.Exemplar;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.data.ValueAtPercentile;
+import io.prometheus.client.Collector;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Writes {@link MetricData} in the Prometheus text exposition formats directly to an {@link
+ * OutputStream}, without converting it to {@link Collector.MetricFamilySamples} first. The output
+ * is the same as writing the result of {@link MetricAdapter#toMetricFamilySamples(MetricData)} with
+ * simpleclient's {@code TextFormat}.
+ *
+ * <p>The sanitized and escaped labels of each distinct set of point {@link Attributes} are rendered
+ * once and cached between writes, so scraping a series again only renders its values. Labels that
+ * were not used by the latest write are evicted at its end.
+ */
+@ThreadSafe
+final class TextFormatWriter {
+
+  static final String CONTENT_TYPE_004 = "text/plain; version=0.0.4; charset=utf-8";
+  static final String CONTENT_TYPE_OPENMETRICS_100 =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private static final String SAMPLE_SUFFIX_TOTAL = "_total";
+  private static final byte[] NO_LABELS = new byte[0];
+  private static final int BUFFER_SIZE = 8192;
+
+  @GuardedBy("this")
+  private final Map<Attributes, CachedLabels> labelCache = new HashMap<>();
+
+  @GuardedBy("this")
+  private long generation;
+
+  /** Writes the given metrics, in the OpenMetrics format if {@code openMetrics} is set. */
+  synchronized void write(Collection<MetricData> metrics, OutputStream out, boolean openMetrics)
+      throws IOException {
+    generation++;
+    try {
+      Output output = new Output(out);
+      for (MetricData metric : metrics) {
+        writeMetric(output, metric, openMetrics);
+      }
+      if (openMetrics) {
+        output.writeAscii("# EOF\n");
+      }
+      output.flush();
+    } finally {
+      long current = generation;
+      labelCache.values().removeIf(labels -> labels.generation != current);
+    }
+  }
+
+  // visible for testing
+  synchronized int labelCacheSize() {
+    return labelCache.size();
+  }
+
+  @GuardedBy("this")
+  private void writeMetric(Output output, MetricData metric, boolean openMetrics)
+      throws IOException {
+    String name = MetricAdapter.cleanMetricName(metric.getName());
+    Collector.Type type = MetricAdapter.toMetricFamilyType(metric);
+    String sampleName = name;
+    if (type == Collector.Type.COUNTER) {
+      // Same as MetricFamilySamples, which names counter families without the _total suffix and
+      // their samples with it.
+      if (name.endsWith(SAMPLE_SUFFIX_TOTAL)) {
+        name = name.substring(0, name.length() - SAMPLE_SUFFIX_TOTAL.length());
+      }
+      sampleName = name + SAMPLE_SUFFIX_TOTAL;
+    }
+    writeHeader(output, name, type, metric.getDescription(), openMetrics);
+
+    Collection<? extends PointData> points = MetricAdapter.getPoints(metric);
+    switch (metric.getType()) {
+      case DOUBLE_SUM:
+      case DOUBLE_GAUGE:
+        for (PointData point : points) {
+          DoublePointData doublePoint = (DoublePointData) point;
+          writeSample(
+              output,
+              sampleName,
+              labels(doublePoint.getAttributes()),
+              /* extraLabelName= */ null,
+              0,
+              doublePoint.getValue(),
+              MetricAdapter.lastExemplarOrNull(doublePoint.getExemplars()),
+              openMetrics);
+        }
+        return;
+      case LONG_SUM:
+      case LONG_GAUGE:
+        for (PointData point : points) {
+          LongPointData longPoint = (LongPointData) point;
+          writeSample(
+              output,
+              sampleName,
+              labels(longPoint.getAttributes()),
+              /* extraLabelName= */ null,
+              0,
+              longPoint.getValue(),
+              MetricAdapter.lastExemplarOrNull(longPoint.getExemplars()),
+              openMetrics);
+        }
+        return;
+      case SUMMARY:
+        writeSummary(output, name, points, openMetrics);
+        return;
+      case HISTOGRAM:
+        writeHistogram(output, name, points, openMetrics);
+        return;
+    }
+  }
+
+  @GuardedBy("this")
+  private void writeSummary(
+      Output output, String name, Collection<? extends PointData> points, boolean openMetrics)
+      throws IOException {
+    String countName = name + SAMPLE_SUFFIX_COUNT;
+    String sumName = name + SAMPLE_SUFFIX_SUM;
+    for (PointData point : points) {
+      DoubleSummaryPointData summaryPoint = (DoubleSummaryPointData) point;
+      byte[] labels = labels(summaryPoint.getAttributes());
+      writeSample(output, countName, labels, null, 0, summaryPoint.getCount(), null, openMetrics);
+      writeSample(output, sumName, labels, null, 0, summaryPoint.getSum(), null, openMetrics);
+      for (ValueAtPercentile valueAtPercentile : summaryPoint.getPercentileValues()) {
+        writeSample(
+            output,
+            name,
+            labels,
+            LABEL_NAME_QUANTILE,
+            valueAtPercentile.getPercentile(),
+            valueAtPercentile.getValue(),
+            null,
+            openMetrics);
+      }
+    }
+  }
+
+  @GuardedBy("this")
+  private void writeHistogram(
+      Output output, String name, Collection<? extends PointData> points, boolean openMetrics)
+      throws IOException {
+    String countName = name + SAMPLE_SUFFIX_COUNT;
+    String sumName = name + SAMPLE_SUFFIX_SUM;
+    String bucketName = name + SAMPLE_SUFFIX_BUCKET;
+    for (PointData point : points) {
+      DoubleHistogramPointData histogramPoint = (DoubleHistogramPointData) point;
+      byte[] labels = labels(histogramPoint.getAttributes());
+      writeSample(output, countName, labels, null, 0, histogramPoint.getCount(), null, openMetrics);
+      writeSample(output, sumName, labels, null, 0, histogramPoint.getSum(), null, openMetrics);
+
+      long cumulativeCount = 0;
+      List<Long> counts = histogramPoint.getCounts();
+      for (int i = 0; i < counts.size(); i++) {
+        double boundary = histogramPoint.getBucketUpperBound(i);
+        cumulativeCount += counts.get(i);
+        writeSample(
+            output,
+            bucketName,
+            labels,
+            LABEL_NAME_LE,
+            boundary,
+            cumulativeCount,
+            MetricAdapter.filterExemplars(
+                histogramPoint.getExemplars(), histogramPoint.getBucketLowerBound(i), boundary),
+            openMetrics);
+      }
+    }
+  }
+
+  private static void writeHeader(
+      Output output, String name, Collector.Type type, String help, boolean openMetrics)
+      throws IOException {
+    if (openMetrics) {
+      output.writeAscii("# TYPE ");
+      output.writeAscii(name);
+      output.writeByte(' ');
+      output.writeAscii(openMetricsType(type));
+      output.writeAscii("\n# HELP ");
+      output.writeAscii(name);
+      output.writeByte(' ');
+      output.writeEscaped(help, /* escapeQuote= */ true);
+      output.writeByte('\n');
+      return;
+    }
+    String suffix = type == Collector.Type.COUNTER ? SAMPLE_SUFFIX_TOTAL : "";
+    output.writeAscii("# HELP ");
+    output.writeAscii(name);
+    output.writeAscii(suffix);
+    output.writeByte(' ');
+    output.writeEscaped(help, /* escapeQuote= */ false);
+    output.writeAscii("\n# TYPE ");
+    output.writeAscii(name);
+    output.writeAscii(suffix);
+    output.writeByte(' ');
+    output.writeAscii(textFormatType(type));
+    output.writeByte('\n');
+  }
+
+  // Writes a sample with the given rendered labels, followed by the extra label with the given
+  // double value if extraLabelName is not null.
+  private static void writeSample(
+      Output output,
+      String name,
+      byte[] labels,
+      @Nullable String extraLabelName,
+      double extraLabelValue,
+      double value,
+      @Nullable Exemplar exemplar,
+      boolean openMetrics)
+      throws IOException {
+    output.writeAscii(name);
+    if (labels.length > 0 || extraLabelName != null) {
+      output.writeByte('{');
+      output.writeBytes(labels);
+      if (extraLabelName != null) {
+        if (labels.length > 0) {
+          output.writeByte(',');
+        }
+        output.writeAscii(extraLabelName);
+        output.writeAscii("=\"");
+        output.writeDouble(extraLabelValue);
+        output.writeByte('"');
+      }
+      if (!openMetrics) {
+        output.writeByte(',');
+      }
+      output.writeByte('}');
+    }
+    output.writeByte(' ');
+    output.writeDouble(value);
+    if (openMetrics && exemplar != null) {
+      writeExemplar(output, exemplar);
+    }
+    output.writeByte('\n');
+  }
+
+  // Same as MetricAdapter.toPrometheusExemplar followed by TextFormat.writeOpenMetrics100.
+  private static void writeExemplar(Output output, Exemplar exemplar) throws IOException {
+    String traceId = exemplar.getTraceId();
+    String spanId = exemplar.getSpanId();
+    output.writeAscii(" # {");
+    if (traceId != null && spanId != null) {
+      // Exemplar labels are sorted by name, as the simpleclient writes them.
+      output.writeAscii("span_id=\"");
+      output.writeEscaped(spanId, /* escapeQuote= */ true);
+      output.writeAscii("\",trace_id=\"");
+      output.writeEscaped(traceId, /* escapeQuote= */ true);
+      output.writeAscii("\"} ");
+      output.writeDouble(exemplar.getValueAsDouble());
+      long timestampMillis = TimeUnit.NANOSECONDS.toMillis(exemplar.getEpochNanos());
+      output.writeByte(' ');
+      output.writeLong(timestampMillis / 1000);
+      output.writeByte('.');
+      long millis = timestampMillis % 1000;
+      if (millis < 100) {
+        output.writeByte('0');
+      }
+      if (millis < 10) {
+        output.writeByte('0');
+      }
+      output.writeLong(millis);
+    } else {
+      output.writeAscii("} ");
+      output.writeDouble(exemplar.getValueAsDouble());
+    }
+  }
+
+  @GuardedBy("this")
+  private byte[] labels(Attributes attributes) {
+    if (attributes.isEmpty()) {
+      return NO_LABELS;
+    }
+    CachedLabels cached = labelCache.get(attributes);
+    if (cached == null) {
+      cached = new CachedLabels(renderLabels(attributes));
+      labelCache.put(attributes, cached);
+    }
+    cached.generation = generation;
+    return cached.labels;
+  }
+
+  // Renders the attributes as comma separated name="value" pairs, the same way as
+  // MetricAdapter.toSamples and TextFormat.
+  private static byte[] renderLabels(Attributes attributes) {
+    StringBuilder sb = new StringBuilder();
+    attributes.forEach(
+        (key, value) -> {
+          if (sb.length() > 0) {
+            sb.append(',');
+          }
+          sb.append(MetricAdapter.sanitizer.apply(key.getKey())).append("=\"");
+          String labelValue = value == null ? "" : value.toString();
+          for (int i = 0; i < labelValue.length(); i++) {
+            char c = labelValue.charAt(i);
+            switch (c) {
+              case '\\':
+                sb.append("\\\\");
+                break;
+              case '"':
+                sb.append("\\\"");
+                break;
+              case '\n':
+                sb.append("\\n");
+                break;
+              default:
+                sb.append(c);
+            }
+          }
+          sb.append('"');
+        });
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String textFormatType(Collector.Type type) {
+    switch (type) {
+      case GAUGE:
+        return "gauge";
+      case COUNTER:
+        return "counter";
+      case SUMMARY:
+        return "summary";
+      case HISTOGRAM:
+        return "histogram";
+      default:
+        return "untyped";
+    }
+  }
+
+  private static String openMetricsType(Collector.Type type) {
+    switch (type) {
+      case GAUGE:
+        return "gauge";
+      case COUNTER:
+        return "counter";
+      case SUMMARY:
+        return "summary";
+      case HISTOGRAM:
+        return "histogram";
+      default:
+        return "unknown";
+    }
+  }
+
+  private static final class CachedLabels {
+    private final byte[] labels;
+    private long generation;
+
+    private CachedLabels(byte[] labels) {
+      this.labels = labels;
+    }
+  }
+
+  /** A buffer over the output stream of a single write. */
+  private static final class Output {
+
+    // Doubles of integral values in this range are formatted as the value followed by ".0".
+    private static final double MAX_PLAIN_INTEGRAL = 1e7;
+    private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0.0);
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+
+    private Output(OutputStream out) {
+      this.out = out;
+    }
+
+    void writeByte(int b) throws IOException {
+      if (pos == buf.length) {
+        flush();
+      }
+      buf[pos++] = (byte) b;
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+      if (bytes.length > buf.length - pos) {
+        flush();
+        if (bytes.length > buf.length) {
+          out.write(bytes);
+          return;
+        }
+      }
+      System.arraycopy(bytes, 0, buf, pos, bytes.length);
+      pos += bytes.length;
+    }
+
+    /** Writes a string known to only contain ASCII characters. */
+    void writeAscii(String ascii) throws IOException {
+      for (int i = 0; i < ascii.length(); i++) {
+        writeByte(ascii.charAt(i));
+      }
+    }
+
+    /**
+     * Writes the string as UTF-8, escaping backslashes and newlines, and double quotes if {@code
+     * escapeQuote} is set.
+     */
+    void writeEscaped(String value, boolean escapeQuote) throws IOException {
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '\\') {
+          writeAscii("\\\\");
+        } else if (c == '\n') {
+          writeAscii("\\n");
+        } else if (c == '"' && escapeQuote) {
+          writeAscii("\\\"");
+        } else if (c < 0x80) {
+          writeByte(c);
+        } else if (c < 0x800) {
+          writeByte(0xc0 | (c >> 6));
+          writeByte(0x80 | (c & 0x3f));
+        } else if (!Character.isSurrogate(c)) {
+          writeByte(0xe0 | (c >> 12));
+          writeByte(0x80 | ((c >> 6) & 0x3f));
+          writeByte(0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)
+            && i + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          writeByte(0xf0 | (codePoint >> 18));
+          writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+          writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+          writeByte(0x80 | (codePoint & 0x3f));
+        } else {
+          writeByte('?');
+        }
+      }
+    }
+
+    void writeLong(long value) throws IOException {
+      if (value == Long.MIN_VALUE) {
+        writeAscii(Long.toString(value));
+        return;
+      }
+      if (value < 0) {
+        writeByte('-');
+        value = -value;
+      }
+      long divisor = 1;
+      while (value / divisor >= 10) {
+        divisor *= 10;
+      }
+      for (; divisor > 0; divisor /= 10) {
+        writeByte((int) ('0' + (value / divisor) % 10));
+      }
+    }
+
+    /** Writes the value the same way as {@link Collector#doubleToGoString(double)}. */
+    void writeDouble(double value) throws IOException {
+      long longValue = (long) value;
+      if (longValue == value
+          && Math.abs(value) < MAX_PLAIN_INTEGRAL
+          && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO_BITS) {
+        writeLong(longValue);
+        writeAscii(".0");
+      } else {
+        writeAscii(Collector.doubleToGoString(value));
+      }
+    }
+
+    void flush() throws IOException {
+      out.write(buf, 0, pos);
+      pos = 0;
+    }
+  }
+}
@@ -27,4 +27,27 @@ class LabelNameSanitizerTest {
     assertEquals("http.name1", sanitizer.apply(labelName));
     assertEquals(1, count.get());
   }
+
+  @Test
+  void testSanitizerCacheBounded() {
+    AtomicInteger count = new AtomicInteger();
+    Function<String, String> delegate =
+        labelName -> {
+          count.incrementAndGet();
+          return labelName;
+        };
+    LabelNameSanitizer sanitizer = new LabelNameSanitizer(delegate);
+    for (int i = 0; i < LabelNameSanitizer.MAX_CACHE_SIZE; i++) {
+      sanitizer.apply("name" + i);
+    }
+    assertEquals(LabelNameSanitizer.MAX_CACHE_SIZE, count.get());
+
+    assertEquals("name0", sanitizer.apply("name0"));
+    assertEquals(LabelNameSanitizer.MAX_CACHE_SIZE, count.get());
+
+    // Not cached once full.
+    assertEquals("other", sanitizer.apply("other"));
+    assertEquals("other", sanitizer.apply("other"));
+    assertEquals(LabelNameSanitizer.MAX_CACHE_SIZE + 2, count.get());
+  }
 }
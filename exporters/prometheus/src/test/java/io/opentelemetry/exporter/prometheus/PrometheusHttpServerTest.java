@@ -0,0 +1,237 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.google.common.io.ByteStreams;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.LongSumData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import io.opentelemetry.sdk.resources.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PreferJavaTimeOverload")
+class PrometheusHttpServerTest {
+
+  private static final Collection<MetricData> METRICS =
+      Collections.singletonList(
+          MetricData.createLongSum(
+              Resource.empty(),
+              InstrumentationLibraryInfo.create("grpc", "version"),
+              "grpc.name",
+              "long_description",
+              "1",
+              LongSumData.create(
+                  /* isMonotonic= */ true,
+                  AggregationTemporality.CUMULATIVE,
+                  Collections.singletonList(
+                      LongPointData.create(123, 456, Attributes.of(stringKey("kp"), "vp"), 5)))));
+
+  private final AtomicInteger collections = new AtomicInteger();
+  private PrometheusHttpServer server;
+
+  @AfterEach
+  void tearDown() {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  void invalidConfig() {
+    assertThatThrownBy(() -> PrometheusHttpServer.builder().setPort(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("port must be non-negative");
+    assertThatThrownBy(() -> PrometheusHttpServer.builder().setThreads(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("threads must be positive");
+    assertThatThrownBy(() -> PrometheusHttpServer.builder().setMinScrapeInterval(-1, null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("unit");
+    assertThatThrownBy(
+            () -> PrometheusHttpServer.builder().setMinScrapeInterval(-1, TimeUnit.SECONDS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("interval must be non-negative");
+    assertThatThrownBy(() -> PrometheusHttpServer.builder().build())
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("metricProducer");
+  }
+
+  @Test
+  void servesTextFormat() throws IOException {
+    startServer(() -> METRICS, 0);
+
+    HttpURLConnection connection = connect("/metrics");
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(connection.getContentType()).isEqualTo(TextFormatWriter.CONTENT_TYPE_004);
+    assertThat(connection.getHeaderField("Content-Encoding")).isNull();
+    assertThat(read(connection.getInputStream()))
+        .isEqualTo(
+            "# HELP grpc_name_total long_description\n"
+                + "# TYPE grpc_name_total counter\n"
+                + "grpc_name_total{kp=\"vp\",} 5.0\n");
+  }
+
+  @Test
+  void servesOpenMetricsGzipped() throws IOException {
+    startServer(() -> METRICS, 0);
+
+    HttpURLConnection connection = connect("/");
+    connection.setRequestProperty("Accept", "text/plain;q=0.5, application/openmetrics-text");
+    connection.setRequestProperty("Accept-Encoding", "gzip");
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(connection.getContentType())
+        .isEqualTo(TextFormatWriter.CONTENT_TYPE_OPENMETRICS_100);
+    assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+    assertThat(read(new GZIPInputStream(connection.getInputStream())))
+        .isEqualTo(
+            "# TYPE grpc_name counter\n"
+                + "# HELP grpc_name long_description\n"
+                + "grpc_name_total{kp=\"vp\"} 5.0\n"
+                + "# EOF\n");
+  }
+
+  @Test
+  void collectionFailure() throws IOException {
+    startServer(
+        () -> {
+          throw new IllegalStateException("boom");
+        },
+        0);
+
+    assertThat(connect("/metrics").getResponseCode()).isEqualTo(500);
+  }
+
+  @Test
+  void coalescesConcurrentScrapes() throws Exception {
+    CountDownLatch collecting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    startServer(
+        () -> {
+          collecting.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return METRICS;
+        },
+        0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<PrometheusHttpServer.Scrape> first = executor.submit(server::scrape);
+      collecting.await();
+      // The first collection is blocked until released, so the second scrape can only wait for it.
+      // The only place it parks is while waiting, so release the collection once it has.
+      AtomicReference<Thread> secondThread = new AtomicReference<>();
+      Future<PrometheusHttpServer.Scrape> second =
+          executor.submit(
+              () -> {
+                secondThread.set(Thread.currentThread());
+                return server.scrape();
+              });
+      await()
+          .untilAsserted(
+              () -> {
+                Thread thread = secondThread.get();
+                assertThat(thread).isNotNull();
+                assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+              });
+      release.countDown();
+
+      assertThat(second.get(10, TimeUnit.SECONDS)).isSameAs(first.get(10, TimeUnit.SECONDS));
+      assertThat(collections.get()).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Sequential scrapes collect again.
+    server.scrape();
+    assertThat(collections.get()).isEqualTo(2);
+  }
+
+  @Test
+  void collectionError() {
+    AtomicBoolean fail = new AtomicBoolean(true);
+    startServer(
+        () -> {
+          if (fail.get()) {
+            throw new AssertionError("boom");
+          }
+          return METRICS;
+        },
+        0);
+
+    assertThatThrownBy(server::scrape).isInstanceOf(AssertionError.class);
+    // A later scrape collects again rather than waiting for the failed collection.
+    fail.set(false);
+    assertThat(server.scrape()).isNotNull();
+    assertThat(collections.get()).isEqualTo(2);
+  }
+
+  @Test
+  void reusesRecentScrape() throws IOException {
+    startServer(() -> METRICS, TimeUnit.HOURS.toNanos(1));
+
+    PrometheusHttpServer.Scrape scrape = server.scrape();
+    assertThat(server.scrape()).isSameAs(scrape);
+    assertThat(collections.get()).isEqualTo(1);
+    // Rendered once per format.
+    assertThat(scrape.render(/* openMetrics= */ false, /* gzip= */ true))
+        .isSameAs(scrape.render(/* openMetrics= */ false, /* gzip= */ true));
+  }
+
+  private void startServer(MetricProducer metricProducer, long minScrapeIntervalNanos) {
+    server =
+        PrometheusHttpServer.builder()
+            .setHost("localhost")
+            .setPort(0)
+            .setMinScrapeInterval(minScrapeIntervalNanos, TimeUnit.NANOSECONDS)
+            .setMetricProducer(
+                () -> {
+                  collections.incrementAndGet();
+                  return metricProducer.collectAllMetrics();
+                })
+            .build();
+  }
+
+  private HttpURLConnection connect(String path) throws IOException {
+    URL url = new URL("http://localhost:" + server.getAddress().getPort() + path);
+    return (HttpURLConnection) url.openConnection();
+  }
+
+  private static String read(InputStream in) throws IOException {
+    try (InputStream stream = in) {
+      return new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8);
+    }
+  }
+}
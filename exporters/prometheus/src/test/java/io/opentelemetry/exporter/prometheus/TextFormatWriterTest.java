@@ -0,0 +1,232 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplar;
+import io.opentelemetry.sdk.metrics.data.DoubleGaugeData;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramData;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.DoubleSumData;
+import io.opentelemetry.sdk.metrics.data.DoubleSummaryData;
+import io.opentelemetry.sdk.metrics.data.DoubleSummaryPointData;
+import io.opentelemetry.sdk.metrics.data.LongExemplar;
+import io.opentelemetry.sdk.metrics.data.LongGaugeData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.LongSumData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.ValueAtPercentile;
+import io.opentelemetry.sdk.resources.Resource;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TextFormatWriterTest {
+
+  private static final Resource RESOURCE = Resource.create(Attributes.of(stringKey("kr"), "vr"));
+  private static final InstrumentationLibraryInfo LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("full", "version");
+  private static final Attributes KP_VP_ATTR = Attributes.of(stringKey("kp"), "vp");
+  private static final Attributes ESCAPED_ATTR =
+      Attributes.builder()
+          .put(stringKey("http.method"), "GET")
+          .put(stringKey("quoted"), "a \"b\"\\c\nd ünïcödé")
+          .put(longKey("long"), 12)
+          .put(stringArrayKey("array"), ImmutableList.of("x", "y"))
+          .build();
+
+  @Test
+  void matchesSimpleclientTextFormat() throws IOException {
+    List<MetricData> metrics = generateTestData();
+    List<MetricFamilySamples> samples = new ArrayList<>();
+    for (MetricData metric : metrics) {
+      samples.add(MetricAdapter.toMetricFamilySamples(metric));
+    }
+
+    StringWriter expected004 = new StringWriter();
+    TextFormat.write004(expected004, Collections.enumeration(samples));
+    StringWriter expectedOpenMetrics = new StringWriter();
+    TextFormat.writeOpenMetrics100(expectedOpenMetrics, Collections.enumeration(samples));
+
+    TextFormatWriter writer = new TextFormatWriter();
+    // Twice, to also cover cached labels.
+    for (int i = 0; i < 2; i++) {
+      assertThat(write(writer, metrics, /* openMetrics= */ false))
+          .isEqualTo(expected004.toString());
+      assertThat(write(writer, metrics, /* openMetrics= */ true))
+          .isEqualTo(expectedOpenMetrics.toString());
+    }
+  }
+
+  @Test
+  void evictsUnusedLabels() throws IOException {
+    TextFormatWriter writer = new TextFormatWriter();
+    write(writer, generateTestData(), /* openMetrics= */ false);
+    assertThat(writer.labelCacheSize()).isEqualTo(2);
+
+    write(
+        writer,
+        Collections.singletonList(
+            MetricData.createLongGauge(
+                RESOURCE,
+                LIBRARY_INFO,
+                "gauge",
+                "description",
+                "1",
+                LongGaugeData.create(
+                    Collections.singletonList(LongPointData.create(123, 456, KP_VP_ATTR, 1))))),
+        /* openMetrics= */ false);
+    assertThat(writer.labelCacheSize()).isEqualTo(1);
+  }
+
+  private static String write(
+      TextFormatWriter writer, List<MetricData> metrics, boolean openMetrics) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.write(metrics, out, openMetrics);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static ImmutableList<MetricData> generateTestData() {
+    return ImmutableList.of(
+        MetricData.createDoubleSum(
+            RESOURCE,
+            LIBRARY_INFO,
+            "double.counter",
+            "description with \\ and \"quotes\"\n",
+            "1",
+            DoubleSumData.create(
+                /* isMonotonic= */ true,
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    DoublePointData.create(123, 456, KP_VP_ATTR, 3.5),
+                    DoublePointData.create(123, 456, Attributes.empty(), -0.0),
+                    DoublePointData.create(
+                        123,
+                        456,
+                        ESCAPED_ATTR,
+                        1e7,
+                        Collections.singletonList(
+                            DoubleExemplar.create(
+                                Attributes.empty(),
+                                TimeUnit.MILLISECONDS.toNanos(1_005L),
+                                "span_id",
+                                "trace_id",
+                                1.5)))))),
+        MetricData.createLongSum(
+            RESOURCE,
+            LIBRARY_INFO,
+            "long_counter_total",
+            "description",
+            "1",
+            LongSumData.create(
+                /* isMonotonic= */ true,
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    LongPointData.create(123, 456, KP_VP_ATTR, Long.MAX_VALUE),
+                    LongPointData.create(123, 456, ESCAPED_ATTR, -9_999_999)))),
+        MetricData.createLongSum(
+            RESOURCE,
+            LIBRARY_INFO,
+            "long.updown",
+            "description",
+            "1",
+            LongSumData.create(
+                /* isMonotonic= */ false,
+                AggregationTemporality.CUMULATIVE,
+                Collections.singletonList(LongPointData.create(123, 456, KP_VP_ATTR, 0)))),
+        MetricData.createDoubleGauge(
+            RESOURCE,
+            LIBRARY_INFO,
+            "double.gauge",
+            "",
+            "1",
+            DoubleGaugeData.create(
+                ImmutableList.of(
+                    DoublePointData.create(123, 456, KP_VP_ATTR, Double.NaN),
+                    DoublePointData.create(123, 456, ESCAPED_ATTR, 0.000123),
+                    DoublePointData.create(
+                        123,
+                        456,
+                        Attributes.empty(),
+                        Double.NEGATIVE_INFINITY,
+                        Collections.singletonList(
+                            DoubleExemplar.create(Attributes.empty(), 0, null, null, 2.0)))))),
+        MetricData.createLongGauge(
+            RESOURCE,
+            LIBRARY_INFO,
+            "long.gauge",
+            "description",
+            "1",
+            LongGaugeData.create(Collections.emptyList())),
+        MetricData.createDoubleSummary(
+            RESOURCE,
+            LIBRARY_INFO,
+            "summary",
+            "description",
+            "1",
+            DoubleSummaryData.create(
+                ImmutableList.of(
+                    DoubleSummaryPointData.create(
+                        123,
+                        456,
+                        KP_VP_ATTR,
+                        5,
+                        7,
+                        ImmutableList.of(
+                            ValueAtPercentile.create(0.0, 0.25),
+                            ValueAtPercentile.create(100.0, 123_456_789.5))),
+                    DoubleSummaryPointData.create(
+                        123, 456, Attributes.empty(), 0, 0, Collections.emptyList())))),
+        MetricData.createDoubleHistogram(
+            RESOURCE,
+            LIBRARY_INFO,
+            "histogram",
+            "description",
+            "1",
+            DoubleHistogramData.create(
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    DoubleHistogramPointData.create(
+                        123,
+                        456,
+                        ESCAPED_ATTR,
+                        12.5,
+                        ImmutableList.of(1.0, 2.5),
+                        ImmutableList.of(1L, 2L, 3L),
+                        ImmutableList.of(
+                            LongExemplar.create(
+                                Attributes.empty(),
+                                TimeUnit.MILLISECONDS.toNanos(12_345L),
+                                "span_id",
+                                "trace_id",
+                                2),
+                            LongExemplar.create(Attributes.empty(), 0, null, null, 10))),
+                    DoubleHistogramPointData.create(
+                        123,
+                        456,
+                        Attributes.empty(),
+                        0,
+                        Collections.emptyList(),
+                        Collections.singletonList(0L))))));
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.zipkin;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer with the primitives needed to write Zipkin's JSON and proto3 formats
+ * without intermediate strings. Strings are written as UTF-8 the same way as {@code
+ * zipkin2.internal.WriteBuffer}, replacing malformed surrogate pairs with {@code '?'}.
+ */
+final class EncodeBuffer {
+
+  // Longest varint encoding of an int, reserved ahead of length-delimited fields.
+  private static final int MAX_LENGTH_PREFIX = 5;
+
+  private static final String[] JSON_REPLACEMENT_CHARS = new String[128];
+
+  static {
+    for (int i = 0; i <= 0x1f; i++) {
+      JSON_REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+    }
+    JSON_REPLACEMENT_CHARS['"'] = "\\\"";
+    JSON_REPLACEMENT_CHARS['\\'] = "\\\\";
+    JSON_REPLACEMENT_CHARS['\t'] = "\\t";
+    JSON_REPLACEMENT_CHARS['\b'] = "\\b";
+    JSON_REPLACEMENT_CHARS['\n'] = "\\n";
+    JSON_REPLACEMENT_CHARS['\r'] = "\\r";
+    JSON_REPLACEMENT_CHARS['\f'] = "\\f";
+  }
+
+  private byte[] buf;
+  private int pos;
+
+  EncodeBuffer(int initialCapacity) {
+    buf = new byte[initialCapacity];
+  }
+
+  int position() {
+    return pos;
+  }
+
+  int capacity() {
+    return buf.length;
+  }
+
+  void reset() {
+    pos = 0;
+  }
+
+  /** Returns a copy of the bytes written between the given positions. */
+  byte[] copyOfRange(int from, int to) {
+    return Arrays.copyOfRange(buf, from, to);
+  }
+
+  void writeByte(int b) {
+    ensureCapacity(1);
+    buf[pos++] = (byte) b;
+  }
+
+  void writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buf, pos, bytes.length);
+    pos += bytes.length;
+  }
+
+  /** Writes a string known to only contain ASCII characters. */
+  void writeAscii(String ascii) {
+    int length = ascii.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      buf[pos++] = (byte) ascii.charAt(i);
+    }
+  }
+
+  /** Writes the ASCII characters of the given string from {@code beginIndex}. */
+  void writeAscii(String ascii, int beginIndex) {
+    int length = ascii.length();
+    ensureCapacity(length - beginIndex);
+    for (int i = beginIndex; i < length; i++) {
+      buf[pos++] = (byte) ascii.charAt(i);
+    }
+  }
+
+  /** Writes the decimal representation of the given value. */
+  void writeDecimal(long value) {
+    if (value == Long.MIN_VALUE) {
+      writeAscii(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      writeByte('-');
+      value = -value;
+    }
+    int digits = 1;
+    for (long v = value; v >= 10; v /= 10) {
+      digits++;
+    }
+    ensureCapacity(digits);
+    int end = pos + digits;
+    for (int i = end - 1; i >= pos; i--) {
+      buf[i] = (byte) ('0' + (value % 10));
+      value /= 10;
+    }
+    pos = end;
+  }
+
+  void writeUtf8(String value) {
+    int length = value.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        ensureCapacity(1);
+        buf[pos++] = (byte) c;
+      } else {
+        i = writeNonAscii(value, i, c);
+      }
+    }
+  }
+
+  /** Writes the given string as the contents of a JSON string, escaping as needed. */
+  void writeJsonEscaped(String value) {
+    int length = value.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        String replacement = JSON_REPLACEMENT_CHARS[c];
+        if (replacement != null) {
+          writeAscii(replacement);
+        } else {
+          ensureCapacity(1);
+          buf[pos++] = (byte) c;
+        }
+      } else if (c == '\u2028') {
+        writeAscii("\\u2028");
+      } else if (c == '\u2029') {
+        writeAscii("\\u2029");
+      } else {
+        i = writeNonAscii(value, i, c);
+      }
+    }
+  }
+
+  // Writes the non-ASCII character at index i, returning the index of its last char.
+  private int writeNonAscii(String value, int i, char c) {
+    if (c < 0x800) {
+      ensureCapacity(2);
+      buf[pos++] = (byte) (0xc0 | (c >> 6));
+      buf[pos++] = (byte) (0x80 | (c & 0x3f));
+      return i;
+    }
+    if (!Character.isSurrogate(c)) {
+      ensureCapacity(3);
+      buf[pos++] = (byte) (0xe0 | (c >> 12));
+      buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+      buf[pos++] = (byte) (0x80 | (c & 0x3f));
+      return i;
+    }
+    char low = i + 1 < value.length() ? value.charAt(i + 1) : 0;
+    if (!Character.isHighSurrogate(c) || !Character.isLowSurrogate(low)) {
+      writeByte('?');
+      return i;
+    }
+    int codePoint = Character.toCodePoint(c, low);
+    ensureCapacity(4);
+    buf[pos++] = (byte) (0xf0 | (codePoint >> 18));
+    buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+    buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+    buf[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+    return i + 1;
+  }
+
+  /** Writes the bytes encoded by the lowercase hex characters of the given string. */
+  void writeHexAsBytes(String hex, int beginIndex) {
+    int length = (hex.length() - beginIndex) / 2;
+    ensureCapacity(length);
+    for (int i = beginIndex; i < hex.length(); i += 2) {
+      buf[pos++] = (byte) ((hexValue(hex.charAt(i)) << 4) | hexValue(hex.charAt(i + 1)));
+    }
+  }
+
+  private static int hexValue(char c) {
+    return c <= '9' ? c - '0' : c - 'a' + 10;
+  }
+
+  void writeVarint(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7fL) != 0) {
+      buf[pos++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    buf[pos++] = (byte) value;
+  }
+
+  void writeFixed64(long value) {
+    ensureCapacity(8);
+    for (int i = 0; i < 8; i++) {
+      buf[pos++] = (byte) (value >> (8 * i));
+    }
+  }
+
+  /**
+   * Starts a length-delimited proto3 field whose tag has already been written, returning the
+   * position to pass to {@link #endLengthDelimited(int)} once the field contents are written.
+   */
+  int beginLengthDelimited() {
+    ensureCapacity(MAX_LENGTH_PREFIX);
+    pos += MAX_LENGTH_PREFIX;
+    return pos;
+  }
+
+  /** Writes the length prefix of a field started with {@link #beginLengthDelimited()}. */
+  void endLengthDelimited(int contentStart) {
+    int length = pos - contentStart;
+    int prefixStart = contentStart - MAX_LENGTH_PREFIX;
+    pos = prefixStart;
+    writeVarint(length);
+    if (pos != contentStart) {
+      System.arraycopy(buf, contentStart, buf, pos, length);
+    }
+    pos += length;
+  }
+
+  private void ensureCapacity(int length) {
+    if (pos + length > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + length));
+    }
+  }
+}
@@ -0,0 +1,703 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.zipkin;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+import zipkin2.Endpoint;
+import zipkin2.Span;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.codec.SpanBytesEncoder;
+
+/**
+ * Writes {@link SpanData} directly in a Zipkin encoding, producing the same bytes as encoding the
+ * result of {@link ZipkinSpanExporter#generateSpan(SpanData)} with the corresponding {@link
+ * SpanBytesEncoder}, without creating a {@link Span} or converting attribute values to strings. A
+ * whole batch is written into one reused buffer, which is then split into the per-span messages
+ * expected by {@link zipkin2.reporter.Sender#sendSpans(List)}.
+ */
+abstract class SpanWriter {
+
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  // Buffers grown larger than this by a big batch are not kept for the next one.
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final String INVALID_PARENT_ID = "0000000000000000";
+
+  private static final byte[] EMPTY_ENDPOINT = new byte[0];
+
+  // Like SpanAdapter in the OTLP exporter, reuse buffers across batches of the exporting thread.
+  private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<>();
+
+  /**
+   * Returns a {@link SpanWriter} producing the same output as the given encoder, or {@code null} if
+   * the encoding is not supported.
+   */
+  @Nullable
+  static SpanWriter forEncoder(BytesEncoder<Span> encoder, @Nullable InetAddress localAddress) {
+    if (encoder == SpanBytesEncoder.JSON_V2) {
+      return new JsonV2(localAddress);
+    }
+    if (encoder == SpanBytesEncoder.PROTO3) {
+      return new Proto3(localAddress);
+    }
+    return null;
+  }
+
+  @Nullable private final InetAddress localAddress;
+  // The encoded local endpoint of each resource, which spans of a provider share.
+  private final WeakConcurrentMap<Resource, byte[]> localEndpoints =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
+
+  SpanWriter(@Nullable InetAddress localAddress) {
+    this.localAddress = localAddress;
+  }
+
+  /** Returns the encoded spans, one message per span. */
+  final List<byte[]> encode(Collection<SpanData> spans) {
+    Scratch scratch = SCRATCH.get();
+    if (scratch == null) {
+      scratch = new Scratch();
+      SCRATCH.set(scratch);
+    }
+    EncodeBuffer buffer = scratch.buffer;
+    buffer.reset();
+    int[] ends = new int[spans.size()];
+    int i = 0;
+    for (SpanData span : spans) {
+      writeSpan(span, buffer, scratch.tags);
+      ends[i++] = buffer.position();
+    }
+
+    List<byte[]> encoded = new ArrayList<>(ends.length);
+    int start = 0;
+    for (int end : ends) {
+      encoded.add(buffer.copyOfRange(start, end));
+      start = end;
+    }
+    if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+      SCRATCH.remove();
+    }
+    return encoded;
+  }
+
+  abstract void writeSpan(SpanData span, EncodeBuffer buffer, Tags tags);
+
+  /** Writes the given local endpoint, as a standalone value of this encoding. */
+  abstract void writeEndpoint(Endpoint endpoint, EncodeBuffer buffer);
+
+  /** Writes a tag value in the same format as {@code ZipkinSpanExporter#valueToString}. */
+  abstract void writeTagValue(AttributeType type, Object value, EncodeBuffer buffer);
+
+  /** Returns the encoded local endpoint of the span, or an empty array if it has no fields. */
+  final byte[] localEndpoint(SpanData span) {
+    Resource resource = span.getResource();
+    byte[] endpoint = localEndpoints.get(resource);
+    if (endpoint == null) {
+      // Since WeakConcurrentMap doesn't support computeIfAbsent, we may end up doing the conversion
+      // a few times until the cache gets filled which is fine.
+      Endpoint localEndpoint = ZipkinSpanExporter.localEndpoint(resource, localAddress);
+      if (localEndpoint.serviceName() == null
+          && localEndpoint.ipv4() == null
+          && localEndpoint.ipv6() == null
+          && localEndpoint.portAsInt() == 0) {
+        // Zipkin omits empty endpoints.
+        endpoint = EMPTY_ENDPOINT;
+      } else {
+        EncodeBuffer buffer = new EncodeBuffer(64);
+        writeEndpoint(localEndpoint, buffer);
+        endpoint = buffer.copyOfRange(0, buffer.position());
+      }
+      localEndpoints.put(resource, endpoint);
+    }
+    return endpoint;
+  }
+
+  /** Returns the index the trace ID starts at once normalized like {@link Span#traceId()}. */
+  static int traceIdStart(String traceId) {
+    for (int i = 0; i < 16; i++) {
+      if (traceId.charAt(i) != '0') {
+        return 0;
+      }
+    }
+    return 16;
+  }
+
+  @Nullable
+  static String parentId(SpanData span) {
+    if (!span.getParentSpanContext().isValid()) {
+      return null;
+    }
+    String parentId = span.getParentSpanId();
+    // Zipkin drops parent IDs that are invalid or equal to the span's own ID.
+    if (parentId.equals(INVALID_PARENT_ID) || parentId.equals(span.getSpanId())) {
+      return null;
+    }
+    return parentId;
+  }
+
+  @Nullable
+  static String kind(SpanData span) {
+    switch (span.getKind()) {
+      case SERVER:
+        return "SERVER";
+      case CLIENT:
+        return "CLIENT";
+      case PRODUCER:
+        return "PRODUCER";
+      case CONSUMER:
+        return "CONSUMER";
+      case INTERNAL:
+        return null;
+    }
+    return null;
+  }
+
+  static int kindNumber(SpanData span) {
+    switch (span.getKind()) {
+      case CLIENT:
+        return 1;
+      case SERVER:
+        return 2;
+      case PRODUCER:
+        return 3;
+      case CONSUMER:
+        return 4;
+      case INTERNAL:
+        return 0;
+    }
+    return 0;
+  }
+
+  /** Returns the span name as normalized by {@link Span.Builder#name(String)}. */
+  @Nullable
+  static String name(SpanData span) {
+    String name = span.getName();
+    return name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+  }
+
+  static long toEpochMicros(long epochNanos) {
+    return NANOSECONDS.toMicros(epochNanos);
+  }
+
+  /**
+   * Collects the tags of the span in the order {@link Span} keeps them: sorted by key, with a later
+   * tag replacing an earlier one with the same key.
+   */
+  static void collectTags(SpanData span, Tags tags) {
+    tags.clear();
+    Attributes spanAttributes = span.getAttributes();
+    spanAttributes.forEach(tags::add);
+    int droppedAttributes = span.getTotalAttributeCount() - spanAttributes.size();
+    if (droppedAttributes > 0) {
+      tags.add(ZipkinSpanExporter.OTEL_DROPPED_ATTRIBUTES_COUNT, String.valueOf(droppedAttributes));
+    }
+
+    StatusData status = span.getStatus();
+    // include status code & error.
+    if (status.getStatusCode() != StatusCode.UNSET) {
+      tags.add(ZipkinSpanExporter.OTEL_STATUS_CODE, status.getStatusCode().toString());
+
+      // add the error tag, if it isn't already in the source span.
+      if (status.getStatusCode() == StatusCode.ERROR
+          && spanAttributes.get(ZipkinSpanExporter.STATUS_ERROR) == null) {
+        String description = status.getDescription();
+        tags.add(ZipkinSpanExporter.STATUS_ERROR.getKey(), description != null ? description : "");
+      }
+    }
+
+    InstrumentationLibraryInfo instrumentationLibraryInfo = span.getInstrumentationLibraryInfo();
+    if (!instrumentationLibraryInfo.getName().isEmpty()) {
+      tags.add(
+          ZipkinSpanExporter.KEY_INSTRUMENTATION_LIBRARY_NAME,
+          instrumentationLibraryInfo.getName());
+    }
+    String version = instrumentationLibraryInfo.getVersion();
+    if (version != null) {
+      tags.add(ZipkinSpanExporter.KEY_INSTRUMENTATION_LIBRARY_VERSION, version);
+    }
+
+    int droppedEvents = span.getTotalRecordedEvents() - span.getEvents().size();
+    if (droppedEvents > 0) {
+      tags.add(ZipkinSpanExporter.OTEL_DROPPED_EVENTS_COUNT, String.valueOf(droppedEvents));
+    }
+    tags.sortAndDedupe();
+  }
+
+  /**
+   * Returns the events of the span in the order {@link Span} keeps its annotations: sorted by
+   * timestamp then value, without duplicates.
+   */
+  static List<EventData> sortedEvents(SpanData span) {
+    List<EventData> events = span.getEvents();
+    if (events.size() <= 1 || isSortedWithoutDuplicates(events)) {
+      return events;
+    }
+    List<EventData> sorted = new ArrayList<>(events);
+    sorted.sort(SpanWriter::compareEvents);
+    List<EventData> deduped = new ArrayList<>(sorted.size());
+    for (EventData event : sorted) {
+      if (deduped.isEmpty() || compareEvents(deduped.get(deduped.size() - 1), event) != 0) {
+        deduped.add(event);
+      }
+    }
+    return deduped;
+  }
+
+  private static boolean isSortedWithoutDuplicates(List<EventData> events) {
+    for (int i = 1; i < events.size(); i++) {
+      if (compareEvents(events.get(i - 1), events.get(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int compareEvents(EventData a, EventData b) {
+    int byTimestamp =
+        Long.compare(toEpochMicros(a.getEpochNanos()), toEpochMicros(b.getEpochNanos()));
+    return byTimestamp != 0 ? byTimestamp : a.getName().compareTo(b.getName());
+  }
+
+  /** Writes the elements of an array value separated by commas, as a string. */
+  static void writeArrayTagValue(
+      AttributeType type, List<?> values, EncodeBuffer buffer, boolean jsonEscape) {
+    int start = buffer.position();
+    for (Object value : values) {
+      // Like ZipkinSpanExporter#commaSeparated, only separate from non-empty preceding output.
+      if (buffer.position() != start) {
+        buffer.writeByte(',');
+      }
+      writeScalarTagValue(arrayElementType(type), value, buffer, jsonEscape);
+    }
+  }
+
+  static void writeScalarTagValue(
+      AttributeType type, @Nullable Object value, EncodeBuffer buffer, boolean jsonEscape) {
+    if (value == null) {
+      buffer.writeAscii("null");
+      return;
+    }
+    switch (type) {
+      case STRING:
+        if (jsonEscape) {
+          buffer.writeJsonEscaped((String) value);
+        } else {
+          buffer.writeUtf8((String) value);
+        }
+        return;
+      case LONG:
+        buffer.writeDecimal((Long) value);
+        return;
+      default:
+        buffer.writeAscii(String.valueOf(value));
+    }
+  }
+
+  static boolean isArray(AttributeType type) {
+    switch (type) {
+      case STRING_ARRAY:
+      case BOOLEAN_ARRAY:
+      case LONG_ARRAY:
+      case DOUBLE_ARRAY:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static AttributeType arrayElementType(AttributeType type) {
+    switch (type) {
+      case BOOLEAN_ARRAY:
+        return AttributeType.BOOLEAN;
+      case LONG_ARRAY:
+        return AttributeType.LONG;
+      case DOUBLE_ARRAY:
+        return AttributeType.DOUBLE;
+      default:
+        return AttributeType.STRING;
+    }
+  }
+
+  /** Writes Zipkin's JSON v2 format, as {@link SpanBytesEncoder#JSON_V2}. */
+  static final class JsonV2 extends SpanWriter {
+
+    JsonV2(@Nullable InetAddress localAddress) {
+      super(localAddress);
+    }
+
+    @Override
+    void writeSpan(SpanData span, EncodeBuffer buffer, Tags tags) {
+      String traceId = span.getTraceId();
+      buffer.writeAscii("{\"traceId\":\"");
+      buffer.writeAscii(traceId, traceIdStart(traceId));
+      buffer.writeByte('"');
+      String parentId = parentId(span);
+      if (parentId != null) {
+        buffer.writeAscii(",\"parentId\":\"");
+        buffer.writeAscii(parentId);
+        buffer.writeByte('"');
+      }
+      buffer.writeAscii(",\"id\":\"");
+      buffer.writeAscii(span.getSpanId());
+      buffer.writeByte('"');
+      String kind = kind(span);
+      if (kind != null) {
+        buffer.writeAscii(",\"kind\":\"");
+        buffer.writeAscii(kind);
+        buffer.writeByte('"');
+      }
+      String name = name(span);
+      if (name != null) {
+        buffer.writeAscii(",\"name\":\"");
+        buffer.writeJsonEscaped(name);
+        buffer.writeByte('"');
+      }
+      long timestamp = toEpochMicros(span.getStartEpochNanos());
+      if (timestamp != 0) {
+        buffer.writeAscii(",\"timestamp\":");
+        buffer.writeDecimal(timestamp);
+      }
+      buffer.writeAscii(",\"duration\":");
+      buffer.writeDecimal(Math.max(1, toEpochMicros(span.getEndEpochNanos()) - timestamp));
+      byte[] localEndpoint = localEndpoint(span);
+      if (localEndpoint.length > 0) {
+        buffer.writeAscii(",\"localEndpoint\":");
+        buffer.writeBytes(localEndpoint);
+      }
+
+      List<EventData> events = sortedEvents(span);
+      if (!events.isEmpty()) {
+        buffer.writeAscii(",\"annotations\":[");
+        for (int i = 0; i < events.size(); i++) {
+          if (i > 0) {
+            buffer.writeByte(',');
+          }
+          EventData event = events.get(i);
+          buffer.writeAscii("{\"timestamp\":");
+          buffer.writeDecimal(toEpochMicros(event.getEpochNanos()));
+          buffer.writeAscii(",\"value\":\"");
+          buffer.writeJsonEscaped(event.getName());
+          buffer.writeAscii("\"}");
+        }
+        buffer.writeByte(']');
+      }
+
+      collectTags(span, tags);
+      if (tags.size() > 0) {
+        buffer.writeAscii(",\"tags\":{");
+        for (int i = 0; i < tags.size(); i++) {
+          if (i > 0) {
+            buffer.writeByte(',');
+          }
+          buffer.writeByte('"');
+          buffer.writeJsonEscaped(tags.key(i));
+          buffer.writeAscii("\":\"");
+          writeTagValue(tags.type(i), tags.value(i), buffer);
+          buffer.writeByte('"');
+        }
+        buffer.writeByte('}');
+      }
+      buffer.writeByte('}');
+    }
+
+    @Override
+    void writeEndpoint(Endpoint endpoint, EncodeBuffer buffer) {
+      buffer.writeByte('{');
+      boolean wroteField = false;
+      String serviceName = endpoint.serviceName();
+      if (serviceName != null) {
+        buffer.writeAscii("\"serviceName\":\"");
+        buffer.writeJsonEscaped(serviceName);
+        buffer.writeByte('"');
+        wroteField = true;
+      }
+      String ipv4 = endpoint.ipv4();
+      if (ipv4 != null) {
+        if (wroteField) {
+          buffer.writeByte(',');
+        }
+        buffer.writeAscii("\"ipv4\":\"");
+        buffer.writeAscii(ipv4);
+        buffer.writeByte('"');
+        wroteField = true;
+      }
+      String ipv6 = endpoint.ipv6();
+      if (ipv6 != null) {
+        if (wroteField) {
+          buffer.writeByte(',');
+        }
+        buffer.writeAscii("\"ipv6\":\"");
+        buffer.writeAscii(ipv6);
+        buffer.writeByte('"');
+        wroteField = true;
+      }
+      int port = endpoint.portAsInt();
+      if (port != 0) {
+        if (wroteField) {
+          buffer.writeByte(',');
+        }
+        buffer.writeAscii("\"port\":");
+        buffer.writeDecimal(port);
+      }
+      buffer.writeByte('}');
+    }
+
+    @Override
+    void writeTagValue(AttributeType type, Object value, EncodeBuffer buffer) {
+      if (isArray(type)) {
+        writeArrayTagValue(type, (List<?>) value, buffer, /* jsonEscape= */ true);
+      } else {
+        writeScalarTagValue(type, value, buffer, /* jsonEscape= */ true);
+      }
+    }
+  }
+
+  /** Writes Zipkin's proto3 format, as {@link SpanBytesEncoder#PROTO3}. */
+  static final class Proto3 extends SpanWriter {
+
+    // ListOfSpans
+    private static final int SPANS_TAG = (1 << 3) | 2;
+    // Span
+    private static final int TRACE_ID_TAG = (1 << 3) | 2;
+    private static final int PARENT_ID_TAG = (2 << 3) | 2;
+    private static final int ID_TAG = (3 << 3) | 2;
+    private static final int KIND_TAG = 4 << 3;
+    private static final int NAME_TAG = (5 << 3) | 2;
+    private static final int TIMESTAMP_TAG = (6 << 3) | 1;
+    private static final int DURATION_TAG = 7 << 3;
+    private static final int LOCAL_ENDPOINT_TAG = (8 << 3) | 2;
+    private static final int ANNOTATIONS_TAG = (10 << 3) | 2;
+    private static final int TAGS_TAG = (11 << 3) | 2;
+    // Endpoint
+    private static final int SERVICE_NAME_TAG = (1 << 3) | 2;
+    private static final int IPV4_TAG = (2 << 3) | 2;
+    private static final int IPV6_TAG = (3 << 3) | 2;
+    private static final int PORT_TAG = 4 << 3;
+    // Annotation
+    private static final int ANNOTATION_TIMESTAMP_TAG = (1 << 3) | 1;
+    private static final int ANNOTATION_VALUE_TAG = (2 << 3) | 2;
+    // Tags map entry
+    private static final int KEY_TAG = (1 << 3) | 2;
+    private static final int VALUE_TAG = (2 << 3) | 2;
+
+    Proto3(@Nullable InetAddress localAddress) {
+      super(localAddress);
+    }
+
+    @Override
+    void writeSpan(SpanData span, EncodeBuffer buffer, Tags tags) {
+      // Each message is a ListOfSpans with a single span, so that messages can be concatenated.
+      buffer.writeByte(SPANS_TAG);
+      int spanStart = buffer.beginLengthDelimited();
+
+      String traceId = span.getTraceId();
+      int traceIdStart = traceIdStart(traceId);
+      buffer.writeByte(TRACE_ID_TAG);
+      buffer.writeVarint((traceId.length() - traceIdStart) / 2);
+      buffer.writeHexAsBytes(traceId, traceIdStart);
+      String parentId = parentId(span);
+      if (parentId != null) {
+        buffer.writeByte(PARENT_ID_TAG);
+        buffer.writeVarint(8);
+        buffer.writeHexAsBytes(parentId, 0);
+      }
+      buffer.writeByte(ID_TAG);
+      buffer.writeVarint(8);
+      buffer.writeHexAsBytes(span.getSpanId(), 0);
+      int kind = kindNumber(span);
+      if (kind != 0) {
+        buffer.writeByte(KIND_TAG);
+        buffer.writeVarint(kind);
+      }
+      String name = name(span);
+      if (name != null) {
+        writeString(NAME_TAG, name, buffer);
+      }
+      long timestamp = toEpochMicros(span.getStartEpochNanos());
+      if (timestamp != 0) {
+        buffer.writeByte(TIMESTAMP_TAG);
+        buffer.writeFixed64(timestamp);
+      }
+      buffer.writeByte(DURATION_TAG);
+      buffer.writeVarint(Math.max(1, toEpochMicros(span.getEndEpochNanos()) - timestamp));
+      byte[] localEndpoint = localEndpoint(span);
+      if (localEndpoint.length > 0) {
+        buffer.writeByte(LOCAL_ENDPOINT_TAG);
+        buffer.writeVarint(localEndpoint.length);
+        buffer.writeBytes(localEndpoint);
+      }
+
+      for (EventData event : sortedEvents(span)) {
+        buffer.writeByte(ANNOTATIONS_TAG);
+        int annotationStart = buffer.beginLengthDelimited();
+        buffer.writeByte(ANNOTATION_TIMESTAMP_TAG);
+        buffer.writeFixed64(toEpochMicros(event.getEpochNanos()));
+        writeString(ANNOTATION_VALUE_TAG, event.getName(), buffer);
+        buffer.endLengthDelimited(annotationStart);
+      }
+
+      collectTags(span, tags);
+      for (int i = 0; i < tags.size(); i++) {
+        buffer.writeByte(TAGS_TAG);
+        int entryStart = buffer.beginLengthDelimited();
+        writeString(KEY_TAG, tags.key(i), buffer);
+        buffer.writeByte(VALUE_TAG);
+        int valueStart = buffer.beginLengthDelimited();
+        writeTagValue(tags.type(i), tags.value(i), buffer);
+        buffer.endLengthDelimited(valueStart);
+        buffer.endLengthDelimited(entryStart);
+      }
+
+      buffer.endLengthDelimited(spanStart);
+    }
+
+    @Override
+    void writeEndpoint(Endpoint endpoint, EncodeBuffer buffer) {
+      // Only the fields of the endpoint, the caller writes its tag and length.
+      String serviceName = endpoint.serviceName();
+      if (serviceName != null) {
+        writeString(SERVICE_NAME_TAG, serviceName, buffer);
+      }
+      byte[] ipv4 = endpoint.ipv4Bytes();
+      if (ipv4 != null) {
+        buffer.writeByte(IPV4_TAG);
+        buffer.writeVarint(ipv4.length);
+        buffer.writeBytes(ipv4);
+      }
+      byte[] ipv6 = endpoint.ipv6Bytes();
+      if (ipv6 != null) {
+        buffer.writeByte(IPV6_TAG);
+        buffer.writeVarint(ipv6.length);
+        buffer.writeBytes(ipv6);
+      }
+      int port = endpoint.portAsInt();
+      if (port != 0) {
+        buffer.writeByte(PORT_TAG);
+        buffer.writeVarint(port);
+      }
+    }
+
+    @Override
+    void writeTagValue(AttributeType type, Object value, EncodeBuffer buffer) {
+      if (isArray(type)) {
+        writeArrayTagValue(type, (List<?>) value, buffer, /* jsonEscape= */ false);
+      } else {
+        writeScalarTagValue(type, value, buffer, /* jsonEscape= */ false);
+      }
+    }
+
+    private static void writeString(int tag, String value, EncodeBuffer buffer) {
+      buffer.writeByte(tag);
+      int start = buffer.beginLengthDelimited();
+      buffer.writeUtf8(value);
+      buffer.endLengthDelimited(start);
+    }
+  }
+
+  /** Reusable storage for the tags of one span at a time. */
+  static final class Tags {
+    private String[] keys = new String[16];
+    private AttributeType[] types = new AttributeType[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    void clear() {
+      Arrays.fill(values, 0, size, null);
+      size = 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    String key(int i) {
+      return keys[i];
+    }
+
+    AttributeType type(int i) {
+      return types[i];
+    }
+
+    Object value(int i) {
+      return values[i];
+    }
+
+    void add(AttributeKey<?> key, Object value) {
+      add(key.getKey(), value, key.getType());
+    }
+
+    void add(String key, String value) {
+      add(key, value, AttributeType.STRING);
+    }
+
+    private void add(String key, Object value, AttributeType type) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        types = Arrays.copyOf(types, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      keys[size] = key;
+      types[size] = type;
+      values[size] = value;
+      size++;
+    }
+
+    // Stable insertion sort, cheap since attributes are usually already sorted by key, followed by
+    // removal of all but the last tag of each key.
+    void sortAndDedupe() {
+      for (int i = 1; i < size; i++) {
+        String key = keys[i];
+        AttributeType type = types[i];
+        Object value = values[i];
+        int j = i - 1;
+        while (j >= 0 && keys[j].compareTo(key) > 0) {
+          keys[j + 1] = keys[j];
+          types[j + 1] = types[j];
+          values[j + 1] = values[j];
+          j--;
+        }
+        keys[j + 1] = key;
+        types[j + 1] = type;
+        values[j + 1] = value;
+      }
+      int deduped = 0;
+      for (int i = 0; i < size; i++) {
+        if (i + 1 < size && keys[i + 1].equals(keys[i])) {
+          continue;
+        }
+        keys[deduped] = keys[i];
+        types[deduped] = types[i];
+        values[deduped] = values[i];
+        deduped++;
+      }
+      Arrays.fill(values, deduped, size, null);
+      size = deduped;
+    }
+  }
+
+  private static final class Scratch {
+    private final EncodeBuffer buffer = new EncodeBuffer(INITIAL_BUFFER_SIZE);
+    private final Tags tags = new Tags();
+  }
+}
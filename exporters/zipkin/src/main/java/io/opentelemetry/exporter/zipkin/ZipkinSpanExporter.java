@@ -12,6 +12,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributeType;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.internal.ThrottlingLogger;
@@ -58,11 +59,17 @@ public final class ZipkinSpanExporter implements SpanExporter {
   private final BytesEncoder<Span> encoder;
   private final Sender sender;
   @Nullable private final InetAddress localAddress;
+  // Writes spans directly for the encodings it supports, bypassing the creation of zipkin2.Span.
+  @Nullable private final SpanWriter spanWriter;
+  // The local endpoint of each resource, which spans of a provider share.
+  private final WeakConcurrentMap<Resource, Endpoint> endpoints =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
 
   ZipkinSpanExporter(BytesEncoder<Span> encoder, Sender sender) {
     this.encoder = encoder;
     this.sender = sender;
     localAddress = produceLocalIp();
+    spanWriter = SpanWriter.forEncoder(encoder, localAddress);
   }
 
   /** Logic borrowed from brave.internal.Platform.produceLocalEndpoint */
@@ -153,10 +160,20 @@ public final class ZipkinSpanExporter implements SpanExporter {
   }
 
   private Endpoint getEndpoint(SpanData spanData) {
-    Attributes resourceAttributes = spanData.getResource().getAttributes();
+    Resource resource = spanData.getResource();
+    Endpoint endpoint = endpoints.get(resource);
+    if (endpoint == null) {
+      // Since WeakConcurrentMap doesn't support computeIfAbsent, we may end up doing the conversion
+      // a few times until the cache gets filled which is fine.
+      endpoint = localEndpoint(resource, localAddress);
+      endpoints.put(resource, endpoint);
+    }
+    return endpoint;
+  }
 
+  static Endpoint localEndpoint(Resource resource, @Nullable InetAddress localAddress) {
     // use the service.name from the Resource, if it's been set.
-    String serviceNameValue = resourceAttributes.get(ResourceAttributes.SERVICE_NAME);
+    String serviceNameValue = resource.getAttributes().get(ResourceAttributes.SERVICE_NAME);
     if (serviceNameValue == null) {
       serviceNameValue = Resource.getDefault().getAttributes().get(ResourceAttributes.SERVICE_NAME);
     }
@@ -214,9 +231,14 @@ public final class ZipkinSpanExporter implements SpanExporter {
 
   @Override
   public CompletableResultCode export(final Collection<SpanData> spanDataList) {
-    List<byte[]> encodedSpans = new ArrayList<>(spanDataList.size());
-    for (SpanData spanData : spanDataList) {
-      encodedSpans.add(encoder.encode(generateSpan(spanData)));
+    List<byte[]> encodedSpans;
+    if (spanWriter != null) {
+      encodedSpans = spanWriter.encode(spanDataList);
+    } else {
+      encodedSpans = new ArrayList<>(spanDataList.size());
+      for (SpanData spanData : spanDataList) {
+        encodedSpans.add(encoder.encode(generateSpan(spanData)));
+      }
     }
 
     final CompletableResultCode result = new CompletableResultCode();
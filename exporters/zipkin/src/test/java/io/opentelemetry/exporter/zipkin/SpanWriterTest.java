@@ -0,0 +1,170 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.zipkin;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.doubleArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import zipkin2.codec.SpanBytesEncoder;
+
+class SpanWriterTest {
+
+  private static final String TRACE_ID = "d239036e7d5cec116b562147388b35bf";
+  private static final String SPAN_ID = "9cc1e3049173be09";
+  private static final String PARENT_SPAN_ID = "8b03ab423da481c5";
+
+  @ParameterizedTest
+  @ArgumentsSource(SpanArgumentsProvider.class)
+  void matchesZipkinEncoding(SpanData span) {
+    for (SpanBytesEncoder encoder :
+        Arrays.asList(SpanBytesEncoder.JSON_V2, SpanBytesEncoder.PROTO3)) {
+      ZipkinSpanExporter exporter = ZipkinSpanExporter.builder().setEncoder(encoder).build();
+      SpanWriter writer = SpanWriter.forEncoder(encoder, exporter.getLocalAddressForTest());
+
+      List<byte[]> encoded = writer.encode(Arrays.asList(span, span));
+
+      byte[] expected = encoder.encode(exporter.generateSpan(span));
+      assertThat(encoded).hasSize(2);
+      assertThat(encoded.get(0)).isEqualTo(expected);
+      assertThat(encoded.get(1)).isEqualTo(expected);
+    }
+  }
+
+  @ParameterizedTest
+  @ArgumentsSource(SpanArgumentsProvider.class)
+  void encodesWholeBatch(SpanData span) {
+    ZipkinSpanExporter exporter = ZipkinSpanExporter.builder().build();
+    SpanWriter writer =
+        SpanWriter.forEncoder(SpanBytesEncoder.JSON_V2, exporter.getLocalAddressForTest());
+
+    List<SpanData> batch = new ArrayList<>();
+    List<byte[]> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      batch.add(span);
+      expected.add(SpanBytesEncoder.JSON_V2.encode(exporter.generateSpan(span)));
+    }
+    assertThat(writer.encode(batch)).containsExactlyElementsOf(expected);
+  }
+
+  static class SpanArgumentsProvider implements ArgumentsProvider {
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+      return Stream.of(
+          Arguments.of(standardSpan().build()),
+          Arguments.of(standardSpan().setKind(SpanKind.INTERNAL).setName("").build()),
+          Arguments.of(
+              standardSpan()
+                  .setSpanContext(
+                      SpanContext.create(
+                          "0000000000000000" + TRACE_ID.substring(16),
+                          SPAN_ID,
+                          TraceFlags.getSampled(),
+                          TraceState.getDefault()))
+                  .setParentSpanContext(SpanContext.getInvalid())
+                  .setResource(Resource.empty())
+                  .build()),
+          Arguments.of(
+              standardSpan()
+                  .setKind(SpanKind.CLIENT)
+                  .setName("GET \"/api\"\n\t café 😀")
+                  .setAttributes(
+                      Attributes.builder()
+                          .put(stringKey("string"), "v\\al\"ue\u0001")
+                          .put(stringKey("unicode"), "ünïcödé 中文")
+                          .put(stringKey("separator"), "line\u2028paragraph\u2029")
+                          .put(booleanKey("boolean"), true)
+                          .put(longKey("long"), -1234567890123L)
+                          .put(longKey("long.min"), Long.MIN_VALUE)
+                          .put(doubleKey("double"), 1.5e10)
+                          .put(stringArrayKey("string.array"), Arrays.asList("", "a", "b\"c"))
+                          .put(booleanArrayKey("boolean.array"), Arrays.asList(true, false))
+                          .put(longArrayKey("long.array"), Arrays.asList(1L, 0L, -2L))
+                          .put(doubleArrayKey("double.array"), Arrays.asList(0.5, -1.0))
+                          .put(stringKey("otel.status_code"), "overridden")
+                          .build())
+                  .setTotalAttributeCount(20)
+                  .setStatus(StatusData.create(StatusCode.ERROR, "boom"))
+                  .setEvents(
+                      Arrays.asList(
+                          EventData.create(1505855799_459486280L, "SENT", Attributes.empty()),
+                          EventData.create(1505855799_433901068L, "RECEIVED", Attributes.empty()),
+                          EventData.create(1505855799_433901999L, "RECEIVED", Attributes.empty()),
+                          EventData.create(1505855799_433901068L, "ACKED", Attributes.empty())))
+                  .setTotalRecordedEvents(10)
+                  .setInstrumentationLibraryInfo(InstrumentationLibraryInfo.create("lib", "1.0"))
+                  .build()),
+          Arguments.of(
+              standardSpan()
+                  .setKind(SpanKind.PRODUCER)
+                  .setStatus(StatusData.error())
+                  .setEndEpochNanos(1505855794_194009601L)
+                  .build()),
+          Arguments.of(
+              standardSpan()
+                  .setKind(SpanKind.CONSUMER)
+                  .setAttributes(Attributes.of(stringKey("error"), "already set"))
+                  .setTotalAttributeCount(1)
+                  .setStatus(StatusData.error())
+                  .build()));
+    }
+  }
+
+  private static TestSpanData.Builder standardSpan() {
+    return TestSpanData.builder()
+        .setSpanContext(
+            SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault()))
+        .setParentSpanContext(
+            SpanContext.create(
+                TRACE_ID, PARENT_SPAN_ID, TraceFlags.getDefault(), TraceState.getDefault()))
+        .setResource(
+            Resource.create(
+                Attributes.builder().put(ResourceAttributes.SERVICE_NAME, "TweetieBird").build()))
+        .setStatus(StatusData.ok())
+        .setKind(SpanKind.SERVER)
+        .setName("Recv.helloworld.Greeter.SayHello")
+        .setStartEpochNanos(1505855794_194009601L)
+        .setEndEpochNanos(1505855799_465726528L)
+        .setAttributes(Attributes.empty())
+        .setTotalAttributeCount(0)
+        .setEvents(
+            Collections.singletonList(
+                EventData.create(1505855799_433901068L, "RECEIVED", Attributes.empty())))
+        .setTotalRecordedEvents(1)
+        .setLinks(Collections.emptyList())
+        .setHasEnded(true);
+  }
+}
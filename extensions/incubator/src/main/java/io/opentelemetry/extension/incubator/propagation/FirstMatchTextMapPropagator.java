@@ -0,0 +1,158 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.extension.incubator.propagation;
+
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TextMapPropagator} which injects with all of its propagators, and extracts with the
+ * first one, in order, that extracts anything from the carrier. This suits accepting any one of
+ * several trace context formats, but not propagators which should all contribute to the extracted
+ * {@link Context}, such as baggage alongside trace context, for which {@link
+ * TextMapPropagator#composite(TextMapPropagator...)} should be used.
+ *
+ * <p>Propagators are given a getter which reads each of the {@link #fields()} at most once from the
+ * carrier, so formats that share fields, or are tried one after the other, don't look up the same
+ * field again.
+ */
+public final class FirstMatchTextMapPropagator implements TextMapPropagator {
+  private final TextMapPropagator[] textPropagators;
+  private final String[] allFields;
+  private final Collection<String> allFieldsView;
+
+  /**
+   * Returns a {@link TextMapPropagator} which injects with all the given {@code propagators}, and
+   * extracts with the first of them, in the given order, which extracts anything from the carrier.
+   */
+  public static TextMapPropagator create(TextMapPropagator... propagators) {
+    requireNonNull(propagators, "propagators");
+    return create(Arrays.asList(propagators));
+  }
+
+  /**
+   * Returns a {@link TextMapPropagator} which injects with all the given {@code propagators}, and
+   * extracts with the first of them, in the given order, which extracts anything from the carrier.
+   */
+  public static TextMapPropagator create(Iterable<TextMapPropagator> propagators) {
+    requireNonNull(propagators, "propagators");
+    List<TextMapPropagator> propagatorsList = new ArrayList<>();
+    for (TextMapPropagator propagator : propagators) {
+      propagatorsList.add(requireNonNull(propagator, "propagator"));
+    }
+    if (propagatorsList.isEmpty()) {
+      return TextMapPropagator.noop();
+    }
+    if (propagatorsList.size() == 1) {
+      return propagatorsList.get(0);
+    }
+    return new FirstMatchTextMapPropagator(propagatorsList);
+  }
+
+  private FirstMatchTextMapPropagator(List<TextMapPropagator> textPropagators) {
+    this.textPropagators = textPropagators.toArray(new TextMapPropagator[0]);
+    Set<String> fields = new LinkedHashSet<>();
+    for (TextMapPropagator textPropagator : this.textPropagators) {
+      fields.addAll(textPropagator.fields());
+    }
+    this.allFields = fields.toArray(new String[0]);
+    this.allFieldsView = Collections.unmodifiableList(Arrays.asList(allFields));
+  }
+
+  @Override
+  public Collection<String> fields() {
+    return allFieldsView;
+  }
+
+  @Override
+  public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {
+    if (context == null || setter == null) {
+      return;
+    }
+    for (TextMapPropagator textPropagator : textPropagators) {
+      textPropagator.inject(context, carrier, setter);
+    }
+  }
+
+  @Override
+  public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+    if (context == null) {
+      return Context.root();
+    }
+    if (getter == null) {
+      return context;
+    }
+    TextMapGetter<C> cachingGetter = new CachingGetter<>(getter, carrier, allFields);
+    for (TextMapPropagator textPropagator : textPropagators) {
+      Context extracted = textPropagator.extract(context, carrier, cachingGetter);
+      if (extracted != context) {
+        return extracted;
+      }
+    }
+    return context;
+  }
+
+  // Remembers the values of the given fields in the carrier of a single extraction, other keys are
+  // read from the carrier every time.
+  private static final class CachingGetter<C> implements TextMapGetter<C> {
+    private final TextMapGetter<C> delegate;
+    @Nullable private final C carrier;
+    private final String[] fields;
+    private final String[] values;
+    private final boolean[] read;
+
+    CachingGetter(TextMapGetter<C> delegate, @Nullable C carrier, String[] fields) {
+      this.delegate = delegate;
+      this.carrier = carrier;
+      this.fields = fields;
+      this.values = new String[fields.length];
+      this.read = new boolean[fields.length];
+    }
+
+    @Override
+    public Iterable<String> keys(C carrier) {
+      return delegate.keys(carrier);
+    }
+
+    @Override
+    @Nullable
+    public String get(@Nullable C carrier, String key) {
+      if (carrier != this.carrier) {
+        return delegate.get(carrier, key);
+      }
+      int index = indexOf(key);
+      if (index < 0) {
+        return delegate.get(carrier, key);
+      }
+      if (!read[index]) {
+        values[index] = delegate.get(carrier, key);
+        read[index] = true;
+      }
+      return values[index];
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < fields.length; i++) {
+        if (fields[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.extension.incubator.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+class FirstMatchTextMapPropagatorTest {
+
+  private static final ContextKey<String> KEY = ContextKey.named("key");
+
+  private final Map<String, Integer> reads = new HashMap<>();
+
+  private final TextMapGetter<Map<String, String>> getter =
+      new TextMapGetter<Map<String, String>>() {
+        @Override
+        public Iterable<String> keys(Map<String, String> carrier) {
+          return carrier.keySet();
+        }
+
+        @Nullable
+        @Override
+        public String get(@Nullable Map<String, String> carrier, String key) {
+          reads.merge(key, 1, Integer::sum);
+          return carrier == null ? null : carrier.get(key);
+        }
+      };
+
+  @Test
+  void create_nonMulti() {
+    assertThat(FirstMatchTextMapPropagator.create()).isSameAs(TextMapPropagator.noop());
+    TextMapPropagator propagator = new FieldPropagator("foo");
+    assertThat(FirstMatchTextMapPropagator.create(propagator)).isSameAs(propagator);
+  }
+
+  @Test
+  void fields() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new FieldPropagator("foo", "bar"), new FieldPropagator("bar", "baz"));
+    assertThat(propagator.fields()).containsExactly("foo", "bar", "baz");
+  }
+
+  @Test
+  void extract_firstMatch() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new FieldPropagator("first"),
+            new FieldPropagator("second"),
+            new FieldPropagator("third"));
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put("second", "2");
+    carrier.put("third", "3");
+
+    Context context = propagator.extract(Context.root(), carrier, getter);
+    assertThat(context.get(KEY)).isEqualTo("2");
+    assertThat(reads).containsOnlyKeys("first", "second");
+  }
+
+  @Test
+  void extract_notFound() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new FieldPropagator("first"), new FieldPropagator("second"));
+    Context context = Context.root().with(ContextKey.named("other"), "value");
+
+    assertThat(propagator.extract(context, new HashMap<>(), getter)).isSameAs(context);
+  }
+
+  @Test
+  void extract_fieldsReadOnce() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new FieldPropagator("shared", "first"),
+            new FieldPropagator("shared", "second"),
+            new FieldPropagator("shared", "third"));
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put("third", "3");
+
+    Context context = propagator.extract(Context.root(), carrier, getter);
+    assertThat(context.get(KEY)).isEqualTo("3");
+    assertThat(reads).containsEntry("shared", 1).containsEntry("third", 1);
+  }
+
+  @Test
+  void extract_otherKeysNotCached() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new UndeclaredFieldPropagator("undeclared"),
+            new UndeclaredFieldPropagator("undeclared"));
+    Map<String, String> carrier = Collections.singletonMap("undeclared", "1");
+
+    Context context = propagator.extract(Context.root(), carrier, getter);
+    assertThat(context.get(KEY)).isEqualTo("1");
+    assertThat(reads).containsEntry("undeclared", 1);
+
+    reads.clear();
+    propagator.extract(Context.root(), Collections.emptyMap(), getter);
+    assertThat(reads).containsEntry("undeclared", 2);
+  }
+
+  @Test
+  void extract_nullContext() {
+    assertThat(
+            FirstMatchTextMapPropagator.create(
+                    new FieldPropagator("first"), new FieldPropagator("second"))
+                .extract(null, Collections.emptyMap(), getter))
+        .isSameAs(Context.root());
+  }
+
+  @Test
+  void extract_nullGetter() {
+    Context context = Context.root().with(KEY, "treasure");
+    assertThat(
+            FirstMatchTextMapPropagator.create(
+                    new FieldPropagator("first"), new FieldPropagator("second"))
+                .extract(context, Collections.emptyMap(), null))
+        .isSameAs(context);
+  }
+
+  @Test
+  void inject_allDelegated() {
+    TextMapPropagator propagator =
+        FirstMatchTextMapPropagator.create(
+            new FieldPropagator("first"), new FieldPropagator("second"));
+    Map<String, String> carrier = new HashMap<>();
+    propagator.inject(Context.root().with(KEY, "value"), carrier, Map::put);
+    assertThat(carrier).containsEntry("first", "value").containsEntry("second", "value");
+  }
+
+  // Extracts the value of the last of its fields into KEY if present, after reading all of them.
+  private static class FieldPropagator implements TextMapPropagator {
+    private final List<String> fields;
+
+    private FieldPropagator(String... fields) {
+      this.fields = Arrays.asList(fields);
+    }
+
+    @Override
+    public Collection<String> fields() {
+      return fields;
+    }
+
+    @Override
+    public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {
+      String value = context.get(KEY);
+      if (value != null) {
+        setter.set(carrier, fields.get(fields.size() - 1), value);
+      }
+    }
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      String value = null;
+      for (String field : fields) {
+        value = getter.get(carrier, field);
+      }
+      return value == null ? context : context.with(KEY, value);
+    }
+  }
+
+  // Reads a field which is not in its fields.
+  private static class UndeclaredFieldPropagator extends FieldPropagator {
+    private final String undeclared;
+
+    private UndeclaredFieldPropagator(String undeclared) {
+      this.undeclared = undeclared;
+    }
+
+    @Override
+    public Collection<String> fields() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      String value = getter.get(carrier, undeclared);
+      return value == null ? context : context.with(KEY, value);
+    }
+  }
+}
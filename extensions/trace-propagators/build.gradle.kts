@@ -18,4 +18,5 @@ dependencies {
     testImplementation("com.google.guava:guava")
 
     jmhImplementation(project(":extensions:aws"))
+    jmhImplementation(project(":extensions:incubator"))
 }
@@ -6,15 +6,19 @@
 package io.opentelemetry.extension.trace.propagation;
 
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.extension.aws.AwsXrayPropagator;
+import io.opentelemetry.extension.incubator.propagation.FirstMatchTextMapPropagator;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -312,4 +316,95 @@ public class PropagatorContextExtractBenchmark {
       return traceHeaders;
     }
   }
+
+  /**
+   * Abstract class for benchmarks extracting OtTrace headers with W3C, B3, Jaeger and OtTrace
+   * propagators configured, in that order, so every propagator is tried. Headers are looked up
+   * case-insensitively, as by HTTP servers.
+   */
+  public abstract static class AbstractCompositeContextExtractBenchmark
+      extends AbstractContextExtractBenchmark {
+
+    private static final List<Map<String, String>> traceHeaders =
+        Arrays.asList(
+            createHeaders("905734c59b913b4a905734c59b913b4a", "9909983295041501", "true"),
+            createHeaders("21196a77f299580e21196a77f299580e", "993a97ee3691eb26", "false"),
+            createHeaders("2e7d0ad2390617702e7d0ad239061770", "d49582a2de984b86", "true"),
+            createHeaders("905734c59b913b4a905734c59b913b4a", "776ff807b787538a", "false"),
+            createHeaders("68ec932c33b3f2ee68ec932c33b3f2ee", "68ec932c33b3f2ee", "false"));
+
+    private static Map<String, String> createHeaders(
+        String traceId, String spanId, String sampled) {
+      Map<String, String> headers = new HashMap<>();
+      headers.put("Ot-Tracer-TraceId", traceId);
+      headers.put("Ot-Tracer-SpanId", spanId);
+      headers.put("Ot-Tracer-Sampled", sampled);
+      headers.put("Content-Type", "application/json");
+      headers.put("Accept", "application/json");
+      headers.put("User-Agent", "benchmark");
+      return headers;
+    }
+
+    static final List<TextMapPropagator> PROPAGATORS =
+        Arrays.asList(
+            W3CTraceContextPropagator.getInstance(),
+            B3Propagator.injectingMultiHeaders(),
+            JaegerPropagator.getInstance(),
+            OtTracePropagator.getInstance());
+
+    private final TextMapGetter<Map<String, String>> getter =
+        new TextMapGetter<Map<String, String>>() {
+          @Override
+          public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+          }
+
+          @Nullable
+          @Override
+          public String get(Map<String, String> carrier, String key) {
+            for (Map.Entry<String, String> entry : carrier.entrySet()) {
+              if (entry.getKey().equalsIgnoreCase(key)) {
+                return entry.getValue();
+              }
+            }
+            return null;
+          }
+        };
+
+    protected abstract TextMapPropagator propagator();
+
+    @Override
+    protected Context doExtract() {
+      return propagator().extract(Context.current(), getCarrier(), getter);
+    }
+
+    @Override
+    protected List<Map<String, String>> getHeaders() {
+      return traceHeaders;
+    }
+  }
+
+  /** Benchmark for extracting context with {@link TextMapPropagator#composite}. */
+  public static class CompositeContextExtractBenchmark
+      extends AbstractCompositeContextExtractBenchmark {
+
+    private final TextMapPropagator propagator = TextMapPropagator.composite(PROPAGATORS);
+
+    @Override
+    protected TextMapPropagator propagator() {
+      return propagator;
+    }
+  }
+
+  /** Benchmark for extracting context with {@link FirstMatchTextMapPropagator}. */
+  public static class CompositeFirstMatchContextExtractBenchmark
+      extends AbstractCompositeContextExtractBenchmark {
+
+    private final TextMapPropagator propagator = FirstMatchTextMapPropagator.create(PROPAGATORS);
+
+    @Override
+    protected TextMapPropagator propagator() {
+      return propagator;
+    }
+  }
 }
@@ -79,6 +79,11 @@ final class MetricExporterConfiguration {
       builder.setTimeout(timeout);
     }
 
+    String compression = config.getString("otel.exporter.otlp.compression");
+    if (compression != null) {
+      builder.setCompression(compression);
+    }
+
     OtlpGrpcMetricExporter exporter = builder.build();
 
     configureIntervalMetricReader(config, meterProvider, exporter);
@@ -85,6 +85,11 @@ final class SpanExporterConfiguration {
       builder.setTimeout(timeout);
     }
 
+    String compression = config.getString("otel.exporter.otlp.compression");
+    if (compression != null) {
+      builder.setCompression(compression);
+    }
+
     String certificate = config.getString("otel.exporter.otlp.certificate");
     if (certificate != null) {
       Path path = Paths.get(certificate);
@@ -37,6 +37,23 @@ class SpanExporterConfigurationTest {
     }
   }
 
+  @Test
+  void configureOtlpCompression() {
+    SpanExporter exporter =
+        SpanExporterConfiguration.configureExporter(
+            "otlp",
+            ConfigProperties.createForTest(
+                Collections.singletonMap("otel.exporter.otlp.compression", "gzip")));
+    try {
+      assertThat(exporter)
+          .isInstanceOfSatisfying(
+              OtlpGrpcSpanExporter.class,
+              otlp -> assertThat(otlp).extracting("compressionMethod").isEqualTo("gzip"));
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
   // Timeout difficult to test using real exports so just check implementation detail here.
   @Test
   void configureJaegerTimeout() {
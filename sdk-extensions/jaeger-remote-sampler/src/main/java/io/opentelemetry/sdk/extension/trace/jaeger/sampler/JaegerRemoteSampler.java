@@ -24,6 +24,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /** Remote sampler that gets sampling configuration from remote Jaeger server. */
 public final class JaegerRemoteSampler implements Sampler {
@@ -36,6 +37,8 @@ public final class JaegerRemoteSampler implements Sampler {
   private final SamplingManagerBlockingStub stub;
 
   private volatile Sampler sampler;
+  // The strategy the sampler was last compiled from, only accessed by the polling thread.
+  @Nullable private SamplingStrategyResponse lastResponse;
 
   @SuppressWarnings("FutureReturnValueIgnored")
   JaegerRemoteSampler(
@@ -65,7 +68,12 @@ public final class JaegerRemoteSampler implements Sampler {
       SamplingStrategyParameters params =
           SamplingStrategyParameters.newBuilder().setServiceName(this.serviceName).build();
       SamplingStrategyResponse response = stub.getSamplingStrategy(params);
-      this.sampler = updateSampler(response);
+      // Keep the current sampler, and the state of its rate limiters, while the strategy is
+      // unchanged.
+      if (!response.equals(lastResponse)) {
+        this.sampler = updateSampler(response);
+        lastResponse = response;
+      }
     } catch (RuntimeException e) { // keep the timer thread alive
       logger.log(Level.WARNING, "Failed to update sampler", e);
     }
@@ -74,11 +82,7 @@ public final class JaegerRemoteSampler implements Sampler {
   private static Sampler updateSampler(SamplingStrategyResponse response) {
     PerOperationSamplingStrategies operationSampling = response.getOperationSampling();
     if (operationSampling.getPerOperationStrategiesList().size() > 0) {
-      Sampler defaultSampler =
-          Sampler.traceIdRatioBased(operationSampling.getDefaultSamplingProbability());
-      return Sampler.parentBased(
-          new PerOperationSampler(
-              defaultSampler, operationSampling.getPerOperationStrategiesList()));
+      return Sampler.parentBased(new PerOperationSampler(operationSampling));
     }
     switch (response.getStrategyType()) {
       case PROBABILISTIC:
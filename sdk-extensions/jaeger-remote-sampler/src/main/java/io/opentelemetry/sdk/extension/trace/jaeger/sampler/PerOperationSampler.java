@@ -5,33 +5,63 @@
 
 package io.opentelemetry.sdk.extension.trace.jaeger.sampler;
 
+import static io.opentelemetry.sdk.extension.trace.jaeger.sampler.RateLimitingSampler.SAMPLER_PARAM;
+import static io.opentelemetry.sdk.extension.trace.jaeger.sampler.RateLimitingSampler.SAMPLER_TYPE;
+
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.OperationSamplingStrategy;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.PerOperationSamplingStrategies;
+import io.opentelemetry.sdk.internal.RateLimiter;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
 import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
-/** {@link PerOperationSampler} samples spans per operation. */
+/**
+ * {@link PerOperationSampler} samples spans per operation. Like Jaeger's guaranteed throughput
+ * sampler, the spans of each listed operation are sampled with its probability, or by a rate
+ * limiter guaranteeing the lower bound of traces per second of the strategy if they aren't.
+ *
+ * <p>The strategy is compiled once into an immutable map from interned operation names, and
+ * operations with the same probability share the same sampler.
+ */
 class PerOperationSampler implements Sampler {
+  static final String LOWER_BOUND_TYPE = "lowerbound";
 
   private final Sampler defaultSampler;
   private final Map<String, Sampler> perOperationSampler;
 
-  PerOperationSampler(
-      Sampler defaultSampler, List<OperationSamplingStrategy> perOperationSampling) {
-    this.defaultSampler = defaultSampler;
-    this.perOperationSampler = new LinkedHashMap<>(perOperationSampling.size());
+  PerOperationSampler(PerOperationSamplingStrategies strategies) {
+    Map<Double, Sampler> ratioSamplers = new HashMap<>();
+    this.defaultSampler = ratioSampler(ratioSamplers, strategies.getDefaultSamplingProbability());
+    double lowerBound = strategies.getDefaultLowerBoundTracesPerSecond();
+    List<OperationSamplingStrategy> perOperationSampling =
+        strategies.getPerOperationStrategiesList();
+    Map<String, Sampler> perOperationSampler = new LinkedHashMap<>(perOperationSampling.size());
     for (OperationSamplingStrategy opSamplingStrategy : perOperationSampling) {
-      this.perOperationSampler.put(
-          opSamplingStrategy.getOperation(),
-          Sampler.traceIdRatioBased(
-              opSamplingStrategy.getProbabilisticSampling().getSamplingRate()));
+      Sampler ratioSampler =
+          ratioSampler(
+              ratioSamplers, opSamplingStrategy.getProbabilisticSampling().getSamplingRate());
+      Sampler sampler =
+          lowerBound > 0 ? new GuaranteedThroughputSampler(ratioSampler, lowerBound) : ratioSampler;
+      // Span names are mostly constants, which are interned, so lookups of interned keys mostly
+      // find them equal by identity.
+      perOperationSampler.put(opSamplingStrategy.getOperation().intern(), sampler);
     }
+    this.perOperationSampler = Collections.unmodifiableMap(perOperationSampler);
+  }
+
+  private static Sampler ratioSampler(Map<Double, Sampler> ratioSamplers, double ratio) {
+    return ratioSamplers.computeIfAbsent(ratio, Sampler::traceIdRatioBased);
   }
 
   @Override
@@ -60,4 +90,61 @@ class PerOperationSampler implements Sampler {
   public String toString() {
     return getDescription();
   }
+
+  // Visible for testing
+  @Nullable
+  Sampler getOperationSampler(String operation) {
+    return perOperationSampler.get(operation);
+  }
+
+  /**
+   * Samples spans with a probability, and otherwise with a lower bound rate. A credit of the lower
+   * bound is spent for every span, as in Jaeger, so that the lower bound is a minimum of the traces
+   * sampled per second rather than added to the probability.
+   */
+  static final class GuaranteedThroughputSampler implements Sampler {
+    private final Sampler ratioSampler;
+    private final double lowerBound;
+    private final RateLimiter lowerBoundLimiter;
+    private final SamplingResult lowerBoundSamplingResult;
+
+    GuaranteedThroughputSampler(Sampler ratioSampler, double lowerBound) {
+      this.ratioSampler = ratioSampler;
+      this.lowerBound = lowerBound;
+      this.lowerBoundLimiter =
+          new RateLimiter(lowerBound, Math.max(lowerBound, 1.0), Clock.getDefault());
+      this.lowerBoundSamplingResult =
+          SamplingResult.create(
+              SamplingDecision.RECORD_AND_SAMPLE,
+              Attributes.of(SAMPLER_TYPE, LOWER_BOUND_TYPE, SAMPLER_PARAM, lowerBound));
+    }
+
+    @Override
+    public SamplingResult shouldSample(
+        Context parentContext,
+        String traceId,
+        String name,
+        SpanKind spanKind,
+        Attributes attributes,
+        List<LinkData> parentLinks) {
+      SamplingResult result =
+          ratioSampler.shouldSample(
+              parentContext, traceId, name, spanKind, attributes, parentLinks);
+      boolean lowerBoundSampled = lowerBoundLimiter.trySpend(1.0);
+      if (result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE || !lowerBoundSampled) {
+        return result;
+      }
+      return lowerBoundSamplingResult;
+    }
+
+    @Override
+    public String getDescription() {
+      return String.format("GuaranteedThroughput{%s, lowerBound=%.2f}", ratioSampler, lowerBound);
+    }
+
+    @Override
+    public String toString() {
+      return getDescription();
+    }
+  }
 }
@@ -13,7 +13,7 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.common.Clock;
-import io.opentelemetry.sdk.internal.RateLimiter;
+import io.opentelemetry.sdk.internal.StripedRateLimiter;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
@@ -23,6 +23,10 @@ import java.util.List;
 /**
  * {@link RateLimitingSampler} sampler uses a leaky bucket rate limiter to ensure that traces are
  * sampled with a certain constant rate.
+ *
+ * <p>Above about 200 traces per second for each stripe, one per available processor, the bucket is
+ * striped over the threads starting root spans so that they don't all contend on it. At the lower
+ * rates usually configured, all threads spend from the single bucket.
  */
 class RateLimitingSampler implements Sampler {
   static final String TYPE = "ratelimiting";
@@ -30,7 +34,7 @@ class RateLimitingSampler implements Sampler {
   static final AttributeKey<Double> SAMPLER_PARAM = doubleKey("sampler.param");
 
   private final double maxTracesPerSecond;
-  private final RateLimiter rateLimiter;
+  private final StripedRateLimiter rateLimiter;
   private final SamplingResult onSamplingResult;
   private final SamplingResult offSamplingResult;
 
@@ -42,7 +46,7 @@ class RateLimitingSampler implements Sampler {
   RateLimitingSampler(int maxTracesPerSecond) {
     this.maxTracesPerSecond = maxTracesPerSecond;
     double maxBalance = maxTracesPerSecond < 1.0 ? 1.0 : maxTracesPerSecond;
-    this.rateLimiter = new RateLimiter(maxTracesPerSecond, maxBalance, Clock.getDefault());
+    this.rateLimiter = new StripedRateLimiter(maxTracesPerSecond, maxBalance, Clock.getDefault());
     Attributes attributes =
         Attributes.of(SAMPLER_TYPE, TYPE, SAMPLER_PARAM, (double) maxTracesPerSecond);
     this.onSamplingResult = SamplingResult.create(SamplingDecision.RECORD_AND_SAMPLE, attributes);
@@ -57,7 +61,7 @@ class RateLimitingSampler implements Sampler {
       SpanKind spanKind,
       Attributes attributes,
       List<LinkData> parentLinks) {
-    return this.rateLimiter.trySpend(1.0) ? onSamplingResult : offSamplingResult;
+    return this.rateLimiter.trySpend() ? onSamplingResult : offSamplingResult;
   }
 
   @Override
@@ -0,0 +1,115 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.trace.jaeger.sampler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.OperationSamplingStrategy;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.PerOperationSamplingStrategies;
+import io.opentelemetry.sdk.extension.trace.jaeger.proto.api_v2.Sampling.ProbabilisticSamplingStrategy;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class PerOperationSamplerTest {
+
+  private static final String TRACE_ID = "12345678876543211234567887654321";
+
+  private static OperationSamplingStrategy operation(String name, double samplingRate) {
+    return OperationSamplingStrategy.newBuilder()
+        .setOperation(name)
+        .setProbabilisticSampling(
+            ProbabilisticSamplingStrategy.newBuilder().setSamplingRate(samplingRate).build())
+        .build();
+  }
+
+  private static SamplingResult sample(Sampler sampler, String name) {
+    return sampler.shouldSample(
+        Context.root(),
+        TRACE_ID,
+        name,
+        SpanKind.INTERNAL,
+        Attributes.empty(),
+        Collections.emptyList());
+  }
+
+  @Test
+  void sharesSamplersOfSameProbability() {
+    PerOperationSampler sampler =
+        new PerOperationSampler(
+            PerOperationSamplingStrategies.newBuilder()
+                .setDefaultSamplingProbability(0.5)
+                .addPerOperationStrategies(operation("op1", 0.5))
+                .addPerOperationStrategies(operation("op2", 0.1))
+                .addPerOperationStrategies(operation("op3", 0.1))
+                .build());
+
+    assertThat(sampler.getOperationSampler("op1")).isEqualTo(Sampler.traceIdRatioBased(0.5));
+    assertThat(sampler.getOperationSampler("op2"))
+        .isEqualTo(Sampler.traceIdRatioBased(0.1))
+        .isSameAs(sampler.getOperationSampler("op3"));
+    assertThat(sampler.getOperationSampler("op4")).isNull();
+    assertThat(sampler.getDescription())
+        .isEqualTo(
+            "PerOperationSampler{default=TraceIdRatioBased{0.500000}, "
+                + "perOperation={op1=TraceIdRatioBased{0.500000}, "
+                + "op2=TraceIdRatioBased{0.100000}, op3=TraceIdRatioBased{0.100000}}}");
+  }
+
+  @Test
+  void operationsAndDefault() {
+    PerOperationSampler sampler =
+        new PerOperationSampler(
+            PerOperationSamplingStrategies.newBuilder()
+                .setDefaultSamplingProbability(1.0)
+                .addPerOperationStrategies(operation("op1", 0.0))
+                .build());
+
+    assertThat(sample(sampler, "op1").getDecision()).isEqualTo(SamplingDecision.DROP);
+    assertThat(sample(sampler, new String(new char[] {'o', 'p', '1'})).getDecision())
+        .isEqualTo(SamplingDecision.DROP);
+    assertThat(sample(sampler, "op2").getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+  }
+
+  @Test
+  void lowerBound() {
+    PerOperationSampler sampler =
+        new PerOperationSampler(
+            PerOperationSamplingStrategies.newBuilder()
+                .setDefaultSamplingProbability(0.0)
+                .setDefaultLowerBoundTracesPerSecond(1.0)
+                .addPerOperationStrategies(operation("never", 0.0))
+                .addPerOperationStrategies(operation("always", 1.0))
+                .build());
+    assertThat(sampler.getOperationSampler("never"))
+        .isInstanceOf(PerOperationSampler.GuaranteedThroughputSampler.class);
+    assertThat(sampler.getDescription())
+        .contains("never=GuaranteedThroughput{TraceIdRatioBased{0.000000}, lowerBound=1.00}");
+
+    SamplingResult result = sample(sampler, "never");
+    assertThat(result.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(result.getAttributes())
+        .isEqualTo(
+            Attributes.of(
+                RateLimitingSampler.SAMPLER_TYPE,
+                PerOperationSampler.LOWER_BOUND_TYPE,
+                RateLimitingSampler.SAMPLER_PARAM,
+                1.0));
+    assertThat(sample(sampler, "never").getDecision()).isEqualTo(SamplingDecision.DROP);
+
+    // Operations without a strategy aren't guaranteed the lower bound.
+    assertThat(sample(sampler, "other").getDecision()).isEqualTo(SamplingDecision.DROP);
+
+    result = sample(sampler, "always");
+    assertThat(result.getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(result.getAttributes()).isEqualTo(Attributes.empty());
+  }
+}
@@ -1,6 +1,8 @@
 plugins {
     id("otel.java-conventions")
     id("otel.publish-conventions")
+
+    id("otel.jmh-conventions")
 }
 
 description = "OpenTelemetry SDK Extension JFR"
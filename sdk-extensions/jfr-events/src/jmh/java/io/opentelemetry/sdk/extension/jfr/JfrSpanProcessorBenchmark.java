@@ -0,0 +1,119 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.jfr;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares starting and ending spans with {@link JfrSpanProcessor} and with a processor that
+ * materializes the {@link SpanData} of spans to create their events, as it used to, with the span
+ * event enabled or not.
+ */
+@Threads(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JfrSpanProcessorBenchmark {
+
+  @Param({"jfr", "toSpanData"})
+  private String processorName;
+
+  @Param({"true", "false"})
+  private boolean eventEnabled;
+
+  private Tracer tracer;
+  private Recording recording;
+
+  @Setup
+  public void setup() {
+    SpanProcessor processor =
+        "jfr".equals(processorName) ? new JfrSpanProcessor() : new ToSpanDataJfrSpanProcessor();
+    tracer = SdkTracerProvider.builder().addSpanProcessor(processor).build().get("benchmark");
+    recording = new Recording();
+    if (eventEnabled) {
+      recording.enable(SpanEvent.class);
+    } else {
+      recording.disable(SpanEvent.class);
+    }
+    recording.start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    recording.close();
+  }
+
+  @Benchmark
+  public void startAndEndSpan() {
+    tracer.spanBuilder("span").startSpan().end();
+  }
+
+  /** The previous implementation of {@link JfrSpanProcessor}, reading spans from their data. */
+  private static final class ToSpanDataJfrSpanProcessor implements SpanProcessor {
+
+    private final WeakConcurrentMap<SpanContext, SpanEvent> spanEvents =
+        new WeakConcurrentMap.WithInlinedExpunction<>();
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+      if (span.getSpanContext().isValid()) {
+        SpanData spanData = span.toSpanData();
+        SpanEvent event = new SpanEvent();
+        event.setFields(
+            spanData.getName(),
+            spanData.getTraceId(),
+            spanData.getSpanId(),
+            spanData.getParentSpanId());
+        event.begin();
+        spanEvents.put(span.getSpanContext(), event);
+      }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+      return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+      SpanEvent event = spanEvents.remove(span.getSpanContext());
+      if (event != null && event.shouldCommit()) {
+        event.commit();
+      }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+      return true;
+    }
+  }
+}
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.sdk.extension.jfr;
 
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
@@ -32,10 +33,21 @@ public final class JfrSpanProcessor implements SpanProcessor {
     if (closed) {
       return;
     }
-    if (span.getSpanContext().isValid()) {
-      SpanEvent event = new SpanEvent(span.toSpanData());
+    // When the event isn't enabled, the JIT can eliminate its allocation as it doesn't escape.
+    SpanEvent event = new SpanEvent();
+    if (!event.isEnabled()) {
+      return;
+    }
+    SpanContext spanContext = span.getSpanContext();
+    if (spanContext.isValid()) {
+      // Reads only the fields of the event from the span, rather than copying all of its data.
+      event.setFields(
+          span.getName(),
+          spanContext.getTraceId(),
+          spanContext.getSpanId(),
+          Span.fromContext(parentContext).getSpanContext().getSpanId());
       event.begin();
-      spanEvents.put(span.getSpanContext(), event);
+      spanEvents.put(spanContext, event);
     }
   }
 
@@ -46,6 +58,10 @@ public final class JfrSpanProcessor implements SpanProcessor {
 
   @Override
   public void onEnd(ReadableSpan rs) {
+    if (spanEvents.approximateSize() == 0) {
+      // No span was started while the event was enabled.
+      return;
+    }
     SpanEvent event = spanEvents.remove(rs.getSpanContext());
     if (!closed && event != null && event.shouldCommit()) {
       event.commit();
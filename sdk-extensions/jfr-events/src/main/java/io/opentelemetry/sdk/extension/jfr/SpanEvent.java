@@ -5,7 +5,7 @@
 
 package io.opentelemetry.sdk.extension.jfr;
 
-import io.opentelemetry.sdk.trace.data.SpanData;
+import javax.annotation.Nullable;
 import jdk.jfr.Category;
 import jdk.jfr.Description;
 import jdk.jfr.Event;
@@ -18,34 +18,42 @@ import jdk.jfr.Name;
 @Description("Open Telemetry trace event corresponding to a span.")
 class SpanEvent extends Event {
 
-  private final String operationName;
-  private final String traceId;
-  private final String spanId;
-  private final String parentId;
-
-  SpanEvent(SpanData spanData) {
-    this.operationName = spanData.getName();
-    this.traceId = spanData.getTraceId();
-    this.spanId = spanData.getSpanId();
-    this.parentId = spanData.getParentSpanId();
+  @Nullable private String operationName;
+  @Nullable private String traceId;
+  @Nullable private String spanId;
+  @Nullable private String parentId;
+
+  /**
+   * Sets the fields of the event. They are set separately from its construction so that a disabled
+   * event can be discarded without reading them.
+   */
+  void setFields(String operationName, String traceId, String spanId, String parentId) {
+    this.operationName = operationName;
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentId = parentId;
   }
 
   @Label("Operation Name")
+  @Nullable
   public String getOperationName() {
     return operationName;
   }
 
   @Label("Trace Id")
+  @Nullable
   public String getTraceId() {
     return traceId;
   }
 
   @Label("Span Id")
+  @Nullable
   public String getSpanId() {
     return spanId;
   }
 
   @Label("Parent Id")
+  @Nullable
   public String getParentId() {
     return parentId;
   }
@@ -8,7 +8,9 @@ package io.opentelemetry.sdk.extension.jfr;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
@@ -124,4 +126,48 @@ class JfrSpanProcessorTest {
       Files.delete(output);
     }
   }
+
+  /**
+   * Test a child span records its parent.
+   *
+   * @throws java.io.IOException on io error
+   */
+  @Test
+  public void childSpan() throws IOException {
+    Path output = Files.createTempFile("test-child-span", ".jfr");
+
+    try {
+      Recording recording = new Recording();
+      recording.start();
+      Span parent;
+      Span child;
+
+      try (recording) {
+        parent = tracer.spanBuilder(OPERATION_NAME).setNoParent().startSpan();
+        child = tracer.spanBuilder("Child Span").setParent(Context.root().with(parent)).startSpan();
+        child.end();
+        parent.end();
+
+        recording.dump(output);
+      }
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(output);
+      assertEquals(2, events.size());
+      RecordedEvent childEvent =
+          events.stream()
+              .filter(e -> "Child Span".equals(e.getValue("operationName")))
+              .findFirst()
+              .orElseThrow(AssertionError::new);
+      assertEquals(child.getSpanContext().getSpanId(), childEvent.getValue("spanId"));
+      assertEquals(parent.getSpanContext().getSpanId(), childEvent.getValue("parentId"));
+      RecordedEvent parentEvent =
+          events.stream()
+              .filter(e -> OPERATION_NAME.equals(e.getValue("operationName")))
+              .findFirst()
+              .orElseThrow(AssertionError::new);
+      assertEquals(SpanContext.getInvalid().getSpanId(), parentEvent.getValue("parentId"));
+    } finally {
+      Files.delete(output);
+    }
+  }
 }
@@ -19,7 +19,10 @@ dependencies {
     implementation(project(":semconv"))
     implementation("org.jctools:jctools-core:3.3.0")
 
+    compileOnly(project(":sdk:metrics"))
+
     annotationProcessor("com.google.auto.value:auto-value")
+    testImplementation(project(":sdk:metrics"))
     testImplementation(project(":sdk:testing"))
     testImplementation("com.google.guava:guava-testlib")
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures recording the metrics of an ended span with {@link SpanMetricsProcessor}. */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SpanMetricsProcessorBenchmark {
+
+  private SpanMetricsProcessor processor;
+  private ReadableSpan span;
+
+  @Setup
+  public void setup() {
+    SdkMeterProvider meterProvider =
+        SpanMetricsProcessor.registerDurationView(SdkMeterProvider.builder()).build();
+    processor = SpanMetricsProcessor.create(meterProvider);
+    Span ended =
+        SdkTracerProvider.builder()
+            .build()
+            .get("benchmark")
+            .spanBuilder("span")
+            .setSpanKind(SpanKind.SERVER)
+            .startSpan();
+    ended.end();
+    span = (ReadableSpan) ended;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void onEnd_01Thread() {
+    processor.onEnd(span);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void onEnd_08Threads() {
+    processor.onEnd(span);
+  }
+}
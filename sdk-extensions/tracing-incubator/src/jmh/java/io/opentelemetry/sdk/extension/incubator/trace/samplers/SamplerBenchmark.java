@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.samplers;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares sampling root spans by trace ID ratio and by consistent probability. */
+@Threads(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SamplerBenchmark {
+
+  private static final int TRACE_IDS = 1024;
+
+  @Param({"traceIdRatio", "consistent", "consistentPowerOfTwo"})
+  private String samplerName;
+
+  private Sampler sampler;
+  private final String[] traceIds = new String[TRACE_IDS];
+  private int index;
+
+  @Setup
+  public void setup() {
+    switch (samplerName) {
+      case "consistent":
+        sampler = ConsistentProbabilitySampler.create(0.1);
+        break;
+      case "consistentPowerOfTwo":
+        sampler = ConsistentProbabilitySampler.createPowerOfTwo(3);
+        break;
+      default:
+        sampler = Sampler.traceIdRatioBased(0.1);
+    }
+    IdGenerator idGenerator = IdGenerator.random();
+    for (int i = 0; i < TRACE_IDS; i++) {
+      traceIds[i] = idGenerator.generateTraceId();
+    }
+  }
+
+  @Benchmark
+  public TraceState shouldSample() {
+    String traceId = traceIds[index++ & (TRACE_IDS - 1)];
+    return sampler
+        .shouldSample(
+            Context.root(),
+            traceId,
+            "span",
+            SpanKind.INTERNAL,
+            Attributes.empty(),
+            Collections.emptyList())
+        .getUpdatedTraceState(TraceState.getDefault());
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.api.metrics.BoundDoubleValueRecorder;
+import io.opentelemetry.api.metrics.BoundLongCounter;
+import io.opentelemetry.api.metrics.DoubleValueRecorder;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.metrics.common.Labels;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
+import io.opentelemetry.sdk.metrics.aggregator.AggregatorFactory;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.view.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.view.View;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link SpanProcessor} that records the rate, errors and duration of all recorded spans as
+ * metrics, whether they are sampled or not. Combined with a sampler that records the spans it
+ * doesn't sample, this gives metrics for all requests while only a fraction of the spans are
+ * exported.
+ *
+ * <p>Every ended span increments the {@code spans} counter and records its duration in milliseconds
+ * with the {@code spanDuration} value recorder, both labelled with the name, kind and status code
+ * of the span. The instruments are bound once per combination of labels, so that recording a span
+ * only updates the bound instruments. To keep the number of label sets bounded, spans with names
+ * beyond the first 1000 are recorded with the name {@code other}.
+ *
+ * <p>With the metrics SDK, which is an optional dependency of this module, {@link
+ * #registerDurationView(SdkMeterProviderBuilder, List)} aggregates the durations into a histogram
+ * with the given boundaries.
+ */
+public final class SpanMetricsProcessor implements SpanProcessor {
+
+  // Visible for testing
+  static final String SPANS_NAME = "spans";
+  // Visible for testing
+  static final String SPAN_DURATION_NAME = "spanDuration";
+  // Visible for testing
+  static final int MAX_SPAN_NAMES = 1000;
+  // Visible for testing
+  static final String OTHER_SPAN_NAME = "other";
+
+  /** The default boundaries of the span duration histogram, in milliseconds. */
+  public static final List<Double> DEFAULT_DURATION_BOUNDARIES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              5d, 10d, 25d, 50d, 75d, 100d, 250d, 500d, 750d, 1000d, 2500d, 5000d, 7500d, 10000d));
+
+  private static final String INSTRUMENTATION_NAME =
+      "io.opentelemetry.sdk.extension.trace.incubator";
+  private static final String SPAN_NAME_LABEL = "spanName";
+  private static final String SPAN_KIND_LABEL = "spanKind";
+  private static final String STATUS_CODE_LABEL = "statusCode";
+
+  private static final SpanKind[] SPAN_KINDS = SpanKind.values();
+  private static final StatusCode[] STATUS_CODES = StatusCode.values();
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final LongCounter spans;
+  private final DoubleValueRecorder spanDuration;
+  // Bound instruments by span name, then indexed by span kind and status code.
+  private final ConcurrentMap<String, AtomicReferenceArray<BoundInstruments>> boundInstruments =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns a new {@link SpanMetricsProcessor} recording the metrics of spans with the given {@link
+   * MeterProvider}.
+   */
+  public static SpanMetricsProcessor create(MeterProvider meterProvider) {
+    requireNonNull(meterProvider, "meterProvider");
+    return new SpanMetricsProcessor(meterProvider.get(INSTRUMENTATION_NAME));
+  }
+
+  /**
+   * Registers a view aggregating the durations recorded by {@link SpanMetricsProcessor} into a
+   * histogram with the {@link #DEFAULT_DURATION_BOUNDARIES}.
+   *
+   * @return the given {@code meterProviderBuilder}.
+   */
+  public static SdkMeterProviderBuilder registerDurationView(
+      SdkMeterProviderBuilder meterProviderBuilder) {
+    return registerDurationView(meterProviderBuilder, DEFAULT_DURATION_BOUNDARIES);
+  }
+
+  /**
+   * Registers a view aggregating the durations recorded by {@link SpanMetricsProcessor} into a
+   * histogram with the given boundaries in milliseconds.
+   *
+   * @return the given {@code meterProviderBuilder}.
+   */
+  public static SdkMeterProviderBuilder registerDurationView(
+      SdkMeterProviderBuilder meterProviderBuilder, List<Double> boundaries) {
+    requireNonNull(meterProviderBuilder, "meterProviderBuilder");
+    requireNonNull(boundaries, "boundaries");
+    return meterProviderBuilder.registerView(
+        InstrumentSelector.builder()
+            .setInstrumentType(InstrumentType.VALUE_RECORDER)
+            .setInstrumentNameRegex(SPAN_DURATION_NAME)
+            .build(),
+        View.builder()
+            .setAggregatorFactory(
+                AggregatorFactory.histogram(boundaries, AggregationTemporality.CUMULATIVE))
+            .build());
+  }
+
+  private SpanMetricsProcessor(Meter meter) {
+    spans =
+        meter
+            .longCounterBuilder(SPANS_NAME)
+            .setUnit("1")
+            .setDescription("The number of spans ended, by span name, kind and status code")
+            .build();
+    spanDuration =
+        meter
+            .doubleValueRecorderBuilder(SPAN_DURATION_NAME)
+            .setUnit("ms")
+            .setDescription("The duration of spans, by span name, kind and status code")
+            .build();
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    // Reads all of the span at once, as its status is only exposed by its data.
+    SpanData spanData = span.toSpanData();
+    BoundInstruments instruments =
+        boundInstruments(
+            spanData.getName(), spanData.getKind(), spanData.getStatus().getStatusCode());
+    instruments.spans.add(1);
+    instruments.spanDuration.record(
+        (spanData.getEndEpochNanos() - spanData.getStartEpochNanos()) / NANOS_PER_MILLI);
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    for (AtomicReferenceArray<BoundInstruments> byKindAndStatus : boundInstruments.values()) {
+      for (int i = 0; i < byKindAndStatus.length(); i++) {
+        BoundInstruments instruments = byKindAndStatus.getAndSet(i, null);
+        if (instruments != null) {
+          instruments.unbind();
+        }
+      }
+    }
+    boundInstruments.clear();
+    return CompletableResultCode.ofSuccess();
+  }
+
+  private BoundInstruments boundInstruments(
+      String spanName, SpanKind spanKind, StatusCode statusCode) {
+    AtomicReferenceArray<BoundInstruments> byKindAndStatus = boundInstruments.get(spanName);
+    if (byKindAndStatus == null && boundInstruments.size() >= MAX_SPAN_NAMES) {
+      // Once the overflow entry exists, looking it up avoids the lock computeIfAbsent may take.
+      spanName = OTHER_SPAN_NAME;
+      byKindAndStatus = boundInstruments.get(spanName);
+    }
+    if (byKindAndStatus == null) {
+      byKindAndStatus =
+          boundInstruments.computeIfAbsent(
+              spanName,
+              unused -> new AtomicReferenceArray<>(SPAN_KINDS.length * STATUS_CODES.length));
+    }
+    int index = spanKind.ordinal() * STATUS_CODES.length + statusCode.ordinal();
+    BoundInstruments instruments = byKindAndStatus.get(index);
+    if (instruments == null) {
+      Labels labels =
+          Labels.of(
+              SPAN_NAME_LABEL,
+              spanName,
+              SPAN_KIND_LABEL,
+              spanKind.name(),
+              STATUS_CODE_LABEL,
+              statusCode.name());
+      instruments = new BoundInstruments(spans.bind(labels), spanDuration.bind(labels));
+      if (!byKindAndStatus.compareAndSet(index, null, instruments)) {
+        BoundInstruments existing = byKindAndStatus.get(index);
+        if (existing != null) {
+          instruments.unbind();
+          return existing;
+        }
+      }
+    }
+    return instruments;
+  }
+
+  private static final class BoundInstruments {
+    private final BoundLongCounter spans;
+    private final BoundDoubleValueRecorder spanDuration;
+
+    private BoundInstruments(BoundLongCounter spans, BoundDoubleValueRecorder spanDuration) {
+      this.spans = spans;
+      this.spanDuration = spanDuration;
+    }
+
+    private void unbind() {
+      spans.unbind();
+      spanDuration.unbind();
+    }
+  }
+}
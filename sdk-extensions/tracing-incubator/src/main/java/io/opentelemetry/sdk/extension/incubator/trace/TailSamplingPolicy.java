@@ -0,0 +1,90 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.internal.RateLimiter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A policy of a {@link TailSamplingSpanProcessor}, deciding whether to sample a trace from the
+ * spans of it that have ended.
+ */
+@FunctionalInterface
+public interface TailSamplingPolicy {
+
+  /** Returns a {@link TailSamplingPolicy} that samples traces with a span that has an error. */
+  static TailSamplingPolicy error() {
+    return trace -> {
+      for (SpanData span : trace) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that samples traces with a span that took at least the
+   * given {@code threshold}.
+   */
+  static TailSamplingPolicy latency(Duration threshold) {
+    requireNonNull(threshold, "threshold");
+    long thresholdNanos = threshold.toNanos();
+    return trace -> {
+      for (SpanData span : trace) {
+        if (span.getEndEpochNanos() - span.getStartEpochNanos() >= thresholdNanos) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that samples traces with a span that has the attribute
+   * {@code key} set to {@code value}.
+   */
+  static <T> TailSamplingPolicy attribute(AttributeKey<T> key, T value) {
+    requireNonNull(key, "key");
+    requireNonNull(value, "value");
+    return trace -> {
+      for (SpanData span : trace) {
+        if (value.equals(span.getAttributes().get(key))) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  /**
+   * Returns a {@link TailSamplingPolicy} that samples up to {@code tracesPerSecond} of the traces
+   * it is asked about, as a baseline of the traces no other policy samples. As policies are asked
+   * in order, it should be added last.
+   */
+  static TailSamplingPolicy rateLimited(double tracesPerSecond) {
+    checkArgument(tracesPerSecond > 0, "tracesPerSecond must be positive");
+    RateLimiter rateLimiter =
+        new RateLimiter(tracesPerSecond, Math.max(tracesPerSecond, 1.0), Clock.getDefault());
+    return trace -> rateLimiter.trySpend(1.0);
+  }
+
+  /**
+   * Returns whether to sample the trace with the given spans. The spans are those of the trace that
+   * ended before the decision, which is made when the local root span ends, or when the trace
+   * exceeds the decision wait or has to be evicted.
+   */
+  boolean shouldSample(List<SpanData> trace);
+}
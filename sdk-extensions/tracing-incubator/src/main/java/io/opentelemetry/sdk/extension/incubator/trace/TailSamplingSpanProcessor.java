@@ -0,0 +1,355 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import io.opentelemetry.api.metrics.BoundLongCounter;
+import io.opentelemetry.api.metrics.BoundLongValueRecorder;
+import io.opentelemetry.api.metrics.GlobalMeterProvider;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.common.Labels;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link SpanProcessor} that samples whole traces after their spans have ended, forwarding the
+ * spans of the traces it samples to another {@link SpanProcessor}, usually a batch span processor.
+ *
+ * <p>Sampled spans are buffered per trace until the local root span of the trace ends, or the
+ * decision wait has passed since the first span of the trace ended. The {@link TailSamplingPolicy}
+ * policies then decide on the buffered spans, and spans of the trace ending later within the
+ * decision wait follow that decision. Spans that aren't sampled are forwarded right away. Each
+ * buffered span is converted to {@link SpanData} once, when it ends, for the policies to decide on.
+ *
+ * <p>The number of buffered spans and of tracked traces are capped: when either is exceeded, the
+ * oldest traces are decided early and evicted. The processor records the number of buffered spans
+ * and traces, the traces sampled and dropped, the traces evicted before their decision and the
+ * latency of decisions from the first span of a trace ending.
+ */
+@SuppressWarnings("FutureReturnValueIgnored")
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+  private static final Logger logger = Logger.getLogger(TailSamplingSpanProcessor.class.getName());
+
+  private static final String SPAN_PROCESSOR_TYPE_LABEL = "spanProcessorType";
+  private static final String SPAN_PROCESSOR_TYPE_VALUE =
+      TailSamplingSpanProcessor.class.getSimpleName();
+  private static final Labels SPAN_PROCESSOR_LABELS =
+      Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE);
+  private static final Labels SPAN_PROCESSOR_SAMPLED_LABELS =
+      Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE, "sampled", "true");
+  private static final Labels SPAN_PROCESSOR_DROPPED_LABELS =
+      Labels.of(SPAN_PROCESSOR_TYPE_LABEL, SPAN_PROCESSOR_TYPE_VALUE, "sampled", "false");
+
+  private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final int PENDING = 0;
+  private static final int SAMPLED = 1;
+  private static final int DROPPED = 2;
+
+  private final SpanProcessor spanProcessor;
+  private final List<TailSamplingPolicy> policies;
+  private final long decisionWaitNanos;
+  private final int maxBufferedSpans;
+  private final int maxBufferedTraces;
+  private final Clock clock;
+  private final ConcurrentMap<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+  // Traces in the order their first span ended, both to time them out and to evict the oldest.
+  private final Queue<TraceBuffer> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger bufferedSpans = new AtomicInteger();
+  private final AtomicInteger bufferedTraces = new AtomicInteger();
+  private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+  private final ScheduledExecutorService executorService;
+  private final BoundLongCounter sampledTraces;
+  private final BoundLongCounter droppedTraces;
+  private final BoundLongCounter evictedTraces;
+  private final BoundLongValueRecorder decisionLatency;
+
+  /**
+   * Returns a new {@link TailSamplingSpanProcessorBuilder} for a {@link TailSamplingSpanProcessor}
+   * forwarding the spans of sampled traces to the given {@code spanProcessor}.
+   *
+   * @param spanProcessor the {@link SpanProcessor} to forward the spans of sampled traces to.
+   */
+  public static TailSamplingSpanProcessorBuilder builder(SpanProcessor spanProcessor) {
+    return new TailSamplingSpanProcessorBuilder(spanProcessor);
+  }
+
+  TailSamplingSpanProcessor(
+      SpanProcessor spanProcessor,
+      List<TailSamplingPolicy> policies,
+      long decisionWaitNanos,
+      int maxBufferedSpans,
+      int maxBufferedTraces,
+      Clock clock) {
+    this.spanProcessor = spanProcessor;
+    this.policies = policies;
+    this.decisionWaitNanos = decisionWaitNanos;
+    this.maxBufferedSpans = maxBufferedSpans;
+    this.maxBufferedTraces = maxBufferedTraces;
+    this.clock = clock;
+
+    Meter meter = GlobalMeterProvider.getMeter("io.opentelemetry.sdk.trace");
+    meter
+        .longValueObserverBuilder("bufferedSpans")
+        .setDescription("The number of spans buffered until their trace is decided")
+        .setUnit("1")
+        .setUpdater(result -> result.observe(bufferedSpans.get(), SPAN_PROCESSOR_LABELS))
+        .build();
+    meter
+        .longValueObserverBuilder("bufferedTraces")
+        .setDescription("The number of traces tracked until their decision wait has passed")
+        .setUnit("1")
+        .setUpdater(result -> result.observe(bufferedTraces.get(), SPAN_PROCESSOR_LABELS))
+        .build();
+    LongCounter processedTracesCounter =
+        meter
+            .longCounterBuilder("processedTraces")
+            .setUnit("1")
+            .setDescription(
+                "The number of traces decided by the TailSamplingSpanProcessor. "
+                    + "[sampled=false if they were dropped]")
+            .build();
+    sampledTraces = processedTracesCounter.bind(SPAN_PROCESSOR_SAMPLED_LABELS);
+    droppedTraces = processedTracesCounter.bind(SPAN_PROCESSOR_DROPPED_LABELS);
+    evictedTraces =
+        meter
+            .longCounterBuilder("evictedTraces")
+            .setUnit("1")
+            .setDescription(
+                "The number of traces decided early because too many spans or traces were "
+                    + "buffered")
+            .build()
+            .bind(SPAN_PROCESSOR_LABELS);
+    decisionLatency =
+        meter
+            .longValueRecorderBuilder("decisionLatency")
+            .setUnit("ms")
+            .setDescription("The time from the first span of a trace ending to its decision")
+            .build()
+            .bind(SPAN_PROCESSOR_LABELS);
+
+    long sweepIntervalNanos = Math.max(decisionWaitNanos / 10, MIN_SWEEP_INTERVAL_NANOS);
+    executorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new DaemonThreadFactory(SPAN_PROCESSOR_TYPE_VALUE + "_Sweeper"));
+    executorService.scheduleWithFixedDelay(
+        this::sweep, sweepIntervalNanos, sweepIntervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    spanProcessor.onStart(parentContext, span);
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return spanProcessor.isStartRequired();
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    SpanContext spanContext = span.getSpanContext();
+    if (!spanContext.isSampled() || isShutdown.get()) {
+      spanProcessor.onEnd(span);
+      return;
+    }
+    SpanData spanData = span.toSpanData();
+    String traceId = spanContext.getTraceId();
+    TraceBuffer buffer = traces.get(traceId);
+    int decision = PENDING;
+    if (buffer == null) {
+      TraceBuffer created = new TraceBuffer(span, spanData, clock.nanoTime());
+      buffer = traces.putIfAbsent(traceId, created);
+      if (buffer == null) {
+        buffer = created;
+        bufferedSpans.incrementAndGet();
+        queue.offer(created);
+        if (bufferedTraces.incrementAndGet() > maxBufferedTraces) {
+          evictOldest();
+        }
+      } else {
+        decision = buffer.add(span, spanData);
+      }
+    } else {
+      decision = buffer.add(span, spanData);
+    }
+
+    if (decision == SAMPLED) {
+      spanProcessor.onEnd(span);
+    } else if (decision == PENDING) {
+      if (isLocalRoot(spanData)) {
+        decide(buffer);
+      }
+      while (bufferedSpans.get() > maxBufferedSpans && evictOldest()) {
+        // Keep evicting the oldest traces until the spans fit.
+      }
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  /** Decides all pending traces on the spans buffered so far, then shuts down the processor. */
+  @Override
+  public CompletableResultCode shutdown() {
+    if (isShutdown.getAndSet(true)) {
+      return CompletableResultCode.ofSuccess();
+    }
+    executorService.shutdown();
+    decideAll();
+    return spanProcessor.shutdown();
+  }
+
+  /** Decides all pending traces on the spans buffered so far, then flushes the processor. */
+  @Override
+  public CompletableResultCode forceFlush() {
+    decideAll();
+    return spanProcessor.forceFlush();
+  }
+
+  // Visible for testing
+  synchronized void sweep() {
+    long now = clock.nanoTime();
+    TraceBuffer oldest;
+    while ((oldest = queue.peek()) != null && now - oldest.startNanos >= decisionWaitNanos) {
+      if (queue.remove(oldest)) {
+        remove(oldest);
+        decide(oldest);
+      }
+    }
+  }
+
+  // Visible for testing
+  int getBufferedSpans() {
+    return bufferedSpans.get();
+  }
+
+  // Visible for testing
+  int getBufferedTraces() {
+    return bufferedTraces.get();
+  }
+
+  private boolean evictOldest() {
+    TraceBuffer oldest = queue.poll();
+    if (oldest == null) {
+      return false;
+    }
+    remove(oldest);
+    if (decide(oldest)) {
+      evictedTraces.add(1);
+    }
+    return true;
+  }
+
+  private void remove(TraceBuffer buffer) {
+    traces.remove(buffer.traceId, buffer);
+    bufferedTraces.decrementAndGet();
+  }
+
+  private void decideAll() {
+    for (TraceBuffer buffer : traces.values()) {
+      decide(buffer);
+    }
+  }
+
+  /** Decides the trace of the given buffer unless it already was, returning whether it wasn't. */
+  private boolean decide(TraceBuffer buffer) {
+    List<ReadableSpan> spans;
+    boolean sample;
+    synchronized (buffer) {
+      if (buffer.decision != PENDING) {
+        return false;
+      }
+      spans = buffer.spans;
+      buffer.spans = Collections.emptyList();
+      sample = shouldSample(buffer.spanData);
+      buffer.spanData = Collections.emptyList();
+      buffer.decision = sample ? SAMPLED : DROPPED;
+    }
+    bufferedSpans.addAndGet(-spans.size());
+    decisionLatency.record(TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - buffer.startNanos));
+    if (sample) {
+      sampledTraces.add(1);
+      for (ReadableSpan span : spans) {
+        spanProcessor.onEnd(span);
+      }
+    } else {
+      droppedTraces.add(1);
+    }
+    return true;
+  }
+
+  private boolean shouldSample(List<SpanData> spans) {
+    List<SpanData> trace = Collections.unmodifiableList(spans);
+    for (TailSamplingPolicy policy : policies) {
+      try {
+        if (policy.shouldSample(trace)) {
+          return true;
+        }
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Exception thrown by a tail sampling policy.", e);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLocalRoot(SpanData span) {
+    SpanContext parentSpanContext = span.getParentSpanContext();
+    return !parentSpanContext.isValid() || parentSpanContext.isRemote();
+  }
+
+  private final class TraceBuffer {
+    private final String traceId;
+    private final long startNanos;
+    // Guarded by this.
+    private List<ReadableSpan> spans = new ArrayList<>();
+    // The data of the buffered spans, in the same order. Guarded by this.
+    private List<SpanData> spanData = new ArrayList<>();
+    // Guarded by this.
+    private int decision = PENDING;
+
+    private TraceBuffer(ReadableSpan span, SpanData data, long startNanos) {
+      this.traceId = span.getSpanContext().getTraceId();
+      this.startNanos = startNanos;
+      spans.add(span);
+      spanData.add(data);
+    }
+
+    /** Buffers the span if the trace is pending, returning the decision of the trace. */
+    private synchronized int add(ReadableSpan span, SpanData data) {
+      if (decision == PENDING) {
+        spans.add(span);
+        spanData.add(data);
+        bufferedSpans.incrementAndGet();
+      }
+      return decision;
+    }
+  }
+}
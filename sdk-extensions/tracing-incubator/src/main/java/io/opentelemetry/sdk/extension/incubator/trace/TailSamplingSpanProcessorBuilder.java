@@ -0,0 +1,133 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder class for the {@link TailSamplingSpanProcessor}.
+ *
+ * @see TailSamplingSpanProcessor#builder(SpanProcessor)
+ */
+public final class TailSamplingSpanProcessorBuilder {
+
+  // Visible for testing
+  static final long DEFAULT_DECISION_WAIT_MILLIS = 30_000;
+  // Visible for testing
+  static final int DEFAULT_MAX_BUFFERED_SPANS = 100_000;
+  // Visible for testing
+  static final int DEFAULT_MAX_BUFFERED_TRACES = 10_000;
+
+  private final SpanProcessor spanProcessor;
+  private final List<TailSamplingPolicy> policies = new ArrayList<>();
+  private long decisionWaitNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_DECISION_WAIT_MILLIS);
+  private int maxBufferedSpans = DEFAULT_MAX_BUFFERED_SPANS;
+  private int maxBufferedTraces = DEFAULT_MAX_BUFFERED_TRACES;
+  private Clock clock = Clock.getDefault();
+
+  TailSamplingSpanProcessorBuilder(SpanProcessor spanProcessor) {
+    this.spanProcessor = requireNonNull(spanProcessor, "spanProcessor");
+  }
+
+  /**
+   * Adds a {@link TailSamplingPolicy}. Policies are asked in the order they were added, and a trace
+   * is sampled as soon as one of them samples it. Traces no policy samples are dropped.
+   */
+  public TailSamplingSpanProcessorBuilder addPolicy(TailSamplingPolicy policy) {
+    requireNonNull(policy, "policy");
+    policies.add(policy);
+    return this;
+  }
+
+  /**
+   * Sets the time to wait after the first span of a trace ends for its local root span to end,
+   * before deciding on the spans buffered by then. Spans of the trace ending later within that time
+   * follow the decision. If unset, defaults to {@value DEFAULT_DECISION_WAIT_MILLIS}ms.
+   */
+  public TailSamplingSpanProcessorBuilder setDecisionWait(long decisionWait, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    checkArgument(decisionWait > 0, "decisionWait must be positive");
+    decisionWaitNanos = unit.toNanos(decisionWait);
+    return this;
+  }
+
+  /**
+   * Sets the time to wait after the first span of a trace ends for its local root span to end,
+   * before deciding on the spans buffered by then. Spans of the trace ending later within that time
+   * follow the decision. If unset, defaults to {@value DEFAULT_DECISION_WAIT_MILLIS}ms.
+   */
+  public TailSamplingSpanProcessorBuilder setDecisionWait(Duration decisionWait) {
+    requireNonNull(decisionWait, "decisionWait");
+    return setDecisionWait(decisionWait.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  // Visible for testing
+  long getDecisionWaitNanos() {
+    return decisionWaitNanos;
+  }
+
+  /**
+   * Sets the maximum number of spans buffered over all traces. When it is exceeded, the oldest
+   * traces are decided early on the spans buffered by then. If unset, defaults to {@value
+   * DEFAULT_MAX_BUFFERED_SPANS}.
+   */
+  public TailSamplingSpanProcessorBuilder setMaxBufferedSpans(int maxBufferedSpans) {
+    checkArgument(maxBufferedSpans > 0, "maxBufferedSpans must be positive");
+    this.maxBufferedSpans = maxBufferedSpans;
+    return this;
+  }
+
+  // Visible for testing
+  int getMaxBufferedSpans() {
+    return maxBufferedSpans;
+  }
+
+  /**
+   * Sets the maximum number of traces tracked, including those already decided but still within
+   * their decision wait. When it is exceeded, the oldest traces are evicted. If unset, defaults to
+   * {@value DEFAULT_MAX_BUFFERED_TRACES}.
+   */
+  public TailSamplingSpanProcessorBuilder setMaxBufferedTraces(int maxBufferedTraces) {
+    checkArgument(maxBufferedTraces > 0, "maxBufferedTraces must be positive");
+    this.maxBufferedTraces = maxBufferedTraces;
+    return this;
+  }
+
+  // Visible for testing
+  int getMaxBufferedTraces() {
+    return maxBufferedTraces;
+  }
+
+  // Visible for testing
+  TailSamplingSpanProcessorBuilder setClock(Clock clock) {
+    this.clock = requireNonNull(clock, "clock");
+    return this;
+  }
+
+  /**
+   * Returns a new {@link TailSamplingSpanProcessor} that buffers the spans of each trace and
+   * forwards those of the traces it samples to the given {@code spanProcessor}.
+   *
+   * @return a new {@link TailSamplingSpanProcessor}.
+   */
+  public TailSamplingSpanProcessor build() {
+    return new TailSamplingSpanProcessor(
+        spanProcessor,
+        new ArrayList<>(policies),
+        decisionWaitNanos,
+        maxBufferedSpans,
+        maxBufferedTraces,
+        clock);
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.samplers;
+
+import static io.opentelemetry.sdk.extension.incubator.trace.samplers.OtTraceState.MAX_DIGITS;
+import static io.opentelemetry.sdk.extension.incubator.trace.samplers.OtTraceState.MAX_THRESHOLD;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A {@link Sampler} making consistent probability sampling decisions, so that services sampling the
+ * same trace with different probabilities sample complete sub-traces: a span is sampled if the
+ * randomness value of its trace is at least the threshold of the sampler. The randomness value is
+ * the least significant 56 bits of the trace ID, or the {@code rv} sub-key of the {@code ot} entry
+ * of the parent's {@link TraceState} if it has one.
+ *
+ * <p>The threshold of sampled spans is recorded as the {@code th} sub-key of the {@code ot} entry
+ * of their {@link TraceState}, and propagated with it, so that downstream services and processors
+ * can compute the number of spans each one represents with {@link #getAdjustedCount(TraceState)}.
+ *
+ * <p>The threshold is precomputed as hexadecimal digits, which are compared with those of the trace
+ * ID as characters, so deciding doesn't parse the trace ID and mostly reads a single character.
+ */
+@Immutable
+public final class ConsistentProbabilitySampler implements Sampler {
+
+  // The trace ID is 32 digits, of which the last 14 are the randomness value.
+  private static final int RANDOMNESS_OFFSET = 32 - MAX_DIGITS;
+
+  private static final SamplingResult NEVER_SAMPLED = new DroppedResult();
+
+  /**
+   * Returns a {@link ConsistentProbabilitySampler} which samples traces with the given probability.
+   *
+   * @param ratio the probability of sampling a trace, in range [0.0, 1.0].
+   * @throws IllegalArgumentException if {@code ratio} is out of range.
+   */
+  public static ConsistentProbabilitySampler create(double ratio) {
+    if (ratio < 0.0 || ratio > 1.0) {
+      throw new IllegalArgumentException("ratio must be in range [0.0, 1.0]");
+    }
+    long sampledValues = Math.round(ratio * MAX_THRESHOLD);
+    if (ratio > 0.0 && sampledValues == 0) {
+      // Don't round a positive probability down to never sampling.
+      sampledValues = 1;
+    }
+    return new ConsistentProbabilitySampler(MAX_THRESHOLD - sampledValues);
+  }
+
+  /**
+   * Returns a {@link ConsistentProbabilitySampler} which samples traces with probability {@code
+   * 2^-exponent}, which is represented exactly and has an integer adjusted count.
+   *
+   * @param exponent the negated base-2 logarithm of the probability, in range [0, 56].
+   * @throws IllegalArgumentException if {@code exponent} is out of range.
+   */
+  public static ConsistentProbabilitySampler createPowerOfTwo(int exponent) {
+    if (exponent < 0 || exponent > 56) {
+      throw new IllegalArgumentException("exponent must be in range [0, 56]");
+    }
+    return new ConsistentProbabilitySampler(MAX_THRESHOLD - (MAX_THRESHOLD >>> exponent));
+  }
+
+  /**
+   * Returns the number of spans a sampled span with the given {@link TraceState} represents, which
+   * is the inverse of the probability it was sampled with, or {@link Double#NaN} if the {@link
+   * TraceState} records no valid threshold.
+   */
+  public static double getAdjustedCount(TraceState traceState) {
+    String ot = traceState.get(OtTraceState.KEY);
+    if (ot == null) {
+      return Double.NaN;
+    }
+    String threshold = OtTraceState.get(ot, OtTraceState.THRESHOLD_KEY);
+    if (threshold == null) {
+      return Double.NaN;
+    }
+    long decoded = OtTraceState.decodeThreshold(threshold);
+    if (decoded < 0) {
+      return Double.NaN;
+    }
+    return (double) MAX_THRESHOLD / (MAX_THRESHOLD - decoded);
+  }
+
+  private final long threshold;
+  // The 14 digits of the threshold, unless the sampler never samples.
+  private final char[] thresholdDigits;
+  private final SamplingResult sampled;
+  private final String description;
+
+  private ConsistentProbabilitySampler(long threshold) {
+    this.threshold = threshold;
+    if (threshold < MAX_THRESHOLD) {
+      thresholdDigits = OtTraceState.toDigits(threshold);
+      sampled = new SampledResult(OtTraceState.encodeThreshold(threshold));
+    } else {
+      thresholdDigits = new char[0];
+      sampled = NEVER_SAMPLED;
+    }
+    description =
+        String.format(
+            "ConsistentProbabilitySampler{%.6f}",
+            (double) (MAX_THRESHOLD - threshold) / MAX_THRESHOLD);
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+      Context parentContext,
+      String traceId,
+      String name,
+      SpanKind spanKind,
+      Attributes attributes,
+      List<LinkData> parentLinks) {
+    if (threshold == MAX_THRESHOLD) {
+      return NEVER_SAMPLED;
+    }
+    TraceState parentTraceState = Span.fromContext(parentContext).getSpanContext().getTraceState();
+    String randomness = parentTraceState.isEmpty() ? null : randomness(parentTraceState);
+    boolean isSampled =
+        randomness != null
+            ? isAtLeastThreshold(randomness, 0)
+            : isAtLeastThreshold(traceId, RANDOMNESS_OFFSET);
+    return isSampled ? sampled : NEVER_SAMPLED;
+  }
+
+  @Nullable
+  private static String randomness(TraceState traceState) {
+    String ot = traceState.get(OtTraceState.KEY);
+    if (ot == null) {
+      return null;
+    }
+    String randomness = OtTraceState.get(ot, OtTraceState.RANDOMNESS_KEY);
+    return randomness != null && OtTraceState.isValidRandomness(randomness) ? randomness : null;
+  }
+
+  // Compares the 14 digits at the offset with those of the threshold. Lowercase hexadecimal digits
+  // order the same as the values they represent.
+  private boolean isAtLeastThreshold(String digits, int offset) {
+    for (int i = 0; i < MAX_DIGITS; i++) {
+      char digit = digits.charAt(offset + i);
+      char thresholdDigit = thresholdDigits[i];
+      if (digit != thresholdDigit) {
+        return digit > thresholdDigit;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ConsistentProbabilitySampler)) {
+      return false;
+    }
+    ConsistentProbabilitySampler that = (ConsistentProbabilitySampler) obj;
+    return threshold == that.threshold;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(threshold);
+  }
+
+  @Override
+  public String toString() {
+    return getDescription();
+  }
+
+  // Visible for testing
+  long getThreshold() {
+    return threshold;
+  }
+
+  // Records the threshold in the trace state. A sampler has a single instance, and the trace state
+  // of root spans is computed once.
+  private static final class SampledResult implements SamplingResult {
+    private final String threshold;
+    private final TraceState rootTraceState;
+
+    private SampledResult(String threshold) {
+      this.threshold = threshold;
+      rootTraceState =
+          TraceState.builder()
+              .put(OtTraceState.KEY, OtTraceState.withThreshold(null, threshold))
+              .build();
+    }
+
+    @Override
+    public SamplingDecision getDecision() {
+      return SamplingDecision.RECORD_AND_SAMPLE;
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return Attributes.empty();
+    }
+
+    @Override
+    public TraceState getUpdatedTraceState(TraceState parentTraceState) {
+      if (parentTraceState.isEmpty()) {
+        return rootTraceState;
+      }
+      String ot = parentTraceState.get(OtTraceState.KEY);
+      String updated = OtTraceState.withThreshold(ot, threshold);
+      if (updated.equals(ot)) {
+        return parentTraceState;
+      }
+      return parentTraceState.toBuilder().put(OtTraceState.KEY, updated).build();
+    }
+  }
+
+  // Removes any threshold from the trace state, as it only describes sampled spans.
+  private static final class DroppedResult implements SamplingResult {
+    @Override
+    public SamplingDecision getDecision() {
+      return SamplingDecision.DROP;
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return Attributes.empty();
+    }
+
+    @Override
+    public TraceState getUpdatedTraceState(TraceState parentTraceState) {
+      if (parentTraceState.isEmpty()) {
+        return parentTraceState;
+      }
+      String ot = parentTraceState.get(OtTraceState.KEY);
+      if (ot == null) {
+        return parentTraceState;
+      }
+      String updated = OtTraceState.withThreshold(ot, null);
+      if (updated.equals(ot)) {
+        return parentTraceState;
+      }
+      if (updated.isEmpty()) {
+        return parentTraceState.toBuilder().remove(OtTraceState.KEY).build();
+      }
+      return parentTraceState.toBuilder().put(OtTraceState.KEY, updated).build();
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.samplers;
+
+import io.opentelemetry.api.internal.OtelEncodingUtils;
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes the value of the {@code ot} entry of a {@link
+ * io.opentelemetry.api.trace.TraceState}, which is a list of {@code key:value} sub-keys separated
+ * by {@code ;}, such as {@code th:c;rv:0123456789abcd}.
+ */
+final class OtTraceState {
+
+  static final String KEY = "ot";
+  static final String THRESHOLD_KEY = "th";
+  static final String RANDOMNESS_KEY = "rv";
+
+  // Thresholds and randomness values are 56 bits, written as up to 14 hexadecimal digits.
+  static final int MAX_DIGITS = 14;
+  static final long MAX_THRESHOLD = 1L << 56;
+
+  /** Returns the value of the given sub-key, or {@code null} if there is none. */
+  @Nullable
+  static String get(String ot, String subKey) {
+    int start = 0;
+    while (start < ot.length()) {
+      int end = ot.indexOf(';', start);
+      if (end < 0) {
+        end = ot.length();
+      }
+      if (end - start > subKey.length()
+          && ot.charAt(start + subKey.length()) == ':'
+          && ot.startsWith(subKey, start)) {
+        return ot.substring(start + subKey.length() + 1, end);
+      }
+      start = end + 1;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the given {@code ot} value with its threshold replaced by the given one, or removed if
+   * it is {@code null}. Returns an empty string if no sub-keys are left.
+   */
+  static String withThreshold(@Nullable String ot, @Nullable String threshold) {
+    StringBuilder sb = new StringBuilder();
+    if (threshold != null) {
+      sb.append(THRESHOLD_KEY).append(':').append(threshold);
+    }
+    if (ot != null) {
+      int start = 0;
+      while (start < ot.length()) {
+        int end = ot.indexOf(';', start);
+        if (end < 0) {
+          end = ot.length();
+        }
+        boolean isThreshold =
+            end - start > THRESHOLD_KEY.length()
+                && ot.charAt(start + THRESHOLD_KEY.length()) == ':'
+                && ot.startsWith(THRESHOLD_KEY, start);
+        if (!isThreshold && end > start) {
+          if (sb.length() > 0) {
+            sb.append(';');
+          }
+          sb.append(ot, start, end);
+        }
+        start = end + 1;
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the encoding of the given threshold, which is its 14 hexadecimal digits without
+   * trailing zeros, keeping at least one digit.
+   */
+  static String encodeThreshold(long threshold) {
+    char[] digits = toDigits(threshold);
+    int length = MAX_DIGITS;
+    while (length > 1 && digits[length - 1] == '0') {
+      length--;
+    }
+    return new String(digits, 0, length);
+  }
+
+  /** Returns the threshold with the given encoding, or {@code -1} if it is not valid. */
+  static long decodeThreshold(String threshold) {
+    if (threshold.isEmpty()
+        || threshold.length() > MAX_DIGITS
+        || !OtelEncodingUtils.isValidBase16String(threshold)) {
+      return -1;
+    }
+    return Long.parseLong(threshold, 16) << (4 * (MAX_DIGITS - threshold.length()));
+  }
+
+  /** Returns whether the given value is a valid randomness value, which is 14 digits. */
+  static boolean isValidRandomness(String randomness) {
+    return randomness.length() == MAX_DIGITS && OtelEncodingUtils.isValidBase16String(randomness);
+  }
+
+  /** Returns the 14 hexadecimal digits of the given value less than {@link #MAX_THRESHOLD}. */
+  static char[] toDigits(long value) {
+    char[] digits = new char[16];
+    OtelEncodingUtils.longToBase16String(value, digits, 0);
+    char[] result = new char[MAX_DIGITS];
+    System.arraycopy(digits, 16 - MAX_DIGITS, result, 0, MAX_DIGITS);
+    return result;
+  }
+
+  private OtTraceState() {}
+}
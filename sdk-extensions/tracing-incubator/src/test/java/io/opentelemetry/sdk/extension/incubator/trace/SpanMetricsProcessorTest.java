@@ -0,0 +1,155 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.DoubleHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class SpanMetricsProcessorTest {
+
+  private static final AttributeKey<String> SPAN_NAME = AttributeKey.stringKey("spanName");
+  private static final AttributeKey<String> SPAN_KIND = AttributeKey.stringKey("spanKind");
+  private static final AttributeKey<String> STATUS_CODE = AttributeKey.stringKey("statusCode");
+
+  private final TestClock clock = TestClock.create();
+  private final SdkMeterProvider meterProvider =
+      SpanMetricsProcessor.registerDurationView(
+              SdkMeterProvider.builder(), Arrays.asList(10d, 100d))
+          .build();
+  private final Tracer tracer =
+      SdkTracerProvider.builder()
+          .setClock(clock)
+          .setSampler(new RecordOnlySampler())
+          .addSpanProcessor(SpanMetricsProcessor.create(meterProvider))
+          .build()
+          .get("test");
+
+  @Test
+  void recordsRecordedSpans() {
+    endSpan("get", SpanKind.SERVER, Duration.ofMillis(5), StatusCode.UNSET);
+    endSpan("get", SpanKind.SERVER, Duration.ofMillis(500), StatusCode.UNSET);
+    endSpan("get", SpanKind.SERVER, Duration.ofMillis(50), StatusCode.ERROR);
+    endSpan("query", SpanKind.CLIENT, Duration.ofMillis(1), StatusCode.OK);
+
+    Collection<MetricData> metrics = meterProvider.collectAllMetrics();
+    List<LongPointData> spans = longPoints(metrics, SpanMetricsProcessor.SPANS_NAME);
+    assertThat(spans).hasSize(3);
+    assertThat(find(spans, "get", SpanKind.SERVER, StatusCode.UNSET).getValue()).isEqualTo(2);
+    assertThat(find(spans, "get", SpanKind.SERVER, StatusCode.ERROR).getValue()).isEqualTo(1);
+    assertThat(find(spans, "query", SpanKind.CLIENT, StatusCode.OK).getValue()).isEqualTo(1);
+
+    List<DoubleHistogramPointData> durations =
+        histogramPoints(metrics, SpanMetricsProcessor.SPAN_DURATION_NAME);
+    assertThat(durations).hasSize(3);
+    DoubleHistogramPointData getDurations =
+        find(durations, "get", SpanKind.SERVER, StatusCode.UNSET);
+    assertThat(getDurations.getBoundaries()).containsExactly(10d, 100d);
+    assertThat(getDurations.getCounts()).containsExactly(1L, 0L, 1L);
+    assertThat(getDurations.getSum()).isEqualTo(505d);
+    assertThat(find(durations, "get", SpanKind.SERVER, StatusCode.ERROR).getCounts())
+        .containsExactly(0L, 1L, 0L);
+  }
+
+  @Test
+  void tooManySpanNames_recordedAsOther() {
+    for (int i = 0; i < SpanMetricsProcessor.MAX_SPAN_NAMES; i++) {
+      endSpan("span" + i, SpanKind.INTERNAL, Duration.ofMillis(1), StatusCode.UNSET);
+    }
+    endSpan("extra", SpanKind.INTERNAL, Duration.ofMillis(1), StatusCode.UNSET);
+    endSpan("span0", SpanKind.INTERNAL, Duration.ofMillis(1), StatusCode.UNSET);
+
+    List<LongPointData> spans =
+        longPoints(meterProvider.collectAllMetrics(), SpanMetricsProcessor.SPANS_NAME);
+    assertThat(spans).hasSize(SpanMetricsProcessor.MAX_SPAN_NAMES + 1);
+    assertThat(
+            find(spans, SpanMetricsProcessor.OTHER_SPAN_NAME, SpanKind.INTERNAL, StatusCode.UNSET)
+                .getValue())
+        .isEqualTo(1);
+    assertThat(find(spans, "span0", SpanKind.INTERNAL, StatusCode.UNSET).getValue()).isEqualTo(2);
+  }
+
+  private void endSpan(String name, SpanKind kind, Duration duration, StatusCode statusCode) {
+    Span span = tracer.spanBuilder(name).setSpanKind(kind).startSpan();
+    span.setStatus(statusCode);
+    clock.advance(duration);
+    span.end();
+  }
+
+  private static List<LongPointData> longPoints(Collection<MetricData> metrics, String name) {
+    return new ArrayList<>(metric(metrics, name).getLongSumData().getPoints());
+  }
+
+  private static List<DoubleHistogramPointData> histogramPoints(
+      Collection<MetricData> metrics, String name) {
+    return new ArrayList<>(metric(metrics, name).getDoubleHistogramData().getPoints());
+  }
+
+  private static MetricData metric(Collection<MetricData> metrics, String name) {
+    Optional<MetricData> metric =
+        metrics.stream().filter(data -> data.getName().equals(name)).findFirst();
+    assertThat(metric).isPresent();
+    return metric.get();
+  }
+
+  private static <T extends PointData> T find(
+      List<T> points, String name, SpanKind kind, StatusCode statusCode) {
+    Optional<T> point =
+        points.stream()
+            .filter(
+                data -> {
+                  Attributes attributes = data.getAttributes();
+                  return name.equals(attributes.get(SPAN_NAME))
+                      && kind.name().equals(attributes.get(SPAN_KIND))
+                      && statusCode.name().equals(attributes.get(STATUS_CODE));
+                })
+            .findFirst();
+    assertThat(point).isPresent();
+    return point.get();
+  }
+
+  private static final class RecordOnlySampler implements Sampler {
+    @Override
+    public SamplingResult shouldSample(
+        Context parentContext,
+        String traceId,
+        String name,
+        SpanKind spanKind,
+        Attributes attributes,
+        List<LinkData> parentLinks) {
+      return SamplingResult.create(SamplingDecision.RECORD_ONLY);
+    }
+
+    @Override
+    public String getDescription() {
+      return "RecordOnlySampler";
+    }
+  }
+}
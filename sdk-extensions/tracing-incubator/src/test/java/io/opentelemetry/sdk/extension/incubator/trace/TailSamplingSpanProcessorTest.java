@@ -0,0 +1,389 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingSpanProcessorTest {
+
+  private static final Duration DECISION_WAIT = Duration.ofSeconds(10);
+
+  private final TestClock clock = TestClock.create();
+  private final CapturingSpanProcessor downstream = new CapturingSpanProcessor();
+  private final List<TailSamplingSpanProcessor> processors = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    processors.forEach(TailSamplingSpanProcessor::shutdown);
+  }
+
+  @Test
+  void builderDefaults() {
+    TailSamplingSpanProcessorBuilder builder = TailSamplingSpanProcessor.builder(downstream);
+    assertThat(builder.getDecisionWaitNanos())
+        .isEqualTo(
+            TimeUnit.MILLISECONDS.toNanos(
+                TailSamplingSpanProcessorBuilder.DEFAULT_DECISION_WAIT_MILLIS));
+    assertThat(builder.getMaxBufferedSpans())
+        .isEqualTo(TailSamplingSpanProcessorBuilder.DEFAULT_MAX_BUFFERED_SPANS);
+    assertThat(builder.getMaxBufferedTraces())
+        .isEqualTo(TailSamplingSpanProcessorBuilder.DEFAULT_MAX_BUFFERED_TRACES);
+  }
+
+  @Test
+  @SuppressWarnings("PreferJavaTimeOverload")
+  void invalidArguments() {
+    assertThatThrownBy(() -> TailSamplingSpanProcessor.builder(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("spanProcessor");
+    TailSamplingSpanProcessorBuilder builder = TailSamplingSpanProcessor.builder(downstream);
+    assertThatThrownBy(() -> builder.addPolicy(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("policy");
+    assertThatThrownBy(() -> builder.setDecisionWait(0, TimeUnit.SECONDS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("decisionWait must be positive");
+    assertThatThrownBy(() -> builder.setDecisionWait(1, null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("unit");
+    assertThatThrownBy(() -> builder.setDecisionWait(null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("decisionWait");
+    assertThatThrownBy(() -> builder.setMaxBufferedSpans(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBufferedSpans must be positive");
+    assertThatThrownBy(() -> builder.setMaxBufferedTraces(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBufferedTraces must be positive");
+    assertThatThrownBy(() -> TailSamplingPolicy.rateLimited(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("tracesPerSecond must be positive");
+  }
+
+  @Test
+  void rootEnded_decidesTrace() {
+    TailSamplingSpanProcessor processor = newProcessor(TailSamplingPolicy.error());
+    Tracer tracer = newTracer(processor);
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    child.setStatus(StatusCode.ERROR);
+    child.end();
+    assertThat(processor.getBufferedSpans()).isEqualTo(1);
+    assertThat(downstream.ended).isEmpty();
+    root.end();
+    assertThat(downstream.names()).containsExactly("child", "root");
+    assertThat(processor.getBufferedSpans()).isZero();
+
+    Span other = tracer.spanBuilder("other").startSpan();
+    tracer.spanBuilder("otherChild").setParent(Context.root().with(other)).startSpan().end();
+    other.end();
+    assertThat(downstream.names()).containsExactly("child", "root");
+    assertThat(processor.getBufferedSpans()).isZero();
+  }
+
+  @Test
+  void decisionWaitPassed_decidesBufferedSpans() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicy.attribute(AttributeKey.stringKey("keep"), "yes"));
+    Tracer tracer = newTracer(processor);
+
+    Span root = tracer.spanBuilder("root").startSpan();
+    tracer
+        .spanBuilder("child")
+        .setParent(Context.root().with(root))
+        .setAttribute("keep", "yes")
+        .startSpan()
+        .end();
+    clock.advance(DECISION_WAIT.minusMillis(1));
+    processor.sweep();
+    assertThat(downstream.ended).isEmpty();
+
+    clock.advance(Duration.ofMillis(1));
+    processor.sweep();
+    assertThat(downstream.names()).containsExactly("child");
+    assertThat(processor.getBufferedTraces()).isZero();
+  }
+
+  @Test
+  void lateSpans_followDecision() {
+    TailSamplingSpanProcessor processor = newProcessor(TailSamplingPolicy.error());
+    Tracer tracer = newTracer(processor);
+
+    Span sampledRoot = tracer.spanBuilder("sampledRoot").startSpan();
+    Span sampledLate =
+        tracer.spanBuilder("sampledLate").setParent(Context.root().with(sampledRoot)).startSpan();
+    sampledRoot.setStatus(StatusCode.ERROR);
+    sampledRoot.end();
+    Span droppedRoot = tracer.spanBuilder("droppedRoot").startSpan();
+    Span droppedLate =
+        tracer.spanBuilder("droppedLate").setParent(Context.root().with(droppedRoot)).startSpan();
+    droppedRoot.end();
+    assertThat(processor.getBufferedTraces()).isEqualTo(2);
+
+    sampledLate.end();
+    droppedLate.end();
+    assertThat(downstream.names()).containsExactly("sampledRoot", "sampledLate");
+    assertThat(processor.getBufferedSpans()).isZero();
+
+    clock.advance(DECISION_WAIT);
+    processor.sweep();
+    assertThat(processor.getBufferedTraces()).isZero();
+  }
+
+  @Test
+  void policies_askedInOrder() {
+    List<String> asked = new ArrayList<>();
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+            trace -> {
+              asked.add("first");
+              return false;
+            },
+            trace -> {
+              asked.add("second");
+              throw new IllegalStateException("policy failed");
+            },
+            trace -> {
+              asked.add("third");
+              return true;
+            },
+            trace -> {
+              asked.add("fourth");
+              return true;
+            });
+    Tracer tracer = newTracer(processor);
+
+    tracer.spanBuilder("root").startSpan().end();
+    assertThat(asked).containsExactly("first", "second", "third");
+    assertThat(downstream.names()).containsExactly("root");
+  }
+
+  @Test
+  void latencyPolicy() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(TailSamplingPolicy.latency(Duration.ofMillis(100)));
+    Tracer tracer = newTracer(processor);
+
+    Span fast = tracer.spanBuilder("fast").startSpan();
+    clock.advance(Duration.ofMillis(99));
+    fast.end();
+    Span slow = tracer.spanBuilder("slow").startSpan();
+    clock.advance(Duration.ofMillis(100));
+    slow.end();
+    assertThat(downstream.names()).containsExactly("slow");
+  }
+
+  @Test
+  void rateLimitedPolicy() {
+    TailSamplingSpanProcessor processor = newProcessor(TailSamplingPolicy.rateLimited(1));
+    Tracer tracer = newTracer(processor);
+
+    tracer.spanBuilder("first").startSpan().end();
+    tracer.spanBuilder("second").startSpan().end();
+    assertThat(downstream.names()).containsExactly("first");
+  }
+
+  @Test
+  void maxBufferedSpans_evictsOldestTraces() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+            TailSamplingSpanProcessor.builder(downstream)
+                .addPolicy(trace -> true)
+                .setMaxBufferedSpans(2));
+    Tracer tracer = newTracer(processor);
+
+    Span first = tracer.spanBuilder("first").startSpan();
+    endChild(tracer, first, "firstChild1");
+    endChild(tracer, first, "firstChild2");
+    Span second = tracer.spanBuilder("second").startSpan();
+    endChild(tracer, second, "secondChild");
+    assertThat(downstream.names()).containsExactly("firstChild1", "firstChild2");
+    assertThat(processor.getBufferedSpans()).isEqualTo(1);
+    assertThat(processor.getBufferedTraces()).isEqualTo(1);
+
+    // The evicted trace is no longer tracked, so its late spans start a new trace buffer.
+    first.end();
+    assertThat(downstream.names()).containsExactly("firstChild1", "firstChild2", "first");
+  }
+
+  @Test
+  void maxBufferedTraces_evictsOldestTraces() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+            TailSamplingSpanProcessor.builder(downstream)
+                .addPolicy(trace -> true)
+                .setMaxBufferedTraces(2));
+    Tracer tracer = newTracer(processor);
+
+    endChild(tracer, tracer.spanBuilder("first").startSpan(), "firstChild");
+    endChild(tracer, tracer.spanBuilder("second").startSpan(), "secondChild");
+    assertThat(downstream.ended).isEmpty();
+    endChild(tracer, tracer.spanBuilder("third").startSpan(), "thirdChild");
+    assertThat(downstream.names()).containsExactly("firstChild");
+    assertThat(processor.getBufferedTraces()).isEqualTo(2);
+    assertThat(processor.getBufferedSpans()).isEqualTo(2);
+  }
+
+  @Test
+  void notSampled_forwardedImmediately() {
+    TailSamplingSpanProcessor processor = newProcessor(trace -> false);
+    ReadableSpan span = mock(ReadableSpan.class);
+    when(span.getSpanContext())
+        .thenReturn(
+            SpanContext.create(
+                "ff000000000000000000000000000041",
+                "ff00000000000041",
+                TraceFlags.getDefault(),
+                TraceState.getDefault()));
+
+    processor.onEnd(span);
+    assertThat(downstream.ended).containsExactly(span);
+    assertThat(processor.getBufferedSpans()).isZero();
+  }
+
+  @Test
+  void spanConvertedOnce() {
+    TailSamplingSpanProcessor processor =
+        newProcessor(
+            TailSamplingPolicy.error(),
+            TailSamplingPolicy.attribute(AttributeKey.stringKey("keep"), "yes"),
+            TailSamplingPolicy.latency(Duration.ofSeconds(1)));
+    ReadableSpan span = mock(ReadableSpan.class);
+    when(span.getSpanContext())
+        .thenReturn(
+            SpanContext.create(
+                "ff000000000000000000000000000041",
+                "ff00000000000041",
+                TraceFlags.getSampled(),
+                TraceState.getDefault()));
+    SpanData spanData = mock(SpanData.class);
+    when(spanData.getParentSpanContext()).thenReturn(SpanContext.getInvalid());
+    when(spanData.getStatus()).thenReturn(StatusData.unset());
+    when(spanData.getAttributes()).thenReturn(Attributes.empty());
+    when(span.toSpanData()).thenReturn(spanData);
+
+    processor.onEnd(span);
+    verify(span, times(1)).toSpanData();
+    assertThat(downstream.ended).isEmpty();
+    assertThat(processor.getBufferedSpans()).isZero();
+  }
+
+  @Test
+  void shutdown_decidesPendingTraces() {
+    TailSamplingSpanProcessor processor = newProcessor(trace -> true);
+    Tracer tracer = newTracer(processor);
+
+    endChild(tracer, tracer.spanBuilder("root").startSpan(), "child");
+    assertThat(downstream.ended).isEmpty();
+    assertThat(processor.shutdown().isSuccess()).isTrue();
+    assertThat(downstream.names()).containsExactly("child");
+    assertThat(downstream.isShutdown).isTrue();
+  }
+
+  @Test
+  void forceFlush_decidesPendingTraces() {
+    TailSamplingSpanProcessor processor = newProcessor(trace -> true);
+    Tracer tracer = newTracer(processor);
+
+    endChild(tracer, tracer.spanBuilder("root").startSpan(), "child");
+    assertThat(processor.forceFlush().isSuccess()).isTrue();
+    assertThat(downstream.names()).containsExactly("child");
+  }
+
+  private TailSamplingSpanProcessor newProcessor(TailSamplingPolicy... policies) {
+    TailSamplingSpanProcessorBuilder builder = TailSamplingSpanProcessor.builder(downstream);
+    for (TailSamplingPolicy policy : policies) {
+      builder.addPolicy(policy);
+    }
+    return newProcessor(builder);
+  }
+
+  private TailSamplingSpanProcessor newProcessor(TailSamplingSpanProcessorBuilder builder) {
+    TailSamplingSpanProcessor processor =
+        builder.setDecisionWait(DECISION_WAIT).setClock(clock).build();
+    processors.add(processor);
+    return processor;
+  }
+
+  private Tracer newTracer(SpanProcessor processor) {
+    return SdkTracerProvider.builder()
+        .setClock(clock)
+        .addSpanProcessor(processor)
+        .build()
+        .get("test");
+  }
+
+  private static void endChild(Tracer tracer, Span parent, String name) {
+    tracer.spanBuilder(name).setParent(Context.root().with(parent)).startSpan().end();
+  }
+
+  private static final class CapturingSpanProcessor implements SpanProcessor {
+    private final List<ReadableSpan> ended = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean isShutdown;
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+    @Override
+    public boolean isStartRequired() {
+      return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+      ended.add(span);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+      return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      isShutdown = true;
+      return CompletableResultCode.ofSuccess();
+    }
+
+    private List<String> names() {
+      synchronized (ended) {
+        return ended.stream().map(ReadableSpan::getName).collect(Collectors.toList());
+      }
+    }
+  }
+}
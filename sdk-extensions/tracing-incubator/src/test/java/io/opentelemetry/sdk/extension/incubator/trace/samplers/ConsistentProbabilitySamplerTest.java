@@ -0,0 +1,230 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.extension.incubator.trace.samplers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import com.google.common.testing.EqualsTester;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.IdGenerator;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class ConsistentProbabilitySamplerTest {
+
+  private static final String SPAN_ID = "0102030405060708";
+  private static final int NUM_SAMPLE_TRIES = 10000;
+
+  private static SamplingResult sample(Sampler sampler, String traceId, Context parentContext) {
+    return sampler.shouldSample(
+        parentContext,
+        traceId,
+        "span",
+        SpanKind.INTERNAL,
+        Attributes.empty(),
+        Collections.emptyList());
+  }
+
+  private static SamplingResult sample(Sampler sampler, String traceId) {
+    return sample(sampler, traceId, Context.root());
+  }
+
+  private static Context parent(TraceState traceState) {
+    return Context.root()
+        .with(
+            Span.wrap(
+                SpanContext.create(
+                    "00000000000000000000000000000001",
+                    SPAN_ID,
+                    TraceFlags.getSampled(),
+                    traceState)));
+  }
+
+  @Test
+  void thresholds() {
+    assertThat(ConsistentProbabilitySampler.create(1.0).getThreshold()).isZero();
+    assertThat(ConsistentProbabilitySampler.create(0.0).getThreshold()).isEqualTo(1L << 56);
+    assertThat(ConsistentProbabilitySampler.create(0.5).getThreshold()).isEqualTo(1L << 55);
+    assertThat(ConsistentProbabilitySampler.create(0.25).getThreshold()).isEqualTo(3 * (1L << 54));
+    assertThat(ConsistentProbabilitySampler.create(Double.MIN_VALUE).getThreshold())
+        .isEqualTo((1L << 56) - 1);
+    assertThat(ConsistentProbabilitySampler.createPowerOfTwo(0).getThreshold()).isZero();
+    assertThat(ConsistentProbabilitySampler.createPowerOfTwo(2))
+        .isEqualTo(ConsistentProbabilitySampler.create(0.25));
+    assertThat(ConsistentProbabilitySampler.createPowerOfTwo(56).getThreshold())
+        .isEqualTo((1L << 56) - 1);
+  }
+
+  @Test
+  void outOfRange() {
+    assertThatThrownBy(() -> ConsistentProbabilitySampler.create(1.01))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ConsistentProbabilitySampler.create(-0.00001))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ConsistentProbabilitySampler.createPowerOfTwo(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ConsistentProbabilitySampler.createPowerOfTwo(57))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void getDescription() {
+    assertThat(ConsistentProbabilitySampler.create(0.5).getDescription())
+        .isEqualTo(String.format("ConsistentProbabilitySampler{%.6f}", 0.5));
+    assertThat(ConsistentProbabilitySampler.createPowerOfTwo(3).toString())
+        .isEqualTo(String.format("ConsistentProbabilitySampler{%.6f}", 0.125));
+  }
+
+  @Test
+  void equalsAndHashCode() {
+    new EqualsTester()
+        .addEqualityGroup(
+            ConsistentProbabilitySampler.create(0.5),
+            ConsistentProbabilitySampler.createPowerOfTwo(1))
+        .addEqualityGroup(ConsistentProbabilitySampler.create(0.3))
+        .addEqualityGroup(ConsistentProbabilitySampler.create(0.0))
+        .testEquals();
+  }
+
+  @Test
+  void comparesRandomnessWithThreshold() {
+    Sampler sampler = ConsistentProbabilitySampler.create(0.25);
+    // Threshold is c0000000000000.
+    assertThat(sample(sampler, "ffffffffffffffffffc0000000000000").getDecision())
+        .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(sample(sampler, "00000000000000000fffffffffffffff").getDecision())
+        .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(sample(sampler, "ffffffffffffffff00bfffffffffffff").getDecision())
+        .isEqualTo(SamplingDecision.DROP);
+    assertThat(sample(sampler, "ffffffffffffffff0000000000000000").getDecision())
+        .isEqualTo(SamplingDecision.DROP);
+  }
+
+  @Test
+  void alwaysAndNever() {
+    Sampler always = ConsistentProbabilitySampler.create(1.0);
+    Sampler never = ConsistentProbabilitySampler.create(0.0);
+    assertThat(sample(always, "00000000000000000000000000000001").getDecision())
+        .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(sample(never, "ffffffffffffffffffffffffffffffff").getDecision())
+        .isEqualTo(SamplingDecision.DROP);
+  }
+
+  @Test
+  void usesExplicitRandomness() {
+    Sampler sampler = ConsistentProbabilitySampler.create(0.5);
+    String lowTraceId = "ffffffffffffffff0000000000000000";
+    String highTraceId = "0000000000000000ffffffffffffffff";
+
+    assertThat(
+            sample(
+                    sampler,
+                    lowTraceId,
+                    parent(TraceState.builder().put("ot", "rv:80000000000000").build()))
+                .getDecision())
+        .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    assertThat(
+            sample(
+                    sampler,
+                    highTraceId,
+                    parent(TraceState.builder().put("ot", "th:0;rv:7fffffffffffff").build()))
+                .getDecision())
+        .isEqualTo(SamplingDecision.DROP);
+    // Invalid randomness is ignored.
+    assertThat(
+            sample(sampler, highTraceId, parent(TraceState.builder().put("ot", "rv:7f").build()))
+                .getDecision())
+        .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+  }
+
+  @Test
+  void consistentAcrossProbabilities() {
+    IdGenerator idGenerator = IdGenerator.random();
+    Sampler high = ConsistentProbabilitySampler.create(0.6);
+    Sampler low = ConsistentProbabilitySampler.createPowerOfTwo(2);
+    int sampledLow = 0;
+    for (int i = 0; i < NUM_SAMPLE_TRIES; i++) {
+      String traceId = idGenerator.generateTraceId();
+      if (sample(low, traceId).getDecision() == SamplingDecision.RECORD_AND_SAMPLE) {
+        sampledLow++;
+        assertThat(sample(high, traceId).getDecision())
+            .isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+      }
+    }
+    assertThat(sampledLow).isBetween(2000, 3000);
+  }
+
+  @Test
+  void recordsThreshold() {
+    SamplingResult sampled =
+        sample(ConsistentProbabilitySampler.create(0.25), "00000000000000000fffffffffffffff");
+    TraceState root = sampled.getUpdatedTraceState(TraceState.getDefault());
+    assertThat(root.get("ot")).isEqualTo("th:c");
+    assertThat(sampled.getUpdatedTraceState(TraceState.getDefault())).isSameAs(root);
+
+    TraceState parent =
+        TraceState.builder().put("ot", "rv:0123456789abcd;th:8").put("vendor", "value").build();
+    TraceState updated = sampled.getUpdatedTraceState(parent);
+    assertThat(updated.get("ot")).isEqualTo("th:c;rv:0123456789abcd");
+    assertThat(updated.get("vendor")).isEqualTo("value");
+    assertThat(sampled.getUpdatedTraceState(updated)).isSameAs(updated);
+
+    SamplingResult dropped =
+        sample(ConsistentProbabilitySampler.create(0.25), "00000000000000000000000000000000");
+    assertThat(dropped.getUpdatedTraceState(parent).get("ot")).isEqualTo("rv:0123456789abcd");
+    TraceState thresholdOnly = TraceState.builder().put("ot", "th:8").put("a", "b").build();
+    assertThat(dropped.getUpdatedTraceState(thresholdOnly).asMap()).containsOnlyKeys("a");
+    TraceState other = TraceState.builder().put("a", "b").build();
+    assertThat(dropped.getUpdatedTraceState(other)).isSameAs(other);
+  }
+
+  @Test
+  void getAdjustedCount() {
+    assertThat(ConsistentProbabilitySampler.getAdjustedCount(TraceState.getDefault())).isNaN();
+    assertThat(
+            ConsistentProbabilitySampler.getAdjustedCount(
+                TraceState.builder().put("ot", "rv:0123456789abcd").build()))
+        .isNaN();
+    assertThat(
+            ConsistentProbabilitySampler.getAdjustedCount(
+                TraceState.builder().put("ot", "th:xyz").build()))
+        .isNaN();
+    assertThat(
+            ConsistentProbabilitySampler.getAdjustedCount(
+                TraceState.builder().put("ot", "th:0").build()))
+        .isEqualTo(1.0);
+    assertThat(
+            ConsistentProbabilitySampler.getAdjustedCount(
+                TraceState.builder().put("ot", "rv:0123456789abcd;th:c").build()))
+        .isEqualTo(4.0);
+
+    for (double ratio : new double[] {1.0, 0.5, 0.1, 0.01, 1e-6}) {
+      TraceState traceState =
+          ConsistentProbabilitySampler.create(ratio)
+              .shouldSample(
+                  Context.root(),
+                  "ffffffffffffffffffffffffffffffff",
+                  "span",
+                  SpanKind.INTERNAL,
+                  Attributes.empty(),
+                  Collections.emptyList())
+              .getUpdatedTraceState(TraceState.getDefault());
+      assertThat(ConsistentProbabilitySampler.getAdjustedCount(traceState))
+          .isCloseTo(1 / ratio, withinPercentage(0.0001));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import io.opentelemetry.sdk.common.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares spending single credits from a {@link RateLimiter} shared by all threads with a {@link
+ * StripedRateLimiter}, at a rate most spends fail at, as when rate limiting sampled traces, and at
+ * a rate most succeed at.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+  @Param({"shared", "striped"})
+  private String limiterName;
+
+  @Param({"100", "100000000"})
+  private double creditsPerSecond;
+
+  private boolean striped;
+  private RateLimiter sharedLimiter;
+  private StripedRateLimiter stripedLimiter;
+
+  @Setup
+  public void setup() {
+    striped = limiterName.equals("striped");
+    sharedLimiter = new RateLimiter(creditsPerSecond, creditsPerSecond, Clock.getDefault());
+    stripedLimiter = new StripedRateLimiter(creditsPerSecond, creditsPerSecond, Clock.getDefault());
+  }
+
+  private boolean trySpend() {
+    return striped ? stripedLimiter.trySpend() : sharedLimiter.trySpend(1.0);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean trySpend_01Thread() {
+    return trySpend();
+  }
+
+  @Benchmark
+  @Threads(2)
+  public boolean trySpend_02Threads() {
+    return trySpend();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean trySpend_04Threads() {
+    return trySpend();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean trySpend_08Threads() {
+    return trySpend();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public boolean trySpend_16Threads() {
+    return trySpend();
+  }
+}
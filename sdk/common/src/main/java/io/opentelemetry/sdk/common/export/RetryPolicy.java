@@ -0,0 +1,103 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.common.export;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Configuration for exporter retries. Failed exports are retried up to {@link #getMaxAttempts()}
+ * times in total, waiting a random delay between zero and the current backoff before each retry.
+ * The backoff starts at {@link #getInitialBackoff()} and is multiplied by {@link
+ * #getBackoffMultiplier()} after each attempt, up to {@link #getMaxBackoff()}.
+ */
+@AutoValue
+@Immutable
+public abstract class RetryPolicy {
+
+  private static final int DEFAULT_MAX_ATTEMPTS = 5;
+  private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(1);
+  private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+  private static final double DEFAULT_BACKOFF_MULTIPLIER = 1.5;
+
+  private static final RetryPolicy DEFAULT = builder().build();
+
+  /**
+   * Returns the default {@link RetryPolicy}, which makes up to {@value DEFAULT_MAX_ATTEMPTS}
+   * attempts with an initial backoff of 1s growing by a factor of {@value
+   * DEFAULT_BACKOFF_MULTIPLIER} up to 5s.
+   */
+  public static RetryPolicy getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns a new {@link Builder} for {@link RetryPolicy}, initialized with the values of {@link
+   * #getDefault()}.
+   */
+  public static Builder builder() {
+    return new AutoValue_RetryPolicy.Builder()
+        .setMaxAttempts(DEFAULT_MAX_ATTEMPTS)
+        .setInitialBackoff(DEFAULT_INITIAL_BACKOFF)
+        .setMaxBackoff(DEFAULT_MAX_BACKOFF)
+        .setBackoffMultiplier(DEFAULT_BACKOFF_MULTIPLIER);
+  }
+
+  /** Returns the maximum number of attempts, including the original request. */
+  public abstract int getMaxAttempts();
+
+  /** Returns the maximum delay before the first retry. */
+  public abstract Duration getInitialBackoff();
+
+  /** Returns the upper bound the backoff may grow to. */
+  public abstract Duration getMaxBackoff();
+
+  /** Returns the factor by which the backoff grows after each attempt. */
+  public abstract double getBackoffMultiplier();
+
+  /** Builder for {@link RetryPolicy} instances. */
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    /**
+     * Sets the maximum number of attempts, including the original request. Must be greater than 1
+     * and less than 6.
+     */
+    public abstract Builder setMaxAttempts(int maxAttempts);
+
+    /** Sets the maximum delay before the first retry. Must be positive. */
+    public abstract Builder setInitialBackoff(Duration initialBackoff);
+
+    /** Sets the upper bound the backoff may grow to. Must not be less than the initial backoff. */
+    public abstract Builder setMaxBackoff(Duration maxBackoff);
+
+    /** Sets the factor by which the backoff grows after each attempt. Must be at least 1. */
+    public abstract Builder setBackoffMultiplier(double backoffMultiplier);
+
+    abstract RetryPolicy autoBuild();
+
+    /** Returns a {@link RetryPolicy} with the configuration of this builder. */
+    public final RetryPolicy build() {
+      RetryPolicy retryPolicy = autoBuild();
+      checkArgument(
+          retryPolicy.getMaxAttempts() > 1 && retryPolicy.getMaxAttempts() < 6,
+          "maxAttempts must be greater than 1 and less than 6");
+      checkArgument(
+          !retryPolicy.getInitialBackoff().isNegative()
+              && !retryPolicy.getInitialBackoff().isZero(),
+          "initialBackoff must be positive");
+      checkArgument(
+          retryPolicy.getMaxBackoff().compareTo(retryPolicy.getInitialBackoff()) >= 0,
+          "maxBackoff must not be less than initialBackoff");
+      checkArgument(
+          retryPolicy.getBackoffMultiplier() >= 1, "backoffMultiplier must be at least 1");
+      return retryPolicy;
+    }
+  }
+}
@@ -62,4 +62,12 @@ public class RateLimiter {
         currentBalanceNanos, currentNanos - availableBalanceAfterWithdrawal));
     return true;
   }
+
+  /**
+   * Returns credits previously spent with {@link #trySpend(double)} to the balance, which remains
+   * capped at the maximum balance.
+   */
+  public void refund(double credits) {
+    this.currentBalance.addAndGet(-(long) (credits / creditsPerNanosecond));
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import io.opentelemetry.sdk.common.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link RateLimiter} for spending single credits from many threads. Threads are spread over
+ * stripes, which borrow credits from a shared {@link RateLimiter} in batches, so that most spends
+ * only update a counter shared with the threads of the same stripe. Credits a stripe hasn't spent
+ * within {@link #MAX_CREDIT_AGE_NANOS} of borrowing them are returned to the shared {@link
+ * RateLimiter} the next time one of its threads spends, so the global rate stays within what
+ * accrues in that time of the rate of the shared {@link RateLimiter}.
+ *
+ * <p>When less than two credits accrue per stripe in that time, as for the usual rates of sampled
+ * traces, credits are spent from the shared {@link RateLimiter} directly: most spends then fail,
+ * which only reads the shared balance.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class StripedRateLimiter {
+
+  private static final long MAX_CREDIT_AGE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final int MAX_STRIPES = 64;
+
+  private final Clock clock;
+  private final RateLimiter rateLimiter;
+  private final Stripe[] stripes;
+  private final int batchSize;
+
+  /**
+   * Create a new StripedRateLimiter with the provided parameters, with a stripe for each available
+   * processor.
+   *
+   * @param creditsPerSecond How many credits to accrue per second.
+   * @param maxBalance The maximum balance that the limiter can hold, which corresponds to the rate
+   *     that is being limited to.
+   * @param clock An implementation of the {@link Clock} interface.
+   */
+  public StripedRateLimiter(double creditsPerSecond, double maxBalance, Clock clock) {
+    this(creditsPerSecond, maxBalance, clock, Runtime.getRuntime().availableProcessors());
+  }
+
+  // Visible for testing
+  StripedRateLimiter(double creditsPerSecond, double maxBalance, Clock clock, int parallelism) {
+    this.clock = clock;
+    this.rateLimiter = new RateLimiter(creditsPerSecond, maxBalance, clock);
+    int stripeCount = 1;
+    while (stripeCount < parallelism && stripeCount < MAX_STRIPES) {
+      stripeCount <<= 1;
+    }
+    // Borrow no more than accrues in the maximum age, or than the balance holds, over all stripes.
+    double batch =
+        Math.min(creditsPerSecond * MAX_CREDIT_AGE_NANOS / 1.0e9, maxBalance) / stripeCount;
+    this.batchSize = batch < 2 ? 1 : (int) Math.min(batch, Integer.MAX_VALUE);
+    this.stripes = new Stripe[batchSize == 1 ? 0 : stripeCount];
+    long now = clock.nanoTime();
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe(now);
+    }
+  }
+
+  /** Spends a single credit if one is available, returning whether it was. */
+  public boolean trySpend() {
+    if (batchSize == 1) {
+      return rateLimiter.trySpend(1.0);
+    }
+    Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+    long now = clock.nanoTime();
+    if (now - stripe.borrowedNanos > MAX_CREDIT_AGE_NANOS) {
+      long unspent = stripe.credits.getAndSet(0);
+      if (unspent > 0) {
+        rateLimiter.refund(unspent);
+      }
+    } else if (stripe.tryTake()) {
+      return true;
+    }
+    if (rateLimiter.trySpend(batchSize)) {
+      stripe.borrowedNanos = now;
+      stripe.credits.addAndGet(batchSize - 1);
+      return true;
+    }
+    // The stripe holds no credits now, so there is nothing to refund until it borrows again.
+    stripe.borrowedNanos = now;
+    return rateLimiter.trySpend(1.0);
+  }
+
+  // Visible for testing
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  private static final class Stripe {
+    private final AtomicLong credits = new AtomicLong();
+    private volatile long borrowedNanos;
+
+    private Stripe(long borrowedNanos) {
+      this.borrowedNanos = borrowedNanos;
+    }
+
+    private boolean tryTake() {
+      long current;
+      do {
+        current = credits.get();
+        if (current == 0) {
+          return false;
+        }
+      } while (!credits.compareAndSet(current, current - 1));
+      return true;
+    }
+  }
+}
@@ -14,7 +14,6 @@ import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.memoized.Memoized;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.internal.StringUtils;
 import io.opentelemetry.api.internal.Utils;
 import java.util.Objects;
@@ -155,28 +154,38 @@ public abstract class Resource {
       return this;
     }
 
-    AttributesBuilder attrBuilder = Attributes.builder();
-    attrBuilder.putAll(this.getAttributes());
-    attrBuilder.putAll(other.getAttributes());
+    String schemaUrl = getSchemaUrl();
+    String otherSchemaUrl = other.getSchemaUrl();
+    // Merging with an empty resource whose schema URL doesn't change the result, as resource
+    // providers return when they don't apply, needs no copy of the attributes.
+    if (other.getAttributes().isEmpty()
+        && (otherSchemaUrl == null || otherSchemaUrl.equals(schemaUrl))) {
+      return this;
+    }
+    if (getAttributes().isEmpty() && (schemaUrl == null || schemaUrl.equals(otherSchemaUrl))) {
+      return other;
+    }
+
+    Attributes attributes = getAttributes().toBuilder().putAll(other.getAttributes()).build();
 
-    if (other.getSchemaUrl() == null) {
-      return create(attrBuilder.build(), getSchemaUrl());
+    if (otherSchemaUrl == null) {
+      return create(attributes, schemaUrl);
     }
-    if (getSchemaUrl() == null) {
-      return create(attrBuilder.build(), other.getSchemaUrl());
+    if (schemaUrl == null) {
+      return create(attributes, otherSchemaUrl);
     }
-    if (!other.getSchemaUrl().equals(getSchemaUrl())) {
+    if (!otherSchemaUrl.equals(schemaUrl)) {
       logger.info(
           "Attempting to merge Resources with different schemaUrls. "
               + "The resulting Resource will have no schemaUrl assigned. Schema 1: "
-              + getSchemaUrl()
+              + schemaUrl
               + " Schema 2: "
-              + other.getSchemaUrl());
+              + otherSchemaUrl);
       // currently, behavior is undefined if schema URLs don't match. In the future, we may
       // apply schema transformations if possible.
-      return create(attrBuilder.build(), null);
+      return create(attributes, null);
     }
-    return create(attrBuilder.build(), getSchemaUrl());
+    return create(attributes, schemaUrl);
   }
 
   private static void checkAttributes(Attributes attributes) {
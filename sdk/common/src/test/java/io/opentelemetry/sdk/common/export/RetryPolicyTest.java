@@ -0,0 +1,59 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.common.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyTest {
+
+  @Test
+  void defaults() {
+    RetryPolicy retryPolicy = RetryPolicy.getDefault();
+    assertThat(retryPolicy.getMaxAttempts()).isEqualTo(5);
+    assertThat(retryPolicy.getInitialBackoff()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(retryPolicy.getMaxBackoff()).isEqualTo(Duration.ofSeconds(5));
+    assertThat(retryPolicy.getBackoffMultiplier()).isEqualTo(1.5);
+    assertThat(RetryPolicy.builder().build()).isEqualTo(retryPolicy);
+  }
+
+  @Test
+  void build() {
+    RetryPolicy retryPolicy =
+        RetryPolicy.builder()
+            .setMaxAttempts(2)
+            .setInitialBackoff(Duration.ofMillis(100))
+            .setMaxBackoff(Duration.ofMillis(100))
+            .setBackoffMultiplier(1.0)
+            .build();
+    assertThat(retryPolicy.getMaxAttempts()).isEqualTo(2);
+    assertThat(retryPolicy.getInitialBackoff()).isEqualTo(Duration.ofMillis(100));
+    assertThat(retryPolicy.getMaxBackoff()).isEqualTo(Duration.ofMillis(100));
+    assertThat(retryPolicy.getBackoffMultiplier()).isEqualTo(1.0);
+  }
+
+  @Test
+  void invalidConfig() {
+    assertThatThrownBy(() -> RetryPolicy.builder().setMaxAttempts(1).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxAttempts must be greater than 1 and less than 6");
+    assertThatThrownBy(() -> RetryPolicy.builder().setMaxAttempts(6).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxAttempts must be greater than 1 and less than 6");
+    assertThatThrownBy(() -> RetryPolicy.builder().setInitialBackoff(Duration.ZERO).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("initialBackoff must be positive");
+    assertThatThrownBy(() -> RetryPolicy.builder().setMaxBackoff(Duration.ofMillis(1)).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxBackoff must not be less than initialBackoff");
+    assertThatThrownBy(() -> RetryPolicy.builder().setBackoffMultiplier(0.5).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("backoffMultiplier must be at least 1");
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class StripedRateLimiterTest {
+
+  @Test
+  void lowRate_spendsDirectly() {
+    TestClock clock = TestClock.create();
+    StripedRateLimiter limiter = new StripedRateLimiter(2.0, 2.0, clock, 8);
+    assertThat(limiter.getBatchSize()).isEqualTo(1);
+
+    assertThat(limiter.trySpend()).isTrue();
+    assertThat(limiter.trySpend()).isTrue();
+    assertThat(limiter.trySpend()).isFalse();
+    clock.advance(Duration.ofMillis(250));
+    assertThat(limiter.trySpend()).isFalse();
+    clock.advance(Duration.ofMillis(500));
+    assertThat(limiter.trySpend()).isTrue();
+    assertThat(limiter.trySpend()).isFalse();
+  }
+
+  @Test
+  void highRate_borrowsBatches() {
+    TestClock clock = TestClock.create();
+    StripedRateLimiter limiter = new StripedRateLimiter(100_000, 1000, clock, 4);
+    // 1000 credits accrue in 10ms, split over 4 stripes.
+    assertThat(limiter.getBatchSize()).isEqualTo(250);
+
+    assertThat(spendAll(limiter)).isEqualTo(1000);
+
+    // 50 credits accrue in 0.5ms.
+    clock.advance(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(500)));
+    assertThat(spendAll(limiter)).isEqualTo(50);
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(spendAll(limiter)).isEqualTo(1000);
+  }
+
+  @Test
+  void highRate_refundsExpiredCredits() {
+    TestClock clock = TestClock.create();
+    StripedRateLimiter limiter = new StripedRateLimiter(10_000, 1000, clock, 1);
+    assertThat(limiter.getBatchSize()).isEqualTo(100);
+    assertThat(spendAll(limiter)).isEqualTo(1000);
+
+    // Borrows the 100 credits accrued in 10ms, leaving 99 in the stripe.
+    clock.advance(Duration.ofMillis(10));
+    assertThat(limiter.trySpend()).isTrue();
+
+    // The 99 unspent credits are returned once they expire, adding to the 110 accrued meanwhile.
+    clock.advance(Duration.ofMillis(11));
+    assertThat(spendAll(limiter)).isEqualTo(209);
+  }
+
+  @Test
+  void concurrency() throws InterruptedException, ExecutionException {
+    int numWorkers = 8;
+    ExecutorService executorService = Executors.newFixedThreadPool(numWorkers);
+    int credits = 8000;
+    TestClock clock = TestClock.create();
+    StripedRateLimiter limiter = new StripedRateLimiter(1_000_000, credits, clock, numWorkers);
+    AtomicInteger count = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>(numWorkers);
+    for (int w = 0; w < numWorkers; ++w) {
+      Future<?> future =
+          executorService.submit(
+              () -> {
+                for (int i = 0; i < credits; ++i) {
+                  if (limiter.trySpend()) {
+                    count.getAndIncrement(); // count allowed operations
+                  }
+                }
+              });
+      futures.add(future);
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executorService.shutdown();
+    executorService.awaitTermination(1, TimeUnit.SECONDS);
+    // Only credits borrowed by stripes whose threads have already finished may be left unspent.
+    assertThat(count.get())
+        .isLessThanOrEqualTo(credits)
+        .isGreaterThanOrEqualTo(credits - numWorkers * limiter.getBatchSize());
+  }
+
+  private static int spendAll(StripedRateLimiter limiter) {
+    int spent = 0;
+    while (limiter.trySpend()) {
+      spent++;
+    }
+    return spent;
+  }
+}
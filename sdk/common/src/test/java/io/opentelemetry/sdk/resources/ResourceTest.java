@@ -204,6 +204,28 @@ class ResourceTest {
     assertThat(resource.getAttributes()).isEqualTo(expectedAttributes);
   }
 
+  @Test
+  void testMergeResources_Empty() {
+    Resource schemaOne = Resource.builder().setSchemaUrl("http://schema.1").put("a", 1).build();
+    Resource emptySchemaOne = Resource.create(Attributes.empty(), "http://schema.1");
+    Resource emptySchemaTwo = Resource.create(Attributes.empty(), "http://schema.2");
+
+    assertThat(resource1.merge(Resource.empty())).isSameAs(resource1);
+    assertThat(Resource.empty().merge(resource1)).isSameAs(resource1);
+    assertThat(schemaOne.merge(emptySchemaOne)).isSameAs(schemaOne);
+    assertThat(emptySchemaOne.merge(schemaOne)).isSameAs(schemaOne);
+
+    Resource merged = resource1.merge(emptySchemaOne);
+    assertThat(merged.getAttributes()).isEqualTo(resource1.getAttributes());
+    assertThat(merged.getSchemaUrl()).isEqualTo("http://schema.1");
+    merged = schemaOne.merge(emptySchemaTwo);
+    assertThat(merged.getAttributes()).isEqualTo(schemaOne.getAttributes());
+    assertThat(merged.getSchemaUrl()).isNull();
+    merged = emptySchemaTwo.merge(resource1);
+    assertThat(merged.getAttributes()).isEqualTo(resource1.getAttributes());
+    assertThat(merged.getSchemaUrl()).isEqualTo("http://schema.2");
+  }
+
   @Test
   void testDefaultResources() {
     Resource resource = Resource.getDefault();
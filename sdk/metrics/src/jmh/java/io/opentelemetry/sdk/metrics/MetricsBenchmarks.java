@@ -29,6 +29,8 @@ import org.openjdk.jmh.infra.ThreadParams;
 @Fork(1)
 public class MetricsBenchmarks {
 
+  private static final int HIGH_CARDINALITY = 1_000;
+
   @State(Scope.Thread)
   public static class ThreadState {
 
@@ -39,12 +41,29 @@ public class MetricsBenchmarks {
     MetricsTestOperationBuilder.Operation op;
     final Labels sharedLabelSet = Labels.of("KEY", "VALUE");
     Labels threadUniqueLabelSet;
+    // Many distinct label sets sharing most of their labels, recorded in turn.
+    final Labels[] highCardinalityLabelSets = new Labels[HIGH_CARDINALITY];
+    int highCardinalityIndex;
 
     @Setup
     public void setup(ThreadParams threadParams) {
       Meter meter = sdk.getMeter();
       op = opBuilder.build(meter);
       threadUniqueLabelSet = Labels.of("KEY", String.valueOf(threadParams.getThreadIndex()));
+      for (int i = 0; i < HIGH_CARDINALITY; i++) {
+        highCardinalityLabelSets[i] =
+            Labels.of(
+                "http.method", "GET",
+                "http.route", "/api/v1/resource",
+                "http.status_code", "200",
+                "net.peer.name", "host-" + i);
+      }
+    }
+
+    Labels nextHighCardinalityLabelSet() {
+      Labels labels = highCardinalityLabelSets[highCardinalityIndex];
+      highCardinalityIndex = (highCardinalityIndex + 1) % HIGH_CARDINALITY;
+      return labels;
     }
   }
 
@@ -72,6 +91,18 @@ public class MetricsBenchmarks {
     threadState.op.perform(threadState.threadUniqueLabelSet);
   }
 
+  @Benchmark
+  @Threads(1)
+  public void oneThreadHighCardinality(ThreadState threadState) {
+    threadState.op.perform(threadState.nextHighCardinalityLabelSet());
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void eightThreadsHighCardinality(ThreadState threadState) {
+    threadState.op.perform(threadState.nextHighCardinalityLabelSet());
+  }
+
   @Benchmark
   @Threads(8)
   public void eightThreadsBound(ThreadState threadState) {